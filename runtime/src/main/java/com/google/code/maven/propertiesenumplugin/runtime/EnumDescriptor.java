@@ -0,0 +1,142 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Describes a generated enum type: the base name of its properties file and the property key of each constant, by
+ * ordinal. Each generated enum type holds exactly one descriptor, which also caches the resource bundles loaded for the
+ * enum.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class EnumDescriptor {
+
+  /**
+   * The enum type described.
+   */
+  private final Class<? extends Enum<?>> enumType;
+
+  /**
+   * The properties file's base name.
+   */
+  private final String baseName;
+
+  /**
+   * The property keys, by ordinal of their enum constants.
+   */
+  private final String[] keys;
+
+  /**
+   * The resource bundles loaded so far, by locale.
+   */
+  private final ConcurrentMap<Locale, ResourceBundle> bundles;
+
+  /**
+   * Constructs a new {@link EnumDescriptor}.
+   * 
+   * @param enumType
+   *          the enum type described; its class loader is used to load the resource bundles
+   * @param baseName
+   *          the properties file's base name
+   * @param keys
+   *          the property keys, in the order of the enum constants
+   */
+  public EnumDescriptor(final Class<? extends Enum<?>> enumType, final String baseName, final String... keys) {
+    this.enumType = enumType;
+    this.baseName = baseName;
+    this.keys = keys;
+    bundles = new ConcurrentHashMap<Locale, ResourceBundle>();
+  }
+
+  /**
+   * @return the enum type described
+   */
+  public Class<? extends Enum<?>> getEnumType() {
+    return enumType;
+  }
+
+  /**
+   * @return the properties file's base name
+   */
+  public String getBaseName() {
+    return baseName;
+  }
+
+  /**
+   * @param ordinal
+   *          the ordinal of an enum constant
+   * @return the constant's property key
+   */
+  public String getKey(final int ordinal) {
+    return keys[ordinal];
+  }
+
+  /**
+   * @return all property keys, in the order of the enum constants
+   */
+  public List<String> getKeys() {
+    return Collections.unmodifiableList(Arrays.asList(keys));
+  }
+
+  /**
+   * @return the number of enum constants
+   */
+  public int size() {
+    return keys.length;
+  }
+
+  /**
+   * Returns the resource bundle for the given locale. Each bundle is looked up only once per descriptor.
+   * 
+   * @param locale
+   *          the locale
+   * @return the resource bundle
+   * @throws MissingResourceException
+   *           if there is no resource bundle for the base name
+   */
+  public ResourceBundle getBundle(final Locale locale) {
+    ResourceBundle bundle = bundles.get(locale);
+    if (bundle == null) {
+      bundle = ResourceBundle.getBundle(baseName, locale, enumType.getClassLoader());
+      ResourceBundle previous = bundles.putIfAbsent(locale, bundle);
+      if (previous != null) {
+        bundle = previous;
+      }
+    }
+    return bundle;
+  }
+
+  /**
+   * Looks up the value of a property for the given locale.
+   * 
+   * @param ordinal
+   *          the ordinal of the property's enum constant
+   * @param locale
+   *          the locale
+   * @return the property's value, or the property key if it is missing
+   */
+  public String getString(final int ordinal, final Locale locale) {
+    String key = keys[ordinal];
+    ResourceBundle bundle = getBundle(locale);
+    return bundle.containsKey(key) ? bundle.getString(key) : key;
+  }
+}
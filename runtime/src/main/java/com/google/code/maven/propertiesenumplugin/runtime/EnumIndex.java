@@ -0,0 +1,30 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.List;
+
+/**
+ * Lists the enum types generated by one execution of the plugin. The plugin generates an implementation and registers
+ * it in <code>META-INF/services</code>, so that {@link EnumRegistry} finds all generated enum types by loading one
+ * class per execution instead of scanning the class path.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public interface EnumIndex {
+
+  /**
+   * @return the indexed enum types
+   */
+  List<IndexedEnum> getEnums();
+}
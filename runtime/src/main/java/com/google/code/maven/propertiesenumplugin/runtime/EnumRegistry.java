@@ -0,0 +1,70 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Finds all generated enum types through the {@link EnumIndex} implementations registered in
+ * <code>META-INF/services</code>. This loads one index class per execution of the plugin, instead of scanning the class
+ * path. The result is not cached, callers that need it repeatedly should keep it.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class EnumRegistry {
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private EnumRegistry() {
+  }
+
+  /**
+   * @return all indexed enum types visible to the current thread's context class loader
+   */
+  public static List<IndexedEnum> getEnums() {
+    return getEnums(Thread.currentThread().getContextClassLoader());
+  }
+
+  /**
+   * @param classLoader
+   *          the class loader to find the indexes with
+   * @return all indexed enum types visible to the given class loader
+   */
+  public static List<IndexedEnum> getEnums(final ClassLoader classLoader) {
+    List<IndexedEnum> enums = new ArrayList<IndexedEnum>();
+    for (EnumIndex index : ServiceLoader.load(EnumIndex.class, classLoader)) {
+      enums.addAll(index.getEnums());
+    }
+    return Collections.unmodifiableList(enums);
+  }
+
+  /**
+   * @param classLoader
+   *          the class loader to find the indexes with
+   * @param baseName
+   *          a properties file's base name
+   * @return the indexed enum type generated for the properties file, or <code>null</code> if there is none
+   */
+  public static IndexedEnum findByBaseName(final ClassLoader classLoader, final String baseName) {
+    for (IndexedEnum indexedEnum : getEnums(classLoader)) {
+      if (indexedEnum.getBaseName().equals(baseName)) {
+        return indexedEnum;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * An entry of an {@link EnumIndex}: the name of a generated enum type, the base name of its properties file, its
+ * number of keys and the locales of its localized variants. The enum type itself is only loaded on request.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class IndexedEnum {
+
+  /**
+   * The class loader of the index, used to load the enum type and its resource bundles.
+   */
+  private final ClassLoader classLoader;
+
+  /**
+   * The enum type's fully qualified name.
+   */
+  private final String enumTypeName;
+
+  /**
+   * The properties file's base name.
+   */
+  private final String baseName;
+
+  /**
+   * The number of keys, i.e. enum constants.
+   */
+  private final int keyCount;
+
+  /**
+   * The locales of the properties file and its localized variants.
+   */
+  private final List<Locale> locales;
+
+  /**
+   * Constructs a new {@link IndexedEnum}.
+   * 
+   * @param classLoader
+   *          the class loader of the index, used to load the enum type and its resource bundles
+   * @param enumTypeName
+   *          the enum type's fully qualified name
+   * @param baseName
+   *          the properties file's base name
+   * @param keyCount
+   *          the number of keys, i.e. enum constants
+   * @param locales
+   *          the locales of the properties file and its localized variants, like in their file names, e.g. "" for the
+   *          properties file itself and "de_CH" for its Swiss German variant
+   */
+  public IndexedEnum(final ClassLoader classLoader, final String enumTypeName, final String baseName,
+      final int keyCount, final String... locales) {
+    this.classLoader = classLoader;
+    this.enumTypeName = enumTypeName;
+    this.baseName = baseName;
+    this.keyCount = keyCount;
+    List<Locale> parsedLocales = new ArrayList<Locale>(locales.length);
+    for (String locale : locales) {
+      String[] parts = locale.split("_", 3);
+      parsedLocales.add(new Locale(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : ""));
+    }
+    this.locales = Collections.unmodifiableList(parsedLocales);
+  }
+
+  /**
+   * @return the enum type's fully qualified name
+   */
+  public String getEnumTypeName() {
+    return enumTypeName;
+  }
+
+  /**
+   * Loads the enum type, without initializing it.
+   * 
+   * @return the enum type
+   * @throws IllegalStateException
+   *           if the enum type could not be loaded
+   */
+  @SuppressWarnings("unchecked")
+  public Class<? extends Enum<?>> getEnumType() {
+    try {
+      return (Class<? extends Enum<?>>) Class.forName(enumTypeName, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException("The indexed enum type " + enumTypeName + " could not be loaded", e);
+    }
+  }
+
+  /**
+   * @return the properties file's base name
+   */
+  public String getBaseName() {
+    return baseName;
+  }
+
+  /**
+   * @return the number of keys, i.e. enum constants
+   */
+  public int getKeyCount() {
+    return keyCount;
+  }
+
+  /**
+   * @return the locales of the properties file ({@link Locale#ROOT}) and its localized variants
+   */
+  public List<Locale> getLocales() {
+    return locales;
+  }
+
+  /**
+   * @param locale
+   *          the locale
+   * @return the resource bundle for the given locale, loaded with the index's class loader
+   */
+  public ResourceBundle getBundle(final Locale locale) {
+    return ResourceBundle.getBundle(baseName, locale, classLoader);
+  }
+
+  @Override
+  public String toString() {
+    return enumTypeName + " (" + baseName + ", " + keyCount + " keys, locales " + locales + ")";
+  }
+}
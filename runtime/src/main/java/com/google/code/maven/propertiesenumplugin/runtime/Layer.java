@@ -0,0 +1,184 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.ResourceBundle;
+
+/**
+ * A source of property values for a {@link LayeredResolver}, e.g. system properties or an external file.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public interface Layer {
+
+  /**
+   * @return the layer's name, shown in the resolver's report
+   */
+  String getName();
+
+  /**
+   * @param key
+   *          a property key
+   * @return the key's value in this layer, or <code>null</code> if the layer doesn't define it
+   */
+  String getValue(String key);
+
+  /**
+   * Called before each resolution, so that the layer can read its values again. Does nothing by default.
+   * 
+   * @throws IOException
+   *           if the values could not be read
+   */
+  default void load() throws IOException {
+  }
+
+  /**
+   * @return a layer reading the system properties, named "system properties"
+   */
+  static Layer systemProperties() {
+    return new Layer() {
+
+      @Override
+      public String getName() {
+        return "system properties";
+      }
+
+      @Override
+      public String getValue(final String key) {
+        return System.getProperty(key);
+      }
+    };
+  }
+
+  /**
+   * Returns a layer reading environment variables, named "environment". A key is looked up as it is and, as most
+   * shells don't allow dots in variable names, converted to upper case with all other characters than letters and
+   * digits replaced by underscores, e.g. "SERVER_PORT" for "server.port".
+   * 
+   * @return the layer
+   */
+  static Layer environment() {
+    return new Layer() {
+
+      @Override
+      public String getName() {
+        return "environment";
+      }
+
+      @Override
+      public String getValue(final String key) {
+        String value = System.getenv(key);
+        if (value == null) {
+          value = System.getenv(key.toUpperCase(Locale.ENGLISH).replaceAll("[^A-Z0-9]", "_"));
+        }
+        return value;
+      }
+    };
+  }
+
+  /**
+   * Returns a layer reading a properties file, which is read again before each resolution. A missing file defines no
+   * values.
+   * 
+   * @param file
+   *          the properties file
+   * @param charset
+   *          the properties file's encoding
+   * @return the layer, named by the file's path
+   */
+  static Layer file(final Path file, final Charset charset) {
+    return new Layer() {
+
+      /**
+       * The values read by the last {@link #load()}.
+       */
+      private volatile Properties properties = new Properties();
+
+      @Override
+      public String getName() {
+        return file.toString();
+      }
+
+      @Override
+      public String getValue(final String key) {
+        return properties.getProperty(key);
+      }
+
+      @Override
+      public void load() throws IOException {
+        Properties loadedProperties = new Properties();
+        try (InputStream in = Files.newInputStream(file); Reader reader = new InputStreamReader(in, charset)) {
+          loadedProperties.load(reader);
+        } catch (NoSuchFileException e) {
+          // defines no values
+        }
+        properties = loadedProperties;
+      }
+    };
+  }
+
+  /**
+   * @param name
+   *          the layer's name
+   * @param properties
+   *          the values
+   * @return a layer reading the given properties
+   */
+  static Layer properties(final String name, final Properties properties) {
+    return new Layer() {
+
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public String getValue(final String key) {
+        return properties.getProperty(key);
+      }
+    };
+  }
+
+  /**
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param locale
+   *          the locale
+   * @return a layer reading the enum's resource bundle for the given locale, usually the last layer, named "bundle"
+   */
+  static Layer bundle(final EnumDescriptor descriptor, final Locale locale) {
+    return new Layer() {
+
+      @Override
+      public String getName() {
+        return "bundle";
+      }
+
+      @Override
+      public String getValue(final String key) {
+        ResourceBundle bundle = descriptor.getBundle(locale);
+        return bundle.containsKey(key) ? bundle.getString(key) : null;
+      }
+    };
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves the values of a generated enum type from an ordered list of {@link Layer}s, e.g. system properties, the
+ * environment, an external file and the resource bundle. The first layer that defines a key wins. All keys are resolved
+ * at once, when the resolver is created and on each {@link #refresh()}, into a flat array indexed by ordinal, so a
+ * lookup is a single array read no matter how many layers there are. A refresh publishes the new values through a
+ * single atomic reference, so readers never lock and never see a partial update.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class LayeredResolver {
+
+  /**
+   * The descriptor of the enum type.
+   */
+  private final EnumDescriptor descriptor;
+
+  /**
+   * The layers, highest priority first.
+   */
+  private final List<Layer> layers;
+
+  /**
+   * The current resolution.
+   */
+  private final AtomicReference<Resolution> resolution;
+
+  /**
+   * Constructs a new {@link LayeredResolver} and resolves all keys.
+   * 
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param layers
+   *          the layers, highest priority first
+   * @throws IOException
+   *           if a layer could not be loaded
+   */
+  public LayeredResolver(final EnumDescriptor descriptor, final Layer... layers) throws IOException {
+    this.descriptor = descriptor;
+    this.layers = Collections.unmodifiableList(new ArrayList<Layer>(Arrays.asList(layers)));
+    resolution = new AtomicReference<Resolution>(resolve());
+  }
+
+  /**
+   * Loads all layers again and publishes the new values, e.g. after a file has been modified.
+   * 
+   * @throws IOException
+   *           if a layer could not be loaded; the previous values are kept
+   */
+  public synchronized void refresh() throws IOException {
+    resolution.set(resolve());
+  }
+
+  /**
+   * Loads all layers and resolves the value of each key.
+   * 
+   * @return the resolution
+   * @throws IOException
+   *           if a layer could not be loaded
+   */
+  private Resolution resolve() throws IOException {
+    for (Layer layer : layers) {
+      layer.load();
+    }
+    String[] values = new String[descriptor.size()];
+    int[] winners = new int[values.length];
+    for (int ordinal = 0; ordinal < values.length; ordinal++) {
+      String key = descriptor.getKey(ordinal);
+      winners[ordinal] = -1;
+      for (int i = 0; i < layers.size() && values[ordinal] == null; i++) {
+        values[ordinal] = layers.get(i).getValue(key);
+        if (values[ordinal] != null) {
+          winners[ordinal] = i;
+        }
+      }
+    }
+    return new Resolution(values, winners);
+  }
+
+  /**
+   * @param key
+   *          an enum constant of the resolver's enum type
+   * @return the value of the first layer defining the key, or the key if no layer does
+   */
+  public String getString(final PropertyKey key) {
+    String value = resolution.get().values[key.ordinal()];
+    return value != null ? value : key.key();
+  }
+
+  /**
+   * @param key
+   *          an enum constant of the resolver's enum type
+   * @return the layer the key's value has been taken from, or <code>null</code> if no layer defines the key
+   */
+  public Layer getLayer(final PropertyKey key) {
+    int winner = resolution.get().winners[key.ordinal()];
+    return winner >= 0 ? layers.get(winner) : null;
+  }
+
+  /**
+   * @return the name of the layer each key's value has been taken from, <code>null</code> if no layer defines the key,
+   *         by key in the order of the enum constants
+   */
+  public Map<String, String> getReport() {
+    Resolution currentResolution = resolution.get();
+    Map<String, String> report = new LinkedHashMap<String, String>();
+    for (int ordinal = 0; ordinal < descriptor.size(); ordinal++) {
+      int winner = currentResolution.winners[ordinal];
+      report.put(descriptor.getKey(ordinal), winner >= 0 ? layers.get(winner).getName() : null);
+    }
+    return report;
+  }
+
+  /**
+   * @return one line per key, naming the layer its value has been taken from
+   */
+  public List<String> formatReport() {
+    Map<String, String> report = getReport();
+    int keyWidth = 3;
+    for (String key : report.keySet()) {
+      keyWidth = Math.max(keyWidth, key.length());
+    }
+    List<String> lines = new ArrayList<String>(report.size() + 1);
+    lines.add(String.format("%-" + keyWidth + "s  %s", "Key", "Layer"));
+    for (Map.Entry<String, String> entry : report.entrySet()) {
+      lines.add(String.format("%-" + keyWidth + "s  %s", entry.getKey(),
+          entry.getValue() != null ? entry.getValue() : "(missing)"));
+    }
+    return lines;
+  }
+
+  /**
+   * @return the layers, highest priority first
+   */
+  public List<Layer> getLayers() {
+    return layers;
+  }
+
+  /**
+   * The resolved values and the layer each has been taken from, by ordinal.
+   */
+  private static final class Resolution {
+
+    /**
+     * The values by ordinal, <code>null</code> if no layer defines the key.
+     */
+    private final String[] values;
+
+    /**
+     * The index of the layer each value has been taken from by ordinal, -1 if no layer defines the key.
+     */
+    private final int[] winners;
+
+    /**
+     * Constructs a new {@link Resolution}.
+     * 
+     * @param values
+     *          the values by ordinal, <code>null</code> if no layer defines the key
+     * @param winners
+     *          the index of the layer each value has been taken from by ordinal, -1 if no layer defines the key
+     */
+    private Resolution(final String[] values, final int[] winners) {
+      this.values = values;
+      this.winners = winners;
+    }
+  }
+}
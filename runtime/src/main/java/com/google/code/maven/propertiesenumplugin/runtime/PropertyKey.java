@@ -0,0 +1,69 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.Locale;
+
+/**
+ * Base interface of enum types generated with the <code>runtime</code> option. The generated enums only contain their
+ * constants and an {@link EnumDescriptor}; everything else is implemented once, here and in the descriptor, instead of
+ * being copied into each enum type.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public interface PropertyKey {
+
+  /**
+   * @return the descriptor shared by all constants of the enum type
+   */
+  EnumDescriptor descriptor();
+
+  /**
+   * Implemented by every enum constant.
+   * 
+   * @return the constant's position in its enum declaration
+   */
+  int ordinal();
+
+  /**
+   * Implemented by every enum constant.
+   * 
+   * @return the constant's name
+   */
+  String name();
+
+  /**
+   * @return the property key
+   */
+  default String key() {
+    return descriptor().getKey(ordinal());
+  }
+
+  /**
+   * @return the source properties file's base name
+   */
+  default String getResourceBaseName() {
+    return descriptor().getBaseName();
+  }
+
+  /**
+   * Looks up the property's value for the given locale.
+   * 
+   * @param locale
+   *          the locale
+   * @return the property's value, or the property key if it is missing
+   */
+  default String getString(final Locale locale) {
+    return descriptor().getString(ordinal(), locale);
+  }
+}
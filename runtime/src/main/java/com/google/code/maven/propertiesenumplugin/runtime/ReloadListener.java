@@ -0,0 +1,34 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.Set;
+
+/**
+ * Notified by a {@link ReloadingCatalog} after it has published a new snapshot.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+@FunctionalInterface
+public interface ReloadListener {
+
+  /**
+   * Called after a new snapshot has been published, on the thread that reloaded the catalog.
+   * 
+   * @param catalog
+   *          the reloaded catalog
+   * @param changedKeys
+   *          the keys whose values have been added, changed or removed
+   */
+  void reloaded(ReloadingCatalog catalog, Set<String> changedKeys);
+}
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The values of a generated enum type, read from its properties file on the file system and reloaded whenever the file
+ * changes. Each reload parses the file in the background and publishes a new immutable {@link Snapshot} through a
+ * single atomic reference, so readers never lock and always see either the old or the new values of all keys, never a
+ * mix. Only a reload that changes at least one value is published and reported to the {@link ReloadListener}s. To
+ * never read a partially written file, replace it by atomically moving a complete file to its place.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class ReloadingCatalog implements Closeable {
+
+  /**
+   * The logger.
+   */
+  private static final Logger LOGGER = Logger.getLogger(ReloadingCatalog.class.getName());
+
+  /**
+   * Time without further events to wait for after an event before reloading, so that a file being written is read
+   * once it is complete.
+   */
+  private static final long QUIET_PERIOD_MILLIS = 100;
+
+  /**
+   * The descriptor of the enum type.
+   */
+  private final EnumDescriptor descriptor;
+
+  /**
+   * The properties file.
+   */
+  private final Path file;
+
+  /**
+   * The properties file's encoding.
+   */
+  private final Charset charset;
+
+  /**
+   * The current snapshot.
+   */
+  private final AtomicReference<Snapshot> snapshot;
+
+  /**
+   * The listeners notified after each published reload.
+   */
+  private final List<ReloadListener> listeners;
+
+  /**
+   * Serializes reloads; readers never acquire it.
+   */
+  private final Object reloadLock;
+
+  /**
+   * The service watching the file's directory, or <code>null</code> if the file is not watched.
+   */
+  private WatchService watchService;
+
+  /**
+   * Constructs a new {@link ReloadingCatalog} and loads the properties file. The file is not watched until
+   * {@link #start()} is called.
+   * 
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param file
+   *          the properties file; if it doesn't exist, all values are missing
+   * @param charset
+   *          the properties file's encoding
+   * @throws IOException
+   *           if the file could not be read
+   */
+  public ReloadingCatalog(final EnumDescriptor descriptor, final Path file, final Charset charset) throws IOException {
+    this.descriptor = descriptor;
+    this.file = file.toAbsolutePath();
+    this.charset = charset;
+    listeners = new CopyOnWriteArrayList<ReloadListener>();
+    reloadLock = new Object();
+    snapshot = new AtomicReference<Snapshot>(load(0));
+  }
+
+  /**
+   * Creates a catalog for the properties file named by the descriptor's base name below the given directory, like
+   * <code>ResourceBundle</code> finds it on the class path, and starts watching it.
+   * 
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param directory
+   *          the root directory, e.g. "/etc/myapp" for "/etc/myapp/com/example/messages.properties"
+   * @return the catalog
+   * @throws IOException
+   *           if the file could not be read or watched
+   */
+  public static ReloadingCatalog watch(final EnumDescriptor descriptor, final Path directory) throws IOException {
+    Path file = directory.resolve(descriptor.getBaseName().replace('.', '/') + ".properties");
+    ReloadingCatalog catalog = new ReloadingCatalog(descriptor, file, StandardCharsets.ISO_8859_1);
+    catalog.start();
+    return catalog;
+  }
+
+  /**
+   * Starts watching the properties file's directory in a daemon thread, which reloads the catalog whenever the file is
+   * created, modified or deleted.
+   * 
+   * @throws IOException
+   *           if the directory could not be watched
+   */
+  public synchronized void start() throws IOException {
+    if (watchService != null) {
+      return;
+    }
+    final WatchService service = file.getFileSystem().newWatchService();
+    file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+        StandardWatchEventKinds.ENTRY_DELETE);
+    watchService = service;
+    Thread watcher = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        watch(service);
+      }
+    }, "properties-catalog-" + descriptor.getBaseName());
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+
+  /**
+   * Waits for changes of the properties file and reloads it, until the watch service is closed.
+   * 
+   * @param service
+   *          the watch service
+   */
+  private void watch(final WatchService service) {
+    Path fileName = file.getFileName();
+    try {
+      while (true) {
+        boolean changed = false;
+        WatchKey key = service.take();
+        while (key != null) {
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+              changed = true;
+            }
+          }
+          key.reset();
+          key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        if (changed) {
+          try {
+            reload();
+          } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not reload " + file + ", keeping the previous values", e);
+          }
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      // closed, stop watching
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops watching the properties file. The current snapshot stays available.
+   * 
+   * @throws IOException
+   *           if the watch service could not be closed
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (watchService != null) {
+      watchService.close();
+      watchService = null;
+    }
+  }
+
+  /**
+   * Reads the properties file again and publishes the new values, if any of them changed.
+   * 
+   * @return the keys whose values have been added, changed or removed
+   * @throws IOException
+   *           if the file could not be read
+   */
+  public Set<String> reload() throws IOException {
+    synchronized (reloadLock) {
+      Snapshot previous = snapshot.get();
+      Snapshot next = load(previous.version + 1);
+      Set<String> changedKeys = new LinkedHashSet<String>();
+      for (int ordinal = 0; ordinal < descriptor.size(); ordinal++) {
+        if (!Objects.equals(previous.values[ordinal], next.values[ordinal])) {
+          changedKeys.add(descriptor.getKey(ordinal));
+        }
+      }
+      if (changedKeys.isEmpty()) {
+        return Collections.emptySet();
+      }
+      snapshot.set(next);
+      Set<String> unmodifiableKeys = Collections.unmodifiableSet(changedKeys);
+      for (ReloadListener listener : listeners) {
+        listener.reloaded(this, unmodifiableKeys);
+      }
+      return unmodifiableKeys;
+    }
+  }
+
+  /**
+   * Parses the properties file into a new snapshot.
+   * 
+   * @param version
+   *          the snapshot's version
+   * @return the snapshot
+   * @throws IOException
+   *           if the file could not be read
+   */
+  private Snapshot load(final long version) throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(file); Reader reader = new InputStreamReader(in, charset)) {
+      properties.load(reader);
+    } catch (NoSuchFileException e) {
+      // all values are missing
+    }
+    String[] values = new String[descriptor.size()];
+    for (int ordinal = 0; ordinal < values.length; ordinal++) {
+      values[ordinal] = properties.getProperty(descriptor.getKey(ordinal));
+    }
+    return new Snapshot(version, values);
+  }
+
+  /**
+   * @param listener
+   *          the listener to notify after each published reload
+   */
+  public void addListener(final ReloadListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * @param listener
+   *          the listener not to notify anymore
+   */
+  public void removeListener(final ReloadListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Returns the current value of a key. Several keys should be read from the same {@link #getSnapshot() snapshot} if
+   * they must be consistent with each other.
+   * 
+   * @param key
+   *          an enum constant of the catalog's enum type
+   * @return the key's value, or the key if it is missing
+   */
+  public String getString(final PropertyKey key) {
+    return snapshot.get().getString(key);
+  }
+
+  /**
+   * @return the current snapshot
+   */
+  public Snapshot getSnapshot() {
+    return snapshot.get();
+  }
+
+  /**
+   * @return the descriptor of the enum type
+   */
+  public EnumDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return the properties file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * The values of all keys at one point in time, by ordinal.
+   */
+  public static final class Snapshot {
+
+    /**
+     * The number of reloads published before this snapshot.
+     */
+    private final long version;
+
+    /**
+     * The values by ordinal, <code>null</code> for missing values.
+     */
+    private final String[] values;
+
+    /**
+     * Constructs a new {@link Snapshot}.
+     * 
+     * @param version
+     *          the number of reloads published before this snapshot
+     * @param values
+     *          the values by ordinal, <code>null</code> for missing values
+     */
+    private Snapshot(final long version, final String[] values) {
+      this.version = version;
+      this.values = values;
+    }
+
+    /**
+     * @return the number of reloads published before this snapshot
+     */
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * @param key
+     *          an enum constant of the catalog's enum type
+     * @return the key's value, or the key if it is missing
+     */
+    public String getString(final PropertyKey key) {
+      String value = values[key.ordinal()];
+      return value != null ? value : key.key();
+    }
+  }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant overrides of the values of a generated enum type. All tenants share one array of base values indexed by
+ * ordinal. A tenant's {@link Overlay} only stores the ordinals it overrides, sorted, and the overriding values, so
+ * memory grows with the number of overrides, not with the number of tenants times the number of keys. Overlays are
+ * immutable: an update copies the tenant's overlay and publishes the copy, so readers never lock and never see a
+ * partial update.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class TenantOverlays {
+
+  /**
+   * Empty ordinal array shared by all empty overlays.
+   */
+  private static final int[] NO_ORDINALS = new int[0];
+
+  /**
+   * Empty value array shared by all empty overlays.
+   */
+  private static final String[] NO_VALUES = new String[0];
+
+  /**
+   * The descriptor of the enum type.
+   */
+  private final EnumDescriptor descriptor;
+
+  /**
+   * The base values by ordinal, <code>null</code> for missing values.
+   */
+  private final String[] baseValues;
+
+  /**
+   * The overlay of tenants without overrides.
+   */
+  private final Overlay baseOverlay;
+
+  /**
+   * The overlays by tenant.
+   */
+  private final Map<String, Overlay> overlays = new ConcurrentHashMap<String, Overlay>();
+
+  /**
+   * Constructs a new {@link TenantOverlays}.
+   * 
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param baseValues
+   *          the base values by ordinal, <code>null</code> for missing values
+   */
+  public TenantOverlays(final EnumDescriptor descriptor, final String[] baseValues) {
+    if (baseValues.length != descriptor.size()) {
+      throw new IllegalArgumentException("Expected " + descriptor.size() + " base values, but got "
+          + baseValues.length);
+    }
+    this.descriptor = descriptor;
+    this.baseValues = baseValues.clone();
+    baseOverlay = new Overlay(NO_ORDINALS, NO_VALUES);
+  }
+
+  /**
+   * @param descriptor
+   *          the descriptor of the enum type
+   * @param locale
+   *          the locale
+   * @return tenant overlays using the enum's resource bundle for the given locale as base values
+   */
+  public static TenantOverlays fromBundle(final EnumDescriptor descriptor, final Locale locale) {
+    ResourceBundle bundle = descriptor.getBundle(locale);
+    String[] baseValues = new String[descriptor.size()];
+    for (int ordinal = 0; ordinal < baseValues.length; ordinal++) {
+      String key = descriptor.getKey(ordinal);
+      baseValues[ordinal] = bundle.containsKey(key) ? bundle.getString(key) : null;
+    }
+    return new TenantOverlays(descriptor, baseValues);
+  }
+
+  /**
+   * Returns the overlay of a tenant. As it is immutable, it can be kept for the duration of a request to save the
+   * tenant lookup on each access.
+   * 
+   * @param tenant
+   *          the tenant
+   * @return the tenant's current overlay, never <code>null</code>
+   */
+  public Overlay getOverlay(final String tenant) {
+    Overlay overlay = overlays.get(tenant);
+    return overlay != null ? overlay : baseOverlay;
+  }
+
+  /**
+   * @param tenant
+   *          the tenant
+   * @param key
+   *          an enum constant of the enum type
+   * @return the tenant's value of the key, the base value if the tenant doesn't override it, or the key if both are
+   *         missing
+   */
+  public String getString(final String tenant, final PropertyKey key) {
+    return getOverlay(tenant).getString(key);
+  }
+
+  /**
+   * Overrides the value of a key for a tenant.
+   * 
+   * @param tenant
+   *          the tenant
+   * @param key
+   *          an enum constant of the enum type
+   * @param value
+   *          the tenant's value, or <code>null</code> to remove the override
+   */
+  public void override(final String tenant, final PropertyKey key, final String value) {
+    override(tenant, Collections.singletonMap(key, value));
+  }
+
+  /**
+   * Overrides the values of several keys for a tenant at once, so readers either see all or none of the changes.
+   * 
+   * @param tenant
+   *          the tenant
+   * @param values
+   *          the tenant's values by key, <code>null</code> to remove an override
+   */
+  public void override(final String tenant, final Map<? extends PropertyKey, String> values) {
+    overlays.compute(tenant, (name, overlay) -> {
+      Overlay updatedOverlay = (overlay != null ? overlay : baseOverlay).with(values);
+      return updatedOverlay.size() > 0 ? updatedOverlay : null;
+    });
+  }
+
+  /**
+   * Removes all overrides of a tenant.
+   * 
+   * @param tenant
+   *          the tenant
+   */
+  public void clear(final String tenant) {
+    overlays.remove(tenant);
+  }
+
+  /**
+   * @return the number of tenants with at least one override
+   */
+  public int getTenantCount() {
+    return overlays.size();
+  }
+
+  /**
+   * @return the descriptor of the enum type
+   */
+  public EnumDescriptor getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * The immutable overrides of one tenant on top of the shared base values.
+   */
+  public final class Overlay {
+
+    /**
+     * The overridden ordinals, sorted.
+     */
+    private final int[] ordinals;
+
+    /**
+     * The overriding values, in the order of {@link #ordinals}.
+     */
+    private final String[] values;
+
+    /**
+     * Constructs a new {@link Overlay}.
+     * 
+     * @param ordinals
+     *          the overridden ordinals, sorted
+     * @param values
+     *          the overriding values, in the order of the ordinals
+     */
+    private Overlay(final int[] ordinals, final String[] values) {
+      this.ordinals = ordinals;
+      this.values = values;
+    }
+
+    /**
+     * @param key
+     *          an enum constant of the enum type
+     * @return the overriding value of the key, the base value if it is not overridden, or the key if both are missing
+     */
+    public String getString(final PropertyKey key) {
+      int ordinal = key.ordinal();
+      int index = ordinals.length > 0 ? Arrays.binarySearch(ordinals, ordinal) : -1;
+      String value = index >= 0 ? values[index] : baseValues[ordinal];
+      return value != null ? value : key.key();
+    }
+
+    /**
+     * @return the overriding values by key, in the order of the enum constants
+     */
+    public Map<String, String> getOverrides() {
+      Map<String, String> overrides = new LinkedHashMap<String, String>();
+      for (int i = 0; i < ordinals.length; i++) {
+        overrides.put(descriptor.getKey(ordinals[i]), values[i]);
+      }
+      return Collections.unmodifiableMap(overrides);
+    }
+
+    /**
+     * @return the number of overridden keys
+     */
+    public int size() {
+      return ordinals.length;
+    }
+
+    /**
+     * @param changes
+     *          the new values by key, <code>null</code> to remove an override
+     * @return a copy of this overlay with the changes applied
+     */
+    private Overlay with(final Map<? extends PropertyKey, String> changes) {
+      int[] newOrdinals = Arrays.copyOf(ordinals, ordinals.length + changes.size());
+      String[] newValues = Arrays.copyOf(values, newOrdinals.length);
+      int size = ordinals.length;
+      for (Map.Entry<? extends PropertyKey, String> change : changes.entrySet()) {
+        int ordinal = change.getKey().ordinal();
+        if (change.getKey().descriptor() != descriptor) {
+          throw new IllegalArgumentException(change.getKey() + " is not a constant of " + descriptor.getEnumType());
+        }
+        int index = Arrays.binarySearch(newOrdinals, 0, size, ordinal);
+        if (index >= 0) {
+          if (change.getValue() != null) {
+            newValues[index] = change.getValue();
+          } else {
+            System.arraycopy(newOrdinals, index + 1, newOrdinals, index, size - index - 1);
+            System.arraycopy(newValues, index + 1, newValues, index, size - index - 1);
+            size--;
+          }
+        } else if (change.getValue() != null) {
+          index = -index - 1;
+          System.arraycopy(newOrdinals, index, newOrdinals, index + 1, size - index);
+          System.arraycopy(newValues, index, newValues, index + 1, size - index);
+          newOrdinals[index] = ordinal;
+          newValues[index] = change.getValue();
+          size++;
+        }
+      }
+      return size > 0 ? new Overlay(Arrays.copyOf(newOrdinals, size), Arrays.copyOf(newValues, size)) : baseOverlay;
+    }
+  }
+}
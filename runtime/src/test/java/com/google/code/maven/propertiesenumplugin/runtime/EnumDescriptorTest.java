@@ -0,0 +1,86 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link EnumDescriptor} and {@link PropertyKey}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class EnumDescriptorTest {
+
+  /**
+   * An enum type like the plugin generates it with the runtime option.
+   */
+  private enum Messages implements PropertyKey {
+
+    /**
+     * Hello
+     */
+    GREETING,
+
+    /**
+     * Goodbye
+     */
+    FAREWELL,
+
+    /**
+     * Not in the properties file.
+     */
+    MISSING;
+
+    /**
+     * The descriptor shared by all constants.
+     */
+    private static final EnumDescriptor DESCRIPTOR = new EnumDescriptor(Messages.class,
+        "com.google.code.maven.propertiesenumplugin.runtime.messages", "greeting", "farewell", "missing");
+
+    @Override
+    public EnumDescriptor descriptor() {
+      return DESCRIPTOR;
+    }
+  }
+
+  /**
+   * Tests the keys and the base name.
+   */
+  @Test
+  public void testKeys() {
+    assertEquals("farewell", Messages.FAREWELL.key());
+    assertEquals("com.google.code.maven.propertiesenumplugin.runtime.messages",
+        Messages.GREETING.getResourceBaseName());
+    assertEquals(Arrays.asList("greeting", "farewell", "missing"), Messages.GREETING.descriptor().getKeys());
+    assertEquals(Messages.values().length, Messages.GREETING.descriptor().size());
+  }
+
+  /**
+   * Tests looking up values, including fallback to the default bundle and to the key.
+   */
+  @Test
+  public void testGetString() {
+    assertEquals("Hallo", Messages.GREETING.getString(Locale.GERMAN));
+    assertEquals("Goodbye", Messages.FAREWELL.getString(Locale.GERMAN));
+    assertEquals("Hello", Messages.GREETING.getString(Locale.ROOT));
+    assertEquals("missing", Messages.MISSING.getString(Locale.ROOT));
+    assertSame(Messages.GREETING.descriptor().getBundle(Locale.GERMAN),
+        Messages.FAREWELL.descriptor().getBundle(Locale.GERMAN));
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link EnumRegistry}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class EnumRegistryTest {
+
+  /**
+   * An index like the plugin generates it, registered in the test resources.
+   */
+  public static final class TestIndex implements EnumIndex {
+
+    /**
+     * The indexed enums.
+     */
+    private static final List<IndexedEnum> ENUMS = Collections.unmodifiableList(Arrays.asList(new IndexedEnum(
+        TestIndex.class.getClassLoader(), Messages.class.getName(),
+        "com.google.code.maven.propertiesenumplugin.runtime.messages", 2, "", "de")));
+
+    @Override
+    public List<IndexedEnum> getEnums() {
+      return ENUMS;
+    }
+  }
+
+  /**
+   * An indexed enum type.
+   */
+  enum Messages {
+
+    /**
+     * greeting
+     */
+    GREETING,
+
+    /**
+     * farewell
+     */
+    FAREWELL
+  }
+
+  /**
+   * Tests that the registered index is found.
+   */
+  @Test
+  public void testGetEnums() {
+    List<IndexedEnum> enums = EnumRegistry.getEnums(getClass().getClassLoader());
+    assertEquals(1, enums.size());
+    IndexedEnum indexedEnum = enums.get(0);
+    assertSame(Messages.class, indexedEnum.getEnumType());
+    assertEquals(2, indexedEnum.getKeyCount());
+    assertEquals(Arrays.asList(Locale.ROOT, Locale.GERMAN), indexedEnum.getLocales());
+    assertEquals("Hallo", indexedEnum.getBundle(Locale.GERMAN).getString("greeting"));
+
+    assertEquals(indexedEnum.getEnumTypeName(), EnumRegistry.findByBaseName(getClass().getClassLoader(),
+        "com.google.code.maven.propertiesenumplugin.runtime.messages").getEnumTypeName());
+    assertNull(EnumRegistry.findByBaseName(getClass().getClassLoader(), "com.example.missing"));
+  }
+}
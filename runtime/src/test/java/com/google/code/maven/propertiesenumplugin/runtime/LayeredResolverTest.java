@@ -0,0 +1,125 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link LayeredResolver}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class LayeredResolverTest {
+
+  /**
+   * An enum type like the plugin generates it with the runtime option.
+   */
+  private enum Messages implements PropertyKey {
+
+    /**
+     * greeting
+     */
+    GREETING,
+
+    /**
+     * farewell
+     */
+    FAREWELL,
+
+    /**
+     * missing
+     */
+    MISSING;
+
+    /**
+     * The descriptor shared by all constants.
+     */
+    private static final EnumDescriptor DESCRIPTOR = new EnumDescriptor(Messages.class,
+        "com.google.code.maven.propertiesenumplugin.runtime.messages", "greeting", "farewell", "missing");
+
+    @Override
+    public EnumDescriptor descriptor() {
+      return DESCRIPTOR;
+    }
+  }
+
+  /**
+   * Tests that the first layer defining a key wins and that the report names it.
+   * 
+   * @throws IOException
+   *           if a layer could not be loaded
+   */
+  @Test
+  public void testResolve() throws IOException {
+    Properties overrides = new Properties();
+    overrides.setProperty("farewell", "Bye");
+    Layer overrideLayer = Layer.properties("overrides", overrides);
+    Layer bundleLayer = Layer.bundle(Messages.DESCRIPTOR, Locale.ROOT);
+    LayeredResolver resolver = new LayeredResolver(Messages.DESCRIPTOR, overrideLayer, bundleLayer);
+
+    assertEquals("Hello", resolver.getString(Messages.GREETING));
+    assertEquals("Bye", resolver.getString(Messages.FAREWELL));
+    assertEquals("missing", resolver.getString(Messages.MISSING));
+    assertSame(bundleLayer, resolver.getLayer(Messages.GREETING));
+    assertSame(overrideLayer, resolver.getLayer(Messages.FAREWELL));
+    assertNull(resolver.getLayer(Messages.MISSING));
+
+    Map<String, String> report = new LinkedHashMap<String, String>();
+    report.put("greeting", "bundle");
+    report.put("farewell", "overrides");
+    report.put("missing", null);
+    assertEquals(report, resolver.getReport());
+    assertEquals(Arrays.asList("Key       Layer", "greeting  bundle", "farewell  overrides", "missing   (missing)"),
+        resolver.formatReport());
+  }
+
+  /**
+   * Tests that a refresh reads a file layer again.
+   * 
+   * @throws IOException
+   *           if the file could not be written or a layer could not be loaded
+   */
+  @Test
+  public void testRefresh() throws IOException {
+    Path file = Files.createTempFile("layered-resolver", ".properties");
+    try {
+      Files.delete(file);
+      LayeredResolver resolver = new LayeredResolver(Messages.DESCRIPTOR, Layer.file(file, StandardCharsets.UTF_8),
+          Layer.bundle(Messages.DESCRIPTOR, Locale.ROOT));
+      assertEquals("Hello", resolver.getString(Messages.GREETING));
+
+      Files.write(file, "greeting=Hi\nmissing=found\n".getBytes(StandardCharsets.UTF_8));
+      assertEquals("Hello", resolver.getString(Messages.GREETING));
+      resolver.refresh();
+      assertEquals("Hi", resolver.getString(Messages.GREETING));
+      assertEquals("found", resolver.getString(Messages.MISSING));
+      assertEquals(file.toString(), resolver.getReport().get("missing"));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
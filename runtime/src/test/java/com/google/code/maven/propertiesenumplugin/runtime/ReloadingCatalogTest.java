@@ -0,0 +1,170 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ReloadingCatalog}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class ReloadingCatalogTest {
+
+  /**
+   * An enum type like the plugin generates it with the runtime option.
+   */
+  private enum Settings implements PropertyKey {
+
+    /**
+     * host
+     */
+    HOST,
+
+    /**
+     * port
+     */
+    PORT,
+
+    /**
+     * timeout
+     */
+    TIMEOUT;
+
+    /**
+     * The descriptor shared by all constants.
+     */
+    private static final EnumDescriptor DESCRIPTOR = new EnumDescriptor(Settings.class, "com.example.settings", "host",
+        "port", "timeout");
+
+    @Override
+    public EnumDescriptor descriptor() {
+      return DESCRIPTOR;
+    }
+  }
+
+  /**
+   * The root directory of the properties file.
+   */
+  private Path directory;
+
+  /**
+   * The properties file.
+   */
+  private Path file;
+
+  /**
+   * Creates the properties file.
+   * 
+   * @throws IOException
+   *           if the file could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("reloading-catalog");
+    file = directory.resolve("com/example/settings.properties");
+    Files.createDirectories(file.getParent());
+    write("host=localhost\nport=8080\n");
+  }
+
+  /**
+   * Deletes the properties file.
+   * 
+   * @throws IOException
+   *           if a file could not be deleted
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+    Files.delete(file.getParent());
+    Files.delete(file.getParent().getParent());
+    Files.delete(directory);
+  }
+
+  /**
+   * Tests that a reload publishes a new snapshot and reports the changed keys.
+   * 
+   * @throws IOException
+   *           if the file could not be written or read
+   */
+  @Test
+  public void testReload() throws IOException {
+    ReloadingCatalog catalog = new ReloadingCatalog(Settings.DESCRIPTOR, file, StandardCharsets.ISO_8859_1);
+    final Set<String> reported = new HashSet<String>();
+    catalog.addListener((reloadedCatalog, changedKeys) -> reported.addAll(changedKeys));
+    ReloadingCatalog.Snapshot snapshot = catalog.getSnapshot();
+    assertEquals("8080", catalog.getString(Settings.PORT));
+    assertEquals("timeout", catalog.getString(Settings.TIMEOUT));
+
+    assertEquals(Collections.emptySet(), catalog.reload());
+    assertSame(snapshot, catalog.getSnapshot());
+
+    write("host=localhost\nport=9090\ntimeout=30\n");
+    assertEquals(new HashSet<String>(Arrays.asList("port", "timeout")), catalog.reload());
+    assertEquals(new HashSet<String>(Arrays.asList("port", "timeout")), reported);
+    assertEquals("9090", catalog.getString(Settings.PORT));
+    assertEquals("8080", snapshot.getString(Settings.PORT));
+    assertEquals(1, catalog.getSnapshot().getVersion());
+
+    Files.delete(file);
+    assertEquals(new HashSet<String>(Arrays.asList("host", "port", "timeout")), catalog.reload());
+    assertEquals("host", catalog.getString(Settings.HOST));
+  }
+
+  /**
+   * Tests that a modified file is reloaded in the background.
+   * 
+   * @throws Exception
+   *           if the file could not be written or watched
+   */
+  @Test
+  public void testWatch() throws Exception {
+    final BlockingQueue<Set<String>> reloads = new ArrayBlockingQueue<Set<String>>(10);
+    try (ReloadingCatalog catalog = ReloadingCatalog.watch(Settings.DESCRIPTOR, directory)) {
+      catalog.addListener((reloadedCatalog, changedKeys) -> reloads.add(changedKeys));
+      Path newFile = file.resolveSibling("settings.properties.new");
+      Files.write(newFile, "host=example.com\nport=8080\n".getBytes(StandardCharsets.ISO_8859_1));
+      Files.move(newFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      assertEquals(Collections.singleton("host"), reloads.poll(30, TimeUnit.SECONDS));
+      assertEquals("example.com", catalog.getString(Settings.HOST));
+    }
+  }
+
+  /**
+   * @param content
+   *          the new content of the properties file
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private void write(final String content) throws IOException {
+    Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+  }
+}
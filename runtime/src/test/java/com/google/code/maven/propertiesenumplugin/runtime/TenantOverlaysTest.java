@@ -0,0 +1,111 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link TenantOverlays}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class TenantOverlaysTest {
+
+  /**
+   * An enum type like the plugin generates it with the runtime option.
+   */
+  private enum Messages implements PropertyKey {
+
+    /**
+     * greeting
+     */
+    GREETING,
+
+    /**
+     * farewell
+     */
+    FAREWELL,
+
+    /**
+     * missing
+     */
+    MISSING;
+
+    /**
+     * The descriptor shared by all constants.
+     */
+    private static final EnumDescriptor DESCRIPTOR = new EnumDescriptor(Messages.class,
+        "com.google.code.maven.propertiesenumplugin.runtime.messages", "greeting", "farewell", "missing");
+
+    @Override
+    public EnumDescriptor descriptor() {
+      return DESCRIPTOR;
+    }
+  }
+
+  /**
+   * Tests that overrides only affect their tenant and fall back to the base values.
+   */
+  @Test
+  public void testOverride() {
+    TenantOverlays overlays = TenantOverlays.fromBundle(Messages.DESCRIPTOR, Locale.ROOT);
+    overlays.override("acme", Messages.MISSING, "found");
+    overlays.override("acme", Messages.GREETING, "Howdy");
+
+    assertEquals("Howdy", overlays.getString("acme", Messages.GREETING));
+    assertEquals("Goodbye", overlays.getString("acme", Messages.FAREWELL));
+    assertEquals("found", overlays.getString("acme", Messages.MISSING));
+    assertEquals("Hello", overlays.getString("other", Messages.GREETING));
+    assertEquals("missing", overlays.getString("other", Messages.MISSING));
+
+    Map<String, String> expected = new LinkedHashMap<String, String>();
+    expected.put("greeting", "Howdy");
+    expected.put("missing", "found");
+    assertEquals(expected, overlays.getOverlay("acme").getOverrides());
+    assertEquals(Collections.emptyMap(), overlays.getOverlay("other").getOverrides());
+    assertEquals(1, overlays.getTenantCount());
+  }
+
+  /**
+   * Tests that updates publish a copy and leave previously obtained overlays unchanged.
+   */
+  @Test
+  public void testCopyOnWrite() {
+    TenantOverlays overlays = new TenantOverlays(Messages.DESCRIPTOR, new String[] { "Hello", "Goodbye", null });
+    overlays.override("acme", Messages.FAREWELL, "Bye");
+    TenantOverlays.Overlay overlay = overlays.getOverlay("acme");
+
+    Map<Messages, String> changes = new EnumMap<Messages, String>(Messages.class);
+    changes.put(Messages.GREETING, "Hi");
+    changes.put(Messages.FAREWELL, null);
+    overlays.override("acme", changes);
+    assertEquals("Bye", overlay.getString(Messages.FAREWELL));
+    assertEquals("Hello", overlay.getString(Messages.GREETING));
+    assertEquals("Goodbye", overlays.getString("acme", Messages.FAREWELL));
+    assertEquals("Hi", overlays.getString("acme", Messages.GREETING));
+    assertEquals(1, overlays.getOverlay("acme").size());
+
+    overlays.override("acme", Messages.GREETING, null);
+    assertEquals(0, overlays.getTenantCount());
+    assertSame(overlays.getOverlay("acme"), overlays.getOverlay("other"));
+  }
+}
@@ -0,0 +1,1072 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Base class for all mojos of this plugin. Holds the configuration shared by all goals and knows how to create an
+ * {@link EnumGenerator} from it.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public abstract class AbstractEnumGeneratorMojo extends AbstractMojo {
+
+  /**
+   * Base directory for poperties files. Can also be a JAR file or a dependency of the project, given as
+   * <code>dependency:groupId:artifactId</code>, whose entries are read directly without extracting the JAR.
+   * 
+   * @parameter default-value="${basedir}/src/main/resources"
+   */
+  private String baseDir;
+
+  /**
+   * Additional base directories to scan for properties files matching <code>includes</code>. The path below the base
+   * directory is used as package name, like for <code>baseDir</code>. Like <code>baseDir</code>, a base directory can
+   * also be a JAR file or a dependency of the project.
+   * 
+   * @parameter
+   */
+  private List<String> baseDirs;
+
+  /**
+   * Directory to keep state between builds in, like the index of scanned directories and the manifest of generated
+   * files, which is used to delete enums whose properties file has been removed or renamed. Several executions in the
+   * same project must use different directories.
+   * 
+   * @parameter default-value="${project.build.directory}/maven-properties-enum-plugin"
+   */
+  private String buildStateDirectory;
+
+  /**
+   * Directory of a local cache of generated enums, which can be shared by all projects and checkouts on a machine. An
+   * enum is taken from the cache if the content of its properties file, the configuration and the plugin version are
+   * the same. If not set, no cache is used.
+   * 
+   * @parameter expression="${propertiesEnum.cacheDirectory}"
+   */
+  private String cacheDirectory;
+
+  /**
+   * Maximum size of the cache in megabytes. The least recently used enums are removed from the cache when it grows
+   * beyond this size.
+   * 
+   * @parameter expression="${propertiesEnum.cacheMaxSize}" default-value="100"
+   */
+  private long cacheMaxSize;
+
+  /**
+   * If <code>true</code>, a <code>ResourceBundle</code> subclass is generated for each properties file and each of its
+   * localized variants, named like the bundle, e.g. <code>messages</code> and <code>messages_de</code>. As
+   * <code>ResourceBundle.getBundle</code> prefers such classes to properties files, existing call sites load the values
+   * without parsing any text. The classes are generated in the package of the properties file, so the enums have to be
+   * generated in another package (see <code>packageName</code>), as <code>Messages.java</code> and
+   * <code>messages.java</code> can't coexist on case-insensitive file systems.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean compiledBundles;
+
+  /**
+   * If <code>true</code>, each constant of the generated enums carries its key encoded as UTF-8 and a 32-bit FNV-1a
+   * hash of the encoded bytes. <code>writeKey(byte[], int)</code>, <code>writeKey(ByteBuffer)</code> and
+   * <code>keyBytes()</code> copy the key into a serialization buffer without encoding it on each call, and
+   * <code>keyHash()</code> can be used to look up keys in off-heap hash tables.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean encodedKeys;
+
+  /**
+   * The pattern a generated enum field name must match to be valid.
+   * 
+   * @parameter default-value="^[A-Z][A-Z0-9]*[A-Z0-9_]*$"
+   */
+  private String enumFieldPattern;
+
+  /**
+   * String format for enum field's javadoc. Two strings are given: the first one is the property key, the second one
+   * the property value.
+   * 
+   * @parameter default-value="Key &quot;%1$s&quot; for property with value &quot;%2$s&quot;."
+   */
+  private String enumJavadoc;
+
+  /**
+   * Patterns of properties files to exclude, e.g. <code>**&#47;*_de.properties</code>. Applies to
+   * <code>includes</code> only.
+   * 
+   * @parameter
+   */
+  private List<String> excludes;
+
+  /**
+   * List of files to process. Relative to <code>baseDir</code>. The path will be used as package name, if
+   * <code>packageName</code> is not set.
+   * 
+   * @parameter
+   */
+  private List<String> files;
+
+  /**
+   * If <code>true</code>, each generated enum gets a <code>getString(Locale)</code> method that looks up the property
+   * in its resource bundle and emits JDK Flight Recorder events: one for every bundle load with its base name, locale,
+   * duration and size, one for every lookup slower than <code>flightRecorderThreshold</code> and one for every missing
+   * property, for which the key is returned instead. Disabled events cost next to nothing. The generated enums require
+   * Java 11 to compile.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean flightRecorderEvents;
+
+  /**
+   * Duration a lookup must exceed to be recorded as a slow lookup event, e.g. "500 us" or "1 ms". Can be overridden by
+   * the recording's settings.
+   * 
+   * @parameter default-value="1 ms"
+   */
+  private String flightRecorderThreshold;
+
+  /**
+   * The directory to create the files in.
+   * 
+   * @parameter default-value="${basedir}/target/generated-sources/enum"
+   */
+  private String generateDirectory;
+
+  /**
+   * Fully qualified name of an interface to implement. This allows to make multiple generated enum types an
+   * implementation of the same interface. If given, the interface has to define {@code key()}.
+   * 
+   * @parameter
+   */
+  private String implement;
+
+  /**
+   * Patterns of properties files to process, relative to <code>baseDir</code> and each of <code>baseDirs</code>, e.g.
+   * <code>**&#47;messages.properties</code>. Matching files are processed in addition to <code>files</code>, so new
+   * properties files are picked up without changing the POM.
+   * 
+   * @parameter
+   */
+  private List<String> includes;
+
+  /**
+   * If <code>true</code>, the GraalVM <code>native-image</code> configuration makes it initialize the generated classes
+   * at build time, so that their static state, like parsed typed values, is stored in the image heap and nothing is
+   * parsed at startup. Requires <code>nativeImage</code>.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean initializeAtBuildTime;
+
+  /**
+   * If <code>true</code>, a final class with a <code>public static final String</code> constant for each key is
+   * generated next to each enum, e.g. <code>MessagesKeys.MY_KEY</code> for <code>Messages.MY_KEY</code>. Unlike
+   * <code>key()</code>, these constants can be used in switch case labels and annotation values, and javac inlines them
+   * without any lookup at runtime.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean keyConstants;
+
+  /**
+   * If <code>true</code>, each key gets a permanent integer ID, which is stored in a file next to the properties file,
+   * e.g. <code>messages.ids</code> for <code>messages.properties</code>. The file is meant to be checked in: new keys
+   * are appended to it, and the IDs of removed keys are never given to other keys. The generated enums get an
+   * <code>id()</code> method and a static <code>fromId(int)</code> method, so that services built from different
+   * versions of the properties file can exchange keys as 4-byte IDs instead of strings. The IDs of a file merged from
+   * <code>mergeGroups</code> are stored at the target's path below <code>baseDir</code>, next to the merged files.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean keyIds;
+
+  /**
+   * If <code>true</code>, a JSON catalog is written to <code>jsonCatalogDirectory</code> for each properties file and
+   * each of its localized variants, e.g. <code>com/example/messages_de.json</code>, so that web frontends can be served
+   * the catalogs as static resources from the classpath. Each catalog is a minified JSON object with sorted keys and
+   * contains the values a <code>ResourceBundle</code> of its locale returns, including the ones inherited from its
+   * parents. Keys are filtered by <code>prefix</code> and <code>prefixedOnly</code> like for the enums.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean jsonCatalogs;
+
+  /**
+   * The directory to write the JSON catalogs to, see <code>jsonCatalogs</code>.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String jsonCatalogDirectory;
+
+  /**
+   * If <code>true</code>, each JSON catalog is additionally written gzip compressed, e.g.
+   * <code>com/example/messages_de.json.gz</code>, to be served with <code>Content-Encoding: gzip</code> without
+   * compressing it on each request. Requires <code>jsonCatalogs</code>.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean gzipJsonCatalogs;
+
+  /**
+   * The maximum line length to use when creating the source file.
+   * 
+   * @parameter default-value="80"
+   */
+  private Integer lineLength;
+
+  /**
+   * Groups of properties files to merge into one properties file each, e.g. <code>messages-core.properties</code> and
+   * <code>messages-billing.properties</code> into <code>messages.properties</code>, so that one enum is generated for
+   * them and one <code>ResourceBundle</code> is loaded at runtime. Each group has a <code>target</code>, the path of
+   * the merged file, and <code>files</code>, the paths of the files to merge, all relative to <code>baseDir</code>.
+   * Their localized variants are merged as well, e.g. into <code>messages_de.properties</code>. The merged files are
+   * written to <code>mergeDirectory</code> and processed instead of the files of the group. Keys defined in more than
+   * one file and keys resulting in the same enum field name fail the build, reported with their files and line numbers.
+   * 
+   * @parameter
+   */
+  private List<MergeGroup> mergeGroups;
+
+  /**
+   * The directory to write the merged properties files of <code>mergeGroups</code> to.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String mergeDirectory;
+
+  /**
+   * If <code>true</code>, the configuration GraalVM's <code>native-image</code> needs for the generated classes is
+   * written to <code>META-INF/native-image/groupId/artifactId</code> in <code>nativeImageDirectory</code>. It registers
+   * the resource bundle of each enum, which <code>native-image</code> then loads at build time and stores in the image,
+   * and the classes of <code>compiledBundles</code> for reflection.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean nativeImage;
+
+  /**
+   * The directory to write the <code>native-image</code> configuration to, see <code>nativeImage</code>.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String nativeImageDirectory;
+
+  /**
+   * Name of the target package. If not given, the package name will be same as the property's path, relative to
+   * <code>baseDir</code>.
+   * 
+   * @parameter
+   */
+  private String packageName;
+
+  /**
+   * The prefix of each key. This is the value that will be skipped when generating the enum field name. See also:
+   * <code>prefixedOnly</code>.
+   * 
+   * @parameter default-value=""
+   */
+  private String prefix;
+
+  /**
+   * If <code>true</code>, only keys starting with <code>prefix</code> will be processed.
+   * 
+   * @parameter default-value=true
+   */
+  private boolean prefixedOnly;
+
+  /**
+   * If <code>true</code>, each generated enum gets a static <code>withPrefix(String)</code> method returning all
+   * constants whose key equals the prefix or continues it with a dot, e.g. all keys below <code>form.errors</code>. The
+   * key hierarchy is built at generation time: the constants are ordered by key, so that the constants below each
+   * prefix are declared one after another, and the unmodifiable <code>EnumSet</code> of each prefix is created once. A
+   * query is a single hash lookup of the prefix.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean prefixQueries;
+
+  /**
+   * Reference to the maven project.
+   * 
+   * @parameter expression="${project}"
+   * @required
+   * @readonly
+   */
+  private MavenProject project;
+
+  /**
+   * Fully qualified name of an index class to generate, e.g. <code>com.example.MessagesIndex</code>. If set, the index
+   * lists every enum generated by this execution with its base name, number of keys and locales, and is registered in
+   * <code>META-INF/services</code> in <code>registryDirectory</code>, so that <code>EnumRegistry</code> of the runtime
+   * artifact finds all enums by loading this one class instead of scanning the class path. The project has to depend on
+   * the runtime artifact.
+   * 
+   * @parameter
+   */
+  private String registryClass;
+
+  /**
+   * The directory to write the <code>META-INF/services</code> entry of <code>registryClass</code> to.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String registryDirectory;
+
+  /**
+   * File to write a report of each generation to as JSON. It contains the time spent reading and parsing, deriving the
+   * enum field names, rendering and writing each properties file, its number of keys, input and output size and whether
+   * the enum has been written or taken from a cache. A summary is logged in any case. Several executions in the same
+   * project must use different files.
+   * 
+   * @parameter default-value="${project.build.directory}/properties-enum-report.json"
+   */
+  private String reportFile;
+
+  /**
+   * If <code>true</code>, the generated enums implement
+   * <code>com.google.code.maven.propertiesenumplugin.runtime.PropertyKey</code>, in addition to <code>implement</code>.
+   * Their key, base name and lookup methods are then inherited from the interface and its shared
+   * <code>EnumDescriptor</code>, so that each enum only contains its constants and a descriptor. This reduces the size
+   * of the generated classes and the time to load them. The project has to use Java 8 or later and depend on
+   * <code>com.googlecode.maven-properties-enum-plugin:maven-properties-enum-runtime</code>. Can't be combined with
+   * <code>flightRecorderEvents</code> or <code>usageCounters</code>.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean runtime;
+
+  /**
+   * Character encoding of the generated java file.
+   * 
+   * @parameter default-value="UTF-8"
+   */
+  private String targetEncoding;
+
+  /**
+   * If <code>true</code>, each generated enum gets typed accessors like <code>getInt()</code>, <code>getLong()</code>,
+   * <code>getBoolean()</code>, <code>getMillis()</code> and <code>getList()</code>, e.g. for configuration properties.
+   * The values are loaded from the properties file's default bundle and parsed once when the enum is loaded, into
+   * arrays indexed by ordinal, so reading a value neither parses nor allocates. The type of each value is taken from
+   * <code>valueTypes</code> or inferred from its value in the properties file: int, long, boolean or duration, like
+   * "30s" or "5m". Other values are strings and have no typed accessor.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean typedAccessors;
+
+  /**
+   * If <code>true</code>, each generated enum counts how often each constant's <code>key()</code> or
+   * <code>toString()</code> is called and provides the counts by key through its static <code>getUsageCounts()</code>
+   * method, e.g. to find unused keys in production. The counters are striped by thread, so that concurrent callers
+   * don't contend for the same cache lines.
+   * 
+   * @parameter default-value=false
+   */
+  private boolean usageCounters;
+
+  /**
+   * The types of the values of <code>typedAccessors</code>, by key, overriding the inferred types. Valid types are int,
+   * long, boolean, duration, list (comma separated values) and string, e.g.
+   * <code>&lt;server.hosts&gt;list&lt;/server.hosts&gt;</code>. The build fails if a value can't be parsed as its
+   * type or a key is not in any of the properties files.
+   * 
+   * @parameter
+   */
+  private Map<String, String> valueTypes;
+
+  /**
+   * Creates a new {@link EnumGenerator} using the configuration of this mojo.
+   * 
+   * @return the enum generator
+   * @throws MojoExecutionException
+   *           if the configuration is invalid
+   */
+  protected EnumGenerator createEnumGenerator() throws MojoExecutionException {
+    if (runtime && (flightRecorderEvents || usageCounters)) {
+      throw new MojoExecutionException("runtime can't be combined with flightRecorderEvents or usageCounters");
+    }
+    if (initializeAtBuildTime && !nativeImage) {
+      throw new MojoExecutionException("initializeAtBuildTime requires nativeImage");
+    }
+    if (gzipJsonCatalogs && !jsonCatalogs) {
+      throw new MojoExecutionException("gzipJsonCatalogs requires jsonCatalogs");
+    }
+    if (mergeGroups != null) {
+      for (MergeGroup mergeGroup : mergeGroups) {
+        if (mergeGroup.getTarget() == null || !mergeGroup.getTarget().endsWith(".properties")
+            || mergeGroup.getFiles() == null || mergeGroup.getFiles().isEmpty()) {
+          throw new MojoExecutionException("Each merge group needs a target and files ending with .properties");
+        }
+        for (String file : mergeGroup.getFiles()) {
+          if (!file.endsWith(".properties")) {
+            throw new MojoExecutionException("Each merge group needs a target and files ending with .properties");
+          }
+        }
+      }
+    }
+    EnumGenerator enumGenerator = new EnumGenerator(baseDir, enumFieldPattern, enumJavadoc, files, generateDirectory,
+        implement, lineLength, getLog(), packageName, prefix, prefixedOnly, project, targetEncoding);
+    enumGenerator.setBaseDirs(baseDirs);
+    enumGenerator.setBuildStateDirectory(buildStateDirectory);
+    enumGenerator.setCacheDirectory(cacheDirectory);
+    enumGenerator.setCacheMaxSize(cacheMaxSize * 1024 * 1024);
+    enumGenerator.setCompiledBundles(compiledBundles);
+    enumGenerator.setEncodedKeys(encodedKeys);
+    enumGenerator.setExcludes(excludes);
+    enumGenerator.setFlightRecorderEvents(flightRecorderEvents);
+    if (flightRecorderThreshold != null) {
+      enumGenerator.setFlightRecorderThreshold(flightRecorderThreshold);
+    }
+    enumGenerator.setIncludes(includes);
+    enumGenerator.setInitializeAtBuildTime(initializeAtBuildTime);
+    enumGenerator.setKeyConstants(keyConstants);
+    enumGenerator.setKeyIds(keyIds);
+    if (jsonCatalogs) {
+      enumGenerator.setJsonCatalogs(jsonCatalogDirectory, gzipJsonCatalogs);
+    }
+    if (mergeGroups != null) {
+      enumGenerator.setMergeGroups(mergeGroups, mergeDirectory);
+    }
+    if (nativeImage) {
+      enumGenerator.setNativeImageDirectory(nativeImageDirectory);
+    }
+    enumGenerator.setPrefixQueries(prefixQueries);
+    if (registryClass != null) {
+      enumGenerator.setRegistry(registryClass, registryDirectory);
+    }
+    enumGenerator.setReportFile(reportFile);
+    enumGenerator.setRuntime(runtime);
+    enumGenerator.setTypedAccessors(typedAccessors);
+    enumGenerator.setUsageCounters(usageCounters);
+    if (valueTypes != null) {
+      Map<String, ValueType> types = new HashMap<String, ValueType>();
+      for (Map.Entry<String, String> entry : valueTypes.entrySet()) {
+        ValueType type = ValueType.forName(entry.getValue());
+        if (type == null) {
+          throw new MojoExecutionException("Unknown value type of " + entry.getKey() + ": " + entry.getValue());
+        }
+        types.put(entry.getKey(), type);
+      }
+      enumGenerator.setValueTypes(types);
+    }
+    return enumGenerator;
+  }
+
+  /**
+   * @return the baseDir
+   */
+  public String getBaseDir() {
+    return baseDir;
+  }
+
+  /**
+   * @return the baseDirs
+   */
+  public List<String> getBaseDirs() {
+    return baseDirs;
+  }
+
+  /**
+   * @return the buildStateDirectory
+   */
+  public String getBuildStateDirectory() {
+    return buildStateDirectory;
+  }
+
+  /**
+   * @return the cacheDirectory
+   */
+  public String getCacheDirectory() {
+    return cacheDirectory;
+  }
+
+  /**
+   * @return the cacheMaxSize
+   */
+  public long getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  /**
+   * @return the enumFieldPattern
+   */
+  public String getEnumFieldPattern() {
+    return enumFieldPattern;
+  }
+
+  /**
+   * @return the enumJavadoc
+   */
+  public String getEnumJavadoc() {
+    return enumJavadoc;
+  }
+
+  /**
+   * @return the excludes
+   */
+  public List<String> getExcludes() {
+    return excludes;
+  }
+
+  /**
+   * @return the files
+   */
+  public List<String> getFiles() {
+    return files;
+  }
+
+  /**
+   * @return the flightRecorderThreshold
+   */
+  public String getFlightRecorderThreshold() {
+    return flightRecorderThreshold;
+  }
+
+  /**
+   * @return the generateDirectory
+   */
+  public String getGenerateDirectory() {
+    return generateDirectory;
+  }
+
+  /**
+   * @return the implement
+   */
+  public String getImplement() {
+    return implement;
+  }
+
+  /**
+   * @return the includes
+   */
+  public List<String> getIncludes() {
+    return includes;
+  }
+
+  /**
+   * @return the jsonCatalogDirectory
+   */
+  public String getJsonCatalogDirectory() {
+    return jsonCatalogDirectory;
+  }
+
+  /**
+   * @return the lineLength
+   */
+  public Integer getLineLength() {
+    return lineLength;
+  }
+
+  /**
+   * @return the mergeDirectory
+   */
+  public String getMergeDirectory() {
+    return mergeDirectory;
+  }
+
+  /**
+   * @return the mergeGroups
+   */
+  public List<MergeGroup> getMergeGroups() {
+    return mergeGroups;
+  }
+
+  /**
+   * @return the nativeImageDirectory
+   */
+  public String getNativeImageDirectory() {
+    return nativeImageDirectory;
+  }
+
+  /**
+   * @return the packageName
+   */
+  public String getPackageName() {
+    return packageName;
+  }
+
+  /**
+   * @return the prefix
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * @return the project
+   */
+  public MavenProject getProject() {
+    return project;
+  }
+
+  /**
+   * @return the registryClass
+   */
+  public String getRegistryClass() {
+    return registryClass;
+  }
+
+  /**
+   * @return the registryDirectory
+   */
+  public String getRegistryDirectory() {
+    return registryDirectory;
+  }
+
+  /**
+   * @return the reportFile
+   */
+  public String getReportFile() {
+    return reportFile;
+  }
+
+  /**
+   * @return the targetEncoding
+   */
+  public String getTargetEncoding() {
+    return targetEncoding;
+  }
+
+  /**
+   * @return the valueTypes
+   */
+  public Map<String, String> getValueTypes() {
+    return valueTypes;
+  }
+
+  /**
+   * @return the compiledBundles
+   */
+  public boolean isCompiledBundles() {
+    return compiledBundles;
+  }
+
+  /**
+   * @return the encodedKeys
+   */
+  public boolean isEncodedKeys() {
+    return encodedKeys;
+  }
+
+  /**
+   * @return the flightRecorderEvents
+   */
+  public boolean isFlightRecorderEvents() {
+    return flightRecorderEvents;
+  }
+
+  /**
+   * @return the gzipJsonCatalogs
+   */
+  public boolean isGzipJsonCatalogs() {
+    return gzipJsonCatalogs;
+  }
+
+  /**
+   * @return the initializeAtBuildTime
+   */
+  public boolean isInitializeAtBuildTime() {
+    return initializeAtBuildTime;
+  }
+
+  /**
+   * @return the jsonCatalogs
+   */
+  public boolean isJsonCatalogs() {
+    return jsonCatalogs;
+  }
+
+  /**
+   * @return the keyConstants
+   */
+  public boolean isKeyConstants() {
+    return keyConstants;
+  }
+
+  /**
+   * @return the keyIds
+   */
+  public boolean isKeyIds() {
+    return keyIds;
+  }
+
+  /**
+   * @return the nativeImage
+   */
+  public boolean isNativeImage() {
+    return nativeImage;
+  }
+
+  /**
+   * @return the prefixedOnly
+   */
+  public boolean isPrefixedOnly() {
+    return prefixedOnly;
+  }
+
+  /**
+   * @return the prefixQueries
+   */
+  public boolean isPrefixQueries() {
+    return prefixQueries;
+  }
+
+  /**
+   * @return the runtime
+   */
+  public boolean isRuntime() {
+    return runtime;
+  }
+
+  /**
+   * @return the typedAccessors
+   */
+  public boolean isTypedAccessors() {
+    return typedAccessors;
+  }
+
+  /**
+   * @return the usageCounters
+   */
+  public boolean isUsageCounters() {
+    return usageCounters;
+  }
+
+  /**
+   * @param baseDir
+   *          the baseDir to set
+   */
+  public void setBaseDir(final String baseDir) {
+    this.baseDir = baseDir;
+  }
+
+  /**
+   * @param baseDirs
+   *          the baseDirs to set
+   */
+  public void setBaseDirs(final List<String> baseDirs) {
+    this.baseDirs = baseDirs;
+  }
+
+  /**
+   * @param buildStateDirectory
+   *          the buildStateDirectory to set
+   */
+  public void setBuildStateDirectory(final String buildStateDirectory) {
+    this.buildStateDirectory = buildStateDirectory;
+  }
+
+  /**
+   * @param cacheDirectory
+   *          the cacheDirectory to set
+   */
+  public void setCacheDirectory(final String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * @param cacheMaxSize
+   *          the cacheMaxSize to set
+   */
+  public void setCacheMaxSize(final long cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  /**
+   * @param compiledBundles
+   *          the compiledBundles to set
+   */
+  public void setCompiledBundles(final boolean compiledBundles) {
+    this.compiledBundles = compiledBundles;
+  }
+
+  /**
+   * @param encodedKeys
+   *          the encodedKeys to set
+   */
+  public void setEncodedKeys(final boolean encodedKeys) {
+    this.encodedKeys = encodedKeys;
+  }
+
+  /**
+   * @param enumFieldPattern
+   *          the enumFieldPattern to set
+   */
+  public void setEnumFieldPattern(final String enumFieldPattern) {
+    this.enumFieldPattern = enumFieldPattern;
+  }
+
+  /**
+   * @param enumJavadoc
+   *          the enumJavadoc to set
+   */
+  public void setEnumJavadoc(final String enumJavadoc) {
+    this.enumJavadoc = enumJavadoc;
+  }
+
+  /**
+   * @param excludes
+   *          the excludes to set
+   */
+  public void setExcludes(final List<String> excludes) {
+    this.excludes = excludes;
+  }
+
+  /**
+   * @param files
+   *          the files to set
+   */
+  public void setFiles(final List<String> files) {
+    this.files = files;
+  }
+
+  /**
+   * @param flightRecorderEvents
+   *          the flightRecorderEvents to set
+   */
+  public void setFlightRecorderEvents(final boolean flightRecorderEvents) {
+    this.flightRecorderEvents = flightRecorderEvents;
+  }
+
+  /**
+   * @param flightRecorderThreshold
+   *          the flightRecorderThreshold to set
+   */
+  public void setFlightRecorderThreshold(final String flightRecorderThreshold) {
+    this.flightRecorderThreshold = flightRecorderThreshold;
+  }
+
+  /**
+   * @param generateDirectory
+   *          the generateDirectory to set
+   */
+  public void setGenerateDirectory(final String generateDirectory) {
+    this.generateDirectory = generateDirectory;
+  }
+
+  /**
+   * @param gzipJsonCatalogs
+   *          the gzipJsonCatalogs to set
+   */
+  public void setGzipJsonCatalogs(final boolean gzipJsonCatalogs) {
+    this.gzipJsonCatalogs = gzipJsonCatalogs;
+  }
+
+  /**
+   * @param implement
+   *          the implement to set
+   */
+  public void setImplement(final String implement) {
+    this.implement = implement;
+  }
+
+  /**
+   * @param includes
+   *          the includes to set
+   */
+  public void setIncludes(final List<String> includes) {
+    this.includes = includes;
+  }
+
+  /**
+   * @param initializeAtBuildTime
+   *          the initializeAtBuildTime to set
+   */
+  public void setInitializeAtBuildTime(final boolean initializeAtBuildTime) {
+    this.initializeAtBuildTime = initializeAtBuildTime;
+  }
+
+  /**
+   * @param jsonCatalogDirectory
+   *          the jsonCatalogDirectory to set
+   */
+  public void setJsonCatalogDirectory(final String jsonCatalogDirectory) {
+    this.jsonCatalogDirectory = jsonCatalogDirectory;
+  }
+
+  /**
+   * @param jsonCatalogs
+   *          the jsonCatalogs to set
+   */
+  public void setJsonCatalogs(final boolean jsonCatalogs) {
+    this.jsonCatalogs = jsonCatalogs;
+  }
+
+  /**
+   * @param keyConstants
+   *          the keyConstants to set
+   */
+  public void setKeyConstants(final boolean keyConstants) {
+    this.keyConstants = keyConstants;
+  }
+
+  /**
+   * @param keyIds
+   *          the keyIds to set
+   */
+  public void setKeyIds(final boolean keyIds) {
+    this.keyIds = keyIds;
+  }
+
+  /**
+   * @param lineLength
+   *          the lineLength to set
+   */
+  public void setLineLength(final Integer lineLength) {
+    this.lineLength = lineLength;
+  }
+
+  /**
+   * @param mergeDirectory
+   *          the mergeDirectory to set
+   */
+  public void setMergeDirectory(final String mergeDirectory) {
+    this.mergeDirectory = mergeDirectory;
+  }
+
+  /**
+   * @param mergeGroups
+   *          the mergeGroups to set
+   */
+  public void setMergeGroups(final List<MergeGroup> mergeGroups) {
+    this.mergeGroups = mergeGroups;
+  }
+
+  /**
+   * @param nativeImage
+   *          the nativeImage to set
+   */
+  public void setNativeImage(final boolean nativeImage) {
+    this.nativeImage = nativeImage;
+  }
+
+  /**
+   * @param nativeImageDirectory
+   *          the nativeImageDirectory to set
+   */
+  public void setNativeImageDirectory(final String nativeImageDirectory) {
+    this.nativeImageDirectory = nativeImageDirectory;
+  }
+
+  /**
+   * @param packageName
+   *          the packageName to set
+   */
+  public void setPackageName(final String packageName) {
+    this.packageName = packageName;
+  }
+
+  /**
+   * @param prefix
+   *          the prefix to set
+   */
+  public void setPrefix(final String prefix) {
+    this.prefix = prefix;
+  }
+
+  /**
+   * @param prefixedOnly
+   *          the prefixedOnly to set
+   */
+  public void setPrefixedOnly(final boolean prefixedOnly) {
+    this.prefixedOnly = prefixedOnly;
+  }
+
+  /**
+   * @param prefixQueries
+   *          the prefixQueries to set
+   */
+  public void setPrefixQueries(final boolean prefixQueries) {
+    this.prefixQueries = prefixQueries;
+  }
+
+  /**
+   * @param project
+   *          the project to set
+   */
+  public void setProject(final MavenProject project) {
+    this.project = project;
+  }
+
+  /**
+   * @param registryClass
+   *          the registryClass to set
+   */
+  public void setRegistryClass(final String registryClass) {
+    this.registryClass = registryClass;
+  }
+
+  /**
+   * @param registryDirectory
+   *          the registryDirectory to set
+   */
+  public void setRegistryDirectory(final String registryDirectory) {
+    this.registryDirectory = registryDirectory;
+  }
+
+  /**
+   * @param reportFile
+   *          the reportFile to set
+   */
+  public void setReportFile(final String reportFile) {
+    this.reportFile = reportFile;
+  }
+
+  /**
+   * @param runtime
+   *          the runtime to set
+   */
+  public void setRuntime(final boolean runtime) {
+    this.runtime = runtime;
+  }
+
+  /**
+   * @param targetEncoding
+   *          the targetEncoding to set
+   */
+  public void setTargetEncoding(final String targetEncoding) {
+    this.targetEncoding = targetEncoding;
+  }
+
+  /**
+   * @param typedAccessors
+   *          the typedAccessors to set
+   */
+  public void setTypedAccessors(final boolean typedAccessors) {
+    this.typedAccessors = typedAccessors;
+  }
+
+  /**
+   * @param usageCounters
+   *          the usageCounters to set
+   */
+  public void setUsageCounters(final boolean usageCounters) {
+    this.usageCounters = usageCounters;
+  }
+
+  /**
+   * @param valueTypes
+   *          the valueTypes to set
+   */
+  public void setValueTypes(final Map<String, String> valueTypes) {
+    this.valueTypes = valueTypes;
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Access to properties files inside of archives, like the JARs of dependencies. Entries are looked up in the archive's
+ * central directory and read directly, so the archive doesn't need to be extracted. A properties file inside of an
+ * archive is represented by a virtual {@link File}, whose path is the archive's path followed by the entry name.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class ArchiveEntries {
+
+  /**
+   * Separator between the archive and the entry name in descriptions of entries.
+   */
+  public static final String SEPARATOR = "!/";
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private ArchiveEntries() {
+  }
+
+  /**
+   * @param baseDir
+   *          a base directory
+   * @return <code>true</code> if the base directory is an archive
+   */
+  public static boolean isArchive(final File baseDir) {
+    return baseDir.isFile();
+  }
+
+  /**
+   * @param archive
+   *          the archive
+   * @return the names of all file entries of the archive, in the order of its central directory
+   * @throws IOException
+   *           if the archive could not be read
+   */
+  public static List<String> list(final File archive) throws IOException {
+    List<String> names = new ArrayList<String>();
+    ZipFile zipFile = new ZipFile(archive);
+    try {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        if (!entry.isDirectory()) {
+          names.add(entry.getName());
+        }
+      }
+    } finally {
+      zipFile.close();
+    }
+    return names;
+  }
+
+  /**
+   * @param archive
+   *          the archive
+   * @param entryName
+   *          the name of the entry, using / as separator
+   * @return <code>true</code> if the archive contains the entry
+   * @throws IOException
+   *           if the archive could not be read
+   */
+  public static boolean exists(final File archive, final String entryName) throws IOException {
+    ZipFile zipFile = new ZipFile(archive);
+    try {
+      return zipFile.getEntry(entryName) != null;
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  /**
+   * Reads an entry of an archive.
+   * 
+   * @param zipFile
+   *          the opened archive
+   * @param entryName
+   *          the name of the entry, using / as separator
+   * @return the entry's content
+   * @throws IOException
+   *           if the entry does not exist or could not be read
+   */
+  public static byte[] read(final ZipFile zipFile, final String entryName) throws IOException {
+    ZipEntry entry = getEntry(zipFile, entryName);
+    InputStream in = zipFile.getInputStream(entry);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(entry.getSize() > 0 ? (int) entry.getSize() : 4096);
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Reads an entry of an archive.
+   * 
+   * @param archive
+   *          the archive
+   * @param entryName
+   *          the name of the entry, using / as separator
+   * @return the entry's content
+   * @throws IOException
+   *           if the entry does not exist or could not be read
+   */
+  public static byte[] read(final File archive, final String entryName) throws IOException {
+    ZipFile zipFile = new ZipFile(archive);
+    try {
+      return read(zipFile, entryName);
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  /**
+   * @param zipFile
+   *          the opened archive
+   * @param entryName
+   *          the name of the entry, using / as separator
+   * @return the entry from the archive's central directory
+   * @throws FileNotFoundException
+   *           if the entry does not exist
+   */
+  public static ZipEntry getEntry(final ZipFile zipFile, final String entryName) throws FileNotFoundException {
+    ZipEntry entry = zipFile.getEntry(entryName);
+    if (entry == null) {
+      throw new FileNotFoundException("The entry " + entryName + " could not be found in " + zipFile.getName());
+    }
+    return entry;
+  }
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Remembers which files have been generated for which properties file. When a properties file is removed or renamed,
+ * or an input produces different outputs than before, the outputs that are not produced anymore can be deleted without
+ * cleaning the whole generate directory. Additionally, a fingerprint of each properties file and a digest of each
+ * generated file are kept, so it can be verified cheaply whether the generated files are up to date.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class BuildManifest {
+
+  /**
+   * The file the manifest is stored in.
+   */
+  private final File manifestFile;
+
+  /**
+   * The file the fingerprints are stored in.
+   */
+  private final File fingerprintsFile;
+
+  /**
+   * Fingerprints of properties files and digests of generated files, by file path.
+   */
+  private final Map<String, String> fingerprints;
+
+  /**
+   * Paths of the generated files, by path of the properties file they have been generated from.
+   */
+  private final Map<String, Set<String>> outputsByInput;
+
+  /**
+   * Paths of all generated files known to this manifest, including the ones that are not generated anymore.
+   */
+  private final Set<String> knownOutputs;
+
+  /**
+   * <code>true</code> if the manifest has been modified since it was loaded or saved.
+   */
+  private boolean modified;
+
+  /**
+   * Constructs a new {@link BuildManifest} and loads the given manifest file, if it exists.
+   * 
+   * @param manifestFile
+   *          the file to store the manifest in
+   * @param fingerprintsFile
+   *          the file to store the fingerprints in
+   * @throws IOException
+   *           if the manifest file exists but could not be read
+   */
+  public BuildManifest(final File manifestFile, final File fingerprintsFile) throws IOException {
+    this.manifestFile = manifestFile;
+    this.fingerprintsFile = fingerprintsFile;
+    fingerprints = new TreeMap<String, String>();
+    outputsByInput = new TreeMap<String, Set<String>>();
+    knownOutputs = new HashSet<String>();
+    load();
+  }
+
+  /**
+   * Records the files that have been generated for a properties file, replacing the ones recorded before.
+   * 
+   * @param input
+   *          the properties file
+   * @param outputs
+   *          the files generated for it
+   */
+  public void setOutputs(final File input, final Collection<File> outputs) {
+    Set<String> outputPaths = new LinkedHashSet<String>();
+    for (File output : outputs) {
+      outputPaths.add(output.getAbsolutePath());
+    }
+    Set<String> previousOutputPaths = outputsByInput.put(input.getAbsolutePath(), outputPaths);
+    if (!outputPaths.equals(previousOutputPaths)) {
+      knownOutputs.addAll(outputPaths);
+      modified = true;
+    }
+  }
+
+  /**
+   * @param input
+   *          the properties file
+   * @return the files recorded for the properties file, empty if there are none
+   */
+  public List<File> getOutputs(final File input) {
+    List<File> outputs = new ArrayList<File>();
+    Set<String> outputPaths = outputsByInput.get(input.getAbsolutePath());
+    if (outputPaths != null) {
+      for (String outputPath : outputPaths) {
+        outputs.add(new File(outputPath));
+      }
+    }
+    return outputs;
+  }
+
+  /**
+   * @return all properties files known to this manifest
+   */
+  public List<File> getInputs() {
+    List<File> inputs = new ArrayList<File>();
+    for (String inputPath : outputsByInput.keySet()) {
+      inputs.add(new File(inputPath));
+    }
+    return inputs;
+  }
+
+  /**
+   * @param file
+   *          a properties file or generated file
+   * @return the fingerprint recorded for the file, or <code>null</code> if there is none
+   */
+  public String getFingerprint(final File file) {
+    return fingerprints.get(file.getAbsolutePath());
+  }
+
+  /**
+   * Records the fingerprint of a properties file or the digest of a generated file.
+   * 
+   * @param file
+   *          the file
+   * @param fingerprint
+   *          the file's fingerprint
+   */
+  public void setFingerprint(final File file, final String fingerprint) {
+    if (!fingerprint.equals(fingerprints.put(file.getAbsolutePath(), fingerprint))) {
+      modified = true;
+    }
+  }
+
+  /**
+   * Forgets all properties files except the given ones, e.g. because they have been deleted. Their outputs will be
+   * deleted by {@link #deleteOrphanedOutputs()}.
+   * 
+   * @param inputs
+   *          the properties files to keep
+   */
+  public void retainInputs(final Collection<File> inputs) {
+    Set<String> inputPaths = new HashSet<String>();
+    for (File input : inputs) {
+      inputPaths.add(input.getAbsolutePath());
+    }
+    Iterator<String> iterator = outputsByInput.keySet().iterator();
+    while (iterator.hasNext()) {
+      String inputPath = iterator.next();
+      if (!inputPaths.contains(inputPath)) {
+        iterator.remove();
+        fingerprints.remove(inputPath);
+        modified = true;
+      }
+    }
+  }
+
+  /**
+   * Forgets the given properties files, e.g. because they have been deleted. Their outputs will be deleted by
+   * {@link #deleteOrphanedOutputs()}.
+   * 
+   * @param inputs
+   *          the properties files to forget
+   */
+  public void removeInputs(final Collection<File> inputs) {
+    for (File input : inputs) {
+      if (outputsByInput.remove(input.getAbsolutePath()) != null) {
+        fingerprints.remove(input.getAbsolutePath());
+        modified = true;
+      }
+    }
+  }
+
+  /**
+   * Deletes all files that have been generated before but are not generated for any of the current properties files
+   * anymore.
+   * 
+   * @return the deleted files
+   * @throws IOException
+   *           if a file could not be deleted
+   */
+  public List<File> deleteOrphanedOutputs() throws IOException {
+    Set<String> referencedOutputs = new HashSet<String>();
+    for (Set<String> outputPaths : outputsByInput.values()) {
+      referencedOutputs.addAll(outputPaths);
+    }
+
+    List<File> deletedFiles = new ArrayList<File>();
+    Iterator<String> iterator = knownOutputs.iterator();
+    while (iterator.hasNext()) {
+      String outputPath = iterator.next();
+      if (referencedOutputs.contains(outputPath)) {
+        continue;
+      }
+      File output = new File(outputPath);
+      if (output.exists()) {
+        if (!output.delete()) {
+          throw new IOException("Could not delete stale file: " + outputPath);
+        }
+        deletedFiles.add(output);
+      }
+      iterator.remove();
+      fingerprints.remove(outputPath);
+      modified = true;
+    }
+    return deletedFiles;
+  }
+
+  /**
+   * Loads the manifest file.
+   * 
+   * @throws IOException
+   *           if the manifest file exists but could not be read
+   */
+  private void load() throws IOException {
+    Properties fingerprintProperties = loadProperties(fingerprintsFile);
+    for (String path : fingerprintProperties.stringPropertyNames()) {
+      fingerprints.put(path, fingerprintProperties.getProperty(path));
+    }
+
+    Properties properties = loadProperties(manifestFile);
+    for (String input : properties.stringPropertyNames()) {
+      Set<String> outputPaths = new LinkedHashSet<String>();
+      for (String outputPath : properties.getProperty(input).split(File.pathSeparator)) {
+        if (outputPath.length() > 0) {
+          outputPaths.add(outputPath);
+        }
+      }
+      outputsByInput.put(input, outputPaths);
+      knownOutputs.addAll(outputPaths);
+    }
+  }
+
+  /**
+   * Saves the manifest file, if the manifest has been modified.
+   * 
+   * @throws IOException
+   *           if the manifest file could not be written
+   */
+  public void save() throws IOException {
+    if (!modified) {
+      return;
+    }
+    Properties properties = new Properties();
+    for (Map.Entry<String, Set<String>> entry : outputsByInput.entrySet()) {
+      StringBuilder builder = new StringBuilder();
+      for (String outputPath : entry.getValue()) {
+        if (builder.length() > 0) {
+          builder.append(File.pathSeparatorChar);
+        }
+        builder.append(outputPath);
+      }
+      properties.setProperty(entry.getKey(), builder.toString());
+    }
+
+    storeProperties(properties, manifestFile, "Files generated by the maven-properties-enum-plugin, by properties file");
+
+    Properties fingerprintProperties = new Properties();
+    fingerprintProperties.putAll(fingerprints);
+    storeProperties(fingerprintProperties, fingerprintsFile, "Fingerprints of properties files and generated files");
+    modified = false;
+  }
+
+  /**
+   * @param file
+   *          the file to load
+   * @return the properties loaded from the file, empty if it doesn't exist
+   * @throws IOException
+   *           if the file exists but could not be read
+   */
+  private static Properties loadProperties(final File file) throws IOException {
+    Properties properties = new Properties();
+    if (file.isFile()) {
+      InputStream in = new BufferedInputStream(new FileInputStream(file));
+      try {
+        properties.load(in);
+      } finally {
+        in.close();
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * @param properties
+   *          the properties to store
+   * @param file
+   *          the file to store the properties in
+   * @param comments
+   *          a description of the file's content
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private static void storeProperties(final Properties properties, final File file, final String comments)
+      throws IOException {
+    File parentDirectory = file.getParentFile();
+    if (parentDirectory != null && !parentDirectory.exists() && !parentDirectory.mkdirs()) {
+      throw new IOException("Could not create directory: " + parentDirectory.getAbsolutePath());
+    }
+    OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+    try {
+      properties.store(out, comments);
+    } finally {
+      out.close();
+    }
+  }
+}
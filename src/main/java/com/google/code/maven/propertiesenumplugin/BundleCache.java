@@ -0,0 +1,185 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JVM wide cache of parsed properties files. When Maven runs as a persistent daemon, the plugin's classes survive
+ * between builds, so unchanged properties files don't need to be read and parsed again. An entry is valid as long as
+ * the file's size and modification time (or checksum, for entries of archives) don't change. The cache holds at most
+ * {@link #MAX_ENTRIES} entries and only softly references them, so it never causes the JVM to run out of memory.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class BundleCache {
+
+  /**
+   * Maximum number of cached properties files.
+   */
+  static final int MAX_ENTRIES = 512;
+
+  /**
+   * The cached entries by canonical path and parse options, least recently used first.
+   */
+  private static final Map<String, SoftReference<CachedBundle>> ENTRIES =
+      new LinkedHashMap<String, SoftReference<CachedBundle>>(16, 0.75f, true) {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, SoftReference<CachedBundle>> eldest) {
+      return size() > MAX_ENTRIES;
+    }
+  };
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private BundleCache() {
+  }
+
+  /**
+   * Returns the cached bundle of a properties file, if the file has not been modified since it was cached.
+   * 
+   * @param file
+   *          the properties file
+   * @param options
+   *          a string that identifies all options the bundle has been parsed with, like the encoding
+   * @return the cached bundle, or <code>null</code> if there is none or the file has been modified
+   * @throws IOException
+   *           if the file's canonical path could not be determined
+   */
+  public static PropertiesBundle get(final File file, final String options) throws IOException {
+    return get(file.getCanonicalPath(), options, file.lastModified(), file.length());
+  }
+
+  /**
+   * Returns the cached bundle of a properties file, if the given version and length are the same as when it was cached.
+   * 
+   * @param path
+   *          the unique path of the properties file, e.g. its canonical path
+   * @param options
+   *          a string that identifies all options the bundle has been parsed with, like the encoding
+   * @param version
+   *          the current version of the file, e.g. its modification time or checksum
+   * @param length
+   *          the current length of the file
+   * @return the cached bundle, or <code>null</code> if there is none or the file has been modified
+   */
+  public static PropertiesBundle get(final String path, final String options, final long version, final long length) {
+    String key = path + '\0' + options;
+    synchronized (ENTRIES) {
+      SoftReference<CachedBundle> reference = ENTRIES.get(key);
+      CachedBundle entry = reference != null ? reference.get() : null;
+      if (entry == null) {
+        return null;
+      }
+      if (entry.version != version || entry.length != length) {
+        ENTRIES.remove(key);
+        return null;
+      }
+      return entry.bundle;
+    }
+  }
+
+  /**
+   * Caches the bundle of a properties file.
+   * 
+   * @param file
+   *          the properties file
+   * @param options
+   *          a string that identifies all options the bundle has been parsed with, like the encoding
+   * @param lastModified
+   *          the file's modification time before it has been read
+   * @param bundle
+   *          the parsed bundle
+   * @throws IOException
+   *           if the file's canonical path could not be determined
+   */
+  public static void put(final File file, final String options, final long lastModified, final PropertiesBundle bundle)
+      throws IOException {
+    put(file.getCanonicalPath(), options, lastModified, bundle.getSourceLength(), bundle);
+  }
+
+  /**
+   * Caches the bundle of a properties file.
+   * 
+   * @param path
+   *          the unique path of the properties file, e.g. its canonical path
+   * @param options
+   *          a string that identifies all options the bundle has been parsed with, like the encoding
+   * @param version
+   *          the version of the file before it has been read, e.g. its modification time or checksum
+   * @param length
+   *          the length of the file
+   * @param bundle
+   *          the parsed bundle
+   */
+  public static void put(final String path, final String options, final long version, final long length,
+      final PropertiesBundle bundle) {
+    synchronized (ENTRIES) {
+      ENTRIES.put(path + '\0' + options, new SoftReference<CachedBundle>(new CachedBundle(version, length, bundle)));
+    }
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public static void clear() {
+    synchronized (ENTRIES) {
+      ENTRIES.clear();
+    }
+  }
+
+  /**
+   * A cached bundle and the version and length of its file.
+   */
+  private static final class CachedBundle {
+
+    /**
+     * The file's version when it has been read.
+     */
+    private final long version;
+
+    /**
+     * The file's length.
+     */
+    private final long length;
+
+    /**
+     * The parsed bundle.
+     */
+    private final PropertiesBundle bundle;
+
+    /**
+     * Constructs a new {@link CachedBundle}.
+     * 
+     * @param version
+     *          the file's version when it has been read
+     * @param length
+     *          the file's length
+     * @param bundle
+     *          the parsed bundle
+     */
+    private CachedBundle(final long version, final long length, final PropertiesBundle bundle) {
+      this.version = version;
+      this.length = length;
+      this.bundle = bundle;
+    }
+  }
+}
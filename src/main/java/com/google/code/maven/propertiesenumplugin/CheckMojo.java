@@ -0,0 +1,85 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * This Mojo verifies that the generated enums are up to date with their properties files and have not been edited by
+ * hand. Nothing is written, so it can be used to fail a CI build early. All problems are reported at once.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ * @goal check
+ * @requiresDependencyResolution compile
+ * @requiresProject true
+ */
+public class CheckMojo extends AbstractEnumGeneratorMojo {
+
+  /**
+   * Number of threads used to check the properties files. If <code>0</code>, one thread per available processor is
+   * used.
+   * 
+   * @parameter expression="${propertiesEnum.threads}" default-value="0"
+   */
+  private int threads;
+
+  /**
+   * Checks whether all generated enums are up to date.
+   * 
+   * @throws MojoExecutionException
+   *           if an exception occurred
+   * @throws MojoFailureException
+   *           if a generated enum is not up to date
+   */
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    EnumGenerator enumGenerator = createEnumGenerator();
+    List<String> problems;
+    try {
+      problems = enumGenerator.check(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    } catch (IOException e) {
+      getLog().error(e);
+      throw new MojoExecutionException(e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException(e.getMessage(), e);
+    }
+
+    if (!problems.isEmpty()) {
+      for (String problem : problems) {
+        getLog().error(problem);
+      }
+      throw new MojoFailureException(problems.size()
+          + " generated enum(s) are not up to date, run the generate goal to update them");
+    }
+  }
+
+  /**
+   * @return the threads
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * @param threads
+   *          the threads to set
+   */
+  public void setThreads(final int threads) {
+    this.threads = threads;
+  }
+}
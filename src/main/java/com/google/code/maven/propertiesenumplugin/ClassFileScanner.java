@@ -0,0 +1,610 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Finds the references to the constants of a set of enum types in compiled classes. The class files are parsed
+ * directly instead of being loaded into the JVM, so that no class is initialized and scanning can be done in parallel.
+ * <p>
+ * A constant is referenced if a class contains a field reference to it, or a string constant equal to its name. If a
+ * class calls <code>values()</code>, <code>valueOf(String)</code>, or the generated <code>fromId(int)</code> or
+ * <code>withPrefix(String)</code> of an enum type or loads its class literal, the constants may be used dynamically,
+ * so all of them must be considered referenced. The enum types themselves and their
+ * nested classes are not scanned.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class ClassFileScanner {
+
+  /**
+   * Magic number at the start of every class file.
+   */
+  private static final int MAGIC = 0xCAFEBABE;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Utf8</code>.
+   */
+  private static final int UTF8 = 1;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Integer</code>.
+   */
+  private static final int INTEGER = 3;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Float</code>.
+   */
+  private static final int FLOAT = 4;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Long</code>.
+   */
+  private static final int LONG = 5;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Double</code>.
+   */
+  private static final int DOUBLE = 6;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Class</code>.
+   */
+  private static final int CLASS = 7;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_String</code>.
+   */
+  private static final int STRING = 8;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Fieldref</code>.
+   */
+  private static final int FIELD_REF = 9;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Methodref</code>.
+   */
+  private static final int METHOD_REF = 10;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_InterfaceMethodref</code>.
+   */
+  private static final int INTERFACE_METHOD_REF = 11;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_NameAndType</code>.
+   */
+  private static final int NAME_AND_TYPE = 12;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_MethodHandle</code>.
+   */
+  private static final int METHOD_HANDLE = 15;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_MethodType</code>.
+   */
+  private static final int METHOD_TYPE = 16;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Dynamic</code>.
+   */
+  private static final int DYNAMIC = 17;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_InvokeDynamic</code>.
+   */
+  private static final int INVOKE_DYNAMIC = 18;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Module</code>.
+   */
+  private static final int MODULE = 19;
+
+  /**
+   * Constant pool tag of <code>CONSTANT_Package</code>.
+   */
+  private static final int PACKAGE = 20;
+
+  /**
+   * Opcode of <code>ldc</code>.
+   */
+  private static final int LDC = 0x12;
+
+  /**
+   * Opcode of <code>ldc_w</code>.
+   */
+  private static final int LDC_W = 0x13;
+
+  /**
+   * Opcode of <code>iinc</code>.
+   */
+  private static final int IINC = 0x84;
+
+  /**
+   * Opcode of <code>tableswitch</code>.
+   */
+  private static final int TABLESWITCH = 0xaa;
+
+  /**
+   * Opcode of <code>lookupswitch</code>.
+   */
+  private static final int LOOKUPSWITCH = 0xab;
+
+  /**
+   * Opcode of <code>wide</code>.
+   */
+  private static final int WIDE = 0xc4;
+
+  /**
+   * Length of each instruction including its opcode, or <code>0</code> for instructions with a variable length.
+   */
+  private static final int[] INSTRUCTION_LENGTHS = buildInstructionLengths();
+
+  /**
+   * Static methods of the enum types that return constants chosen at runtime: <code>values()</code> and
+   * <code>valueOf(String)</code> of every enum, and the generated <code>fromId(int)</code> and
+   * <code>withPrefix(String)</code>.
+   */
+  private static final Set<String> DYNAMIC_METHODS = new HashSet<String>(Arrays.asList("values", "valueOf", "fromId",
+      "withPrefix"));
+
+  /**
+   * Internal names (e.g. "com/example/Messages") of the enum types whose constants are searched.
+   */
+  private final Set<String> enumTypeNames;
+
+  /**
+   * Internal names of the classes that are not scanned: the enum types and the classes generated along with them, which
+   * hold the keys as constants themselves.
+   */
+  private final Set<String> skippedClassNames;
+
+  /**
+   * The referenced constants, by internal enum type name.
+   */
+  private final ConcurrentHashMap<String, Set<String>> referencedConstants;
+
+  /**
+   * Internal names of the enum types whose constants may be used dynamically.
+   */
+  private final Set<String> dynamicallyUsedTypes;
+
+  /**
+   * All string constants found in the scanned classes.
+   */
+  private final Set<String> stringConstants;
+
+  /**
+   * Constructs a new {@link ClassFileScanner}.
+   * 
+   * @param enumTypeNames
+   *          internal names (e.g. "com/example/Messages") of the enum types whose constants are searched
+   */
+  public ClassFileScanner(final Collection<String> enumTypeNames) {
+    this(enumTypeNames, Collections.<String> emptySet());
+  }
+
+  /**
+   * Constructs a new {@link ClassFileScanner} that does not scan the given generated classes, e.g. the key constants
+   * and compiled bundle classes, which reference every key.
+   * 
+   * @param enumTypeNames
+   *          internal names (e.g. "com/example/Messages") of the enum types whose constants are searched
+   * @param generatedClassNames
+   *          internal names (e.g. "com/example/MessagesKeys") of the other generated classes, which are skipped along
+   *          with their nested classes
+   */
+  public ClassFileScanner(final Collection<String> enumTypeNames, final Collection<String> generatedClassNames) {
+    this.enumTypeNames = new HashSet<String>(enumTypeNames);
+    skippedClassNames = new HashSet<String>(enumTypeNames);
+    skippedClassNames.addAll(generatedClassNames);
+    referencedConstants = new ConcurrentHashMap<String, Set<String>>();
+    dynamicallyUsedTypes = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    stringConstants = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  }
+
+  /**
+   * @param enumTypeName
+   *          the internal name of an enum type
+   * @return the names of its constants that are referenced by a field reference or string constant
+   */
+  public Set<String> getReferencedConstants(final String enumTypeName) {
+    Set<String> constants = referencedConstants.get(enumTypeName);
+    return constants != null ? Collections.unmodifiableSet(constants) : Collections.<String> emptySet();
+  }
+
+  /**
+   * @return all string constants found in the scanned classes
+   */
+  public Set<String> getStringConstants() {
+    return Collections.unmodifiableSet(stringConstants);
+  }
+
+  /**
+   * @param enumTypeName
+   *          the internal name of an enum type
+   * @return <code>true</code> if the enum type's constants may be used dynamically, so that all of them have to be
+   *         considered referenced
+   */
+  public boolean isDynamicallyUsed(final String enumTypeName) {
+    return dynamicallyUsedTypes.contains(enumTypeName);
+  }
+
+  /**
+   * Scans all class files below a directory in parallel.
+   * 
+   * @param directory
+   *          the directory containing the class files
+   * @param threads
+   *          the number of threads to use
+   * @throws IOException
+   *           if a class file could not be read or parsed
+   * @throws InterruptedException
+   *           if the thread was interrupted while waiting for the scan to finish
+   */
+  public void scanDirectory(final File directory, final int threads) throws IOException, InterruptedException {
+    List<File> classFiles = new ArrayList<File>();
+    findClassFiles(directory, classFiles);
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, classFiles.size())));
+    try {
+      List<Future<Void>> results = new ArrayList<Future<Void>>();
+      for (final File classFile : classFiles) {
+        results.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            scan(Digests.readFile(classFile));
+            return null;
+          }
+        }));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          results.get(i).get();
+        } catch (ExecutionException e) {
+          throw (IOException) new IOException("Could not scan " + classFiles.get(i).getAbsolutePath() + ": "
+              + e.getCause().getMessage()).initCause(e.getCause());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Adds all class files below a directory to a list.
+   * 
+   * @param directory
+   *          the directory to search
+   * @param classFiles
+   *          the list to add the class files to
+   */
+  private static void findClassFiles(final File directory, final List<File> classFiles) {
+    File[] children = directory.listFiles();
+    if (children == null) {
+      return;
+    }
+    for (File child : children) {
+      if (child.isDirectory()) {
+        findClassFiles(child, classFiles);
+      } else if (child.getName().endsWith(".class")) {
+        classFiles.add(child);
+      }
+    }
+  }
+
+  /**
+   * Scans a single class file. This method is thread safe.
+   * 
+   * @param classFile
+   *          the content of the class file
+   * @throws IOException
+   *           if the class file is invalid
+   */
+  public void scan(final byte[] classFile) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a class file");
+    }
+    in.readUnsignedShort();
+    in.readUnsignedShort();
+
+    int count = in.readUnsignedShort();
+    int[] tags = new int[count];
+    int[] firstIndexes = new int[count];
+    int[] secondIndexes = new int[count];
+    String[] strings = new String[count];
+    for (int i = 1; i < count; i++) {
+      tags[i] = in.readUnsignedByte();
+      switch (tags[i]) {
+        case UTF8:
+          strings[i] = in.readUTF();
+          break;
+        case CLASS:
+        case STRING:
+        case METHOD_TYPE:
+        case MODULE:
+        case PACKAGE:
+          firstIndexes[i] = in.readUnsignedShort();
+          break;
+        case FIELD_REF:
+        case METHOD_REF:
+        case INTERFACE_METHOD_REF:
+        case NAME_AND_TYPE:
+        case DYNAMIC:
+        case INVOKE_DYNAMIC:
+          firstIndexes[i] = in.readUnsignedShort();
+          secondIndexes[i] = in.readUnsignedShort();
+          break;
+        case INTEGER:
+        case FLOAT:
+          in.readInt();
+          break;
+        case LONG:
+        case DOUBLE:
+          in.readLong();
+          i++;
+          break;
+        case METHOD_HANDLE:
+          in.readUnsignedByte();
+          in.readUnsignedShort();
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tags[i]);
+      }
+    }
+
+    in.readUnsignedShort();
+    String className = strings[firstIndexes[in.readUnsignedShort()]];
+    for (String skippedClassName : skippedClassNames) {
+      if (className.equals(skippedClassName) || className.startsWith(skippedClassName + "$")) {
+        return;
+      }
+    }
+
+    for (int i = 1; i < count; i++) {
+      if (tags[i] == STRING) {
+        stringConstants.add(strings[firstIndexes[i]]);
+      } else if (tags[i] == FIELD_REF || tags[i] == METHOD_REF) {
+        String owner = strings[firstIndexes[firstIndexes[i]]];
+        if (enumTypeNames.contains(owner)) {
+          String memberName = strings[firstIndexes[secondIndexes[i]]];
+          if (tags[i] == FIELD_REF) {
+            addReferencedConstant(owner, memberName);
+          } else if (DYNAMIC_METHODS.contains(memberName)) {
+            dynamicallyUsedTypes.add(owner);
+          }
+        }
+      }
+    }
+
+    in.readUnsignedShort();
+    skip(in, in.readUnsignedShort() * 2);
+    skipMembers(in);
+    int methodCount = in.readUnsignedShort();
+    for (int i = 0; i < methodCount; i++) {
+      skip(in, 6);
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        String attributeName = strings[in.readUnsignedShort()];
+        int length = in.readInt();
+        if ("Code".equals(attributeName)) {
+          byte[] attribute = new byte[length];
+          in.readFully(attribute);
+          scanCode(attribute, tags, firstIndexes, strings);
+        } else {
+          skip(in, length);
+        }
+      }
+    }
+  }
+
+  /**
+   * Searches the instructions of a method for class literals of the enum types.
+   * 
+   * @param codeAttribute
+   *          the content of the method's Code attribute
+   * @param tags
+   *          the constant pool tags
+   * @param firstIndexes
+   *          the first index of each constant pool entry
+   * @param strings
+   *          the UTF-8 constant pool entries
+   */
+  private void scanCode(final byte[] codeAttribute, final int[] tags, final int[] firstIndexes,
+      final String[] strings) {
+    // max_stack and max_locals precede the code length
+    int codeStart = 8;
+    int codeLength = readInt(codeAttribute, 4);
+    int pc = 0;
+    while (pc < codeLength) {
+      int opcode = codeAttribute[codeStart + pc] & 0xff;
+      int constantIndex = -1;
+      if (opcode == LDC) {
+        constantIndex = codeAttribute[codeStart + pc + 1] & 0xff;
+      } else if (opcode == LDC_W) {
+        constantIndex = readUnsignedShort(codeAttribute, codeStart + pc + 1);
+      }
+      if (constantIndex > 0 && tags[constantIndex] == CLASS) {
+        String literal = strings[firstIndexes[constantIndex]];
+        if (enumTypeNames.contains(literal)) {
+          dynamicallyUsedTypes.add(literal);
+        }
+      }
+      pc += getInstructionLength(codeAttribute, codeStart, pc);
+    }
+  }
+
+  /**
+   * @param code
+   *          the byte array containing the instructions
+   * @param codeStart
+   *          the offset of the first instruction in the byte array
+   * @param pc
+   *          the offset of the instruction, relative to the first instruction
+   * @return the length of the instruction in bytes
+   */
+  private static int getInstructionLength(final byte[] code, final int codeStart, final int pc) {
+    int opcode = code[codeStart + pc] & 0xff;
+    int length = INSTRUCTION_LENGTHS[opcode];
+    if (length > 0) {
+      return length;
+    }
+    if (opcode == WIDE) {
+      return (code[codeStart + pc + 1] & 0xff) == IINC ? 6 : 4;
+    }
+    // the operands of switch instructions are aligned to four bytes
+    int operands = pc + 4 - pc % 4;
+    if (opcode == TABLESWITCH) {
+      int low = readInt(code, codeStart + operands + 4);
+      int high = readInt(code, codeStart + operands + 8);
+      return operands - pc + 12 + (high - low + 1) * 4;
+    }
+    int pairs = readInt(code, codeStart + operands + 4);
+    return operands - pc + 8 + pairs * 8;
+  }
+
+  /**
+   * @return the length of each instruction including its opcode, <code>0</code> for instructions with a variable
+   *         length
+   */
+  private static int[] buildInstructionLengths() {
+    int[] lengths = new int[256];
+    Arrays.fill(lengths, 1);
+    Arrays.fill(lengths, 0x15, 0x1a, 2);
+    Arrays.fill(lengths, 0x36, 0x3b, 2);
+    Arrays.fill(lengths, 0x99, 0xa9, 3);
+    Arrays.fill(lengths, 0xb2, 0xb9, 3);
+    lengths[0x10] = 2;
+    lengths[0x11] = 3;
+    lengths[LDC] = 2;
+    lengths[LDC_W] = 3;
+    lengths[0x14] = 3;
+    lengths[IINC] = 3;
+    lengths[0xa9] = 2;
+    lengths[TABLESWITCH] = 0;
+    lengths[LOOKUPSWITCH] = 0;
+    lengths[0xb9] = 5;
+    lengths[0xba] = 5;
+    lengths[0xbb] = 3;
+    lengths[0xbc] = 2;
+    lengths[0xbd] = 3;
+    lengths[0xc0] = 3;
+    lengths[0xc1] = 3;
+    lengths[WIDE] = 0;
+    lengths[0xc5] = 4;
+    lengths[0xc6] = 3;
+    lengths[0xc7] = 3;
+    lengths[0xc8] = 5;
+    lengths[0xc9] = 5;
+    return lengths;
+  }
+
+  /**
+   * Marks a constant of an enum type as referenced.
+   * 
+   * @param enumTypeName
+   *          the internal name of the enum type
+   * @param constant
+   *          the name of the constant
+   */
+  private void addReferencedConstant(final String enumTypeName, final String constant) {
+    Set<String> constants = referencedConstants.get(enumTypeName);
+    if (constants == null) {
+      Set<String> newConstants = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+      constants = referencedConstants.putIfAbsent(enumTypeName, newConstants);
+      if (constants == null) {
+        constants = newConstants;
+      }
+    }
+    constants.add(constant);
+  }
+
+  /**
+   * Skips the fields of a class file.
+   * 
+   * @param in
+   *          the class file, positioned at the field count
+   * @throws IOException
+   *           if the class file is truncated
+   */
+  private static void skipMembers(final DataInputStream in) throws IOException {
+    int memberCount = in.readUnsignedShort();
+    for (int i = 0; i < memberCount; i++) {
+      skip(in, 6);
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        skip(in, 2);
+        skip(in, in.readInt());
+      }
+    }
+  }
+
+  /**
+   * Skips bytes of a class file.
+   * 
+   * @param in
+   *          the class file
+   * @param length
+   *          the number of bytes to skip
+   * @throws IOException
+   *           if the class file is truncated
+   */
+  private static void skip(final DataInputStream in, final int length) throws IOException {
+    if (in.skipBytes(length) != length) {
+      throw new IOException("Truncated class file");
+    }
+  }
+
+  /**
+   * @param bytes
+   *          a byte array
+   * @param offset
+   *          the offset of a big endian integer
+   * @return the integer
+   */
+  private static int readInt(final byte[] bytes, final int offset) {
+    return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8
+        | bytes[offset + 3] & 0xff;
+  }
+
+  /**
+   * @param bytes
+   *          a byte array
+   * @param offset
+   *          the offset of a big endian unsigned short
+   * @return the unsigned short
+   */
+  private static int readUnsignedShort(final byte[] bytes, final int offset) {
+    return (bytes[offset] & 0xff) << 8 | bytes[offset + 1] & 0xff;
+  }
+}
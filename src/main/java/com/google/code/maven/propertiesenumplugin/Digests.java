@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Helper methods to read files and to compute content digests, which are used to find out whether a file has changed.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class Digests {
+
+  /**
+   * Hexadecimal digits.
+   */
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private Digests() {
+  }
+
+  /**
+   * Computes the SHA-1 digest of the given strings and byte arrays. Strings are encoded using UTF-8 and terminated by a
+   * zero byte, so that <code>"ab", "c"</code> and <code>"a", "bc"</code> differ.
+   * 
+   * @param parts
+   *          the strings and byte arrays to digest, in order
+   * @return the digest as hexadecimal string
+   */
+  public static String digest(final Object... parts) {
+    MessageDigest messageDigest = newMessageDigest();
+    for (Object part : parts) {
+      if (part instanceof byte[]) {
+        messageDigest.update((byte[]) part);
+      } else {
+        try {
+          messageDigest.update(String.valueOf(part).getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+          throw new IllegalStateException(e);
+        }
+        messageDigest.update((byte) 0);
+      }
+    }
+    return toHex(messageDigest.digest());
+  }
+
+  /**
+   * Reads a file completely.
+   * 
+   * @param file
+   *          the file to read
+   * @return the file's content
+   * @throws IOException
+   *           if the file could not be read
+   */
+  public static byte[] readFile(final File file) throws IOException {
+    InputStream in = new FileInputStream(file);
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.length());
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * @param bytes
+   *          the bytes to convert
+   * @return the bytes as lower case hexadecimal string
+   */
+  static String toHex(final byte[] bytes) {
+    char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+      chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
+    }
+    return new String(chars);
+  }
+
+  /**
+   * @return a new SHA-1 message digest
+   */
+  static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-1
+      throw new IllegalStateException(e);
+    }
+  }
+}
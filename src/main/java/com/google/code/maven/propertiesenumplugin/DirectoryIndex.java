@@ -0,0 +1,371 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Finds files matching include and exclude patterns below a base directory. The content of each visited directory is
+ * remembered together with the directory's modification time, which changes whenever an entry is added, removed or
+ * renamed. As long as it does not change, the cached content is used instead of listing the directory again, so that a
+ * scan costs one <code>stat</code> per directory instead of one per file. The index can be stored in a file to keep it
+ * between builds.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class DirectoryIndex {
+
+  /**
+   * Version of the index file format. Index files of another version are ignored.
+   */
+  private static final int FORMAT_VERSION = 1;
+
+  /**
+   * The cached directory contents, by absolute directory path.
+   */
+  private final Map<String, DirectoryContent> directories;
+
+  /**
+   * The file to store the index in, or <code>null</code> if it is kept in memory only.
+   */
+  private final File indexFile;
+
+  /**
+   * Absolute paths of all directories visited since the index was loaded or saved.
+   */
+  private final Set<String> visitedDirectories;
+
+  /**
+   * <code>true</code> if the index has been modified since it was loaded or saved.
+   */
+  private boolean modified;
+
+  /**
+   * Constructs a new {@link DirectoryIndex} and loads the given index file, if it exists.
+   * 
+   * @param indexFile
+   *          the file to store the index in, or <code>null</code> to keep it in memory only
+   */
+  public DirectoryIndex(final File indexFile) {
+    this.indexFile = indexFile;
+    directories = new HashMap<String, DirectoryContent>();
+    visitedDirectories = new HashSet<String>();
+    load();
+  }
+
+  /**
+   * Scans the given base directory or archive for files that match at least one of the include patterns and none of the
+   * exclude patterns. Patterns use the usual Ant syntax, e.g. <code>**&#47;*.properties</code>. The entries of an
+   * archive are listed from its central directory each time, without being indexed.
+   * 
+   * @param baseDir
+   *          the directory to scan
+   * @param includes
+   *          the include patterns, relative to <code>baseDir</code>
+   * @param excludes
+   *          the exclude patterns, relative to <code>baseDir</code>; may be <code>null</code>
+   * @return the paths of all matching files relative to <code>baseDir</code>, sorted alphabetically
+   * @throws IOException
+   *           if <code>baseDir</code> is an archive that could not be read
+   */
+  public List<String> scan(final File baseDir, final List<String> includes, final List<String> excludes)
+      throws IOException {
+    List<String> includePatterns = normalizePatterns(includes);
+    List<String> excludePatterns = normalizePatterns(excludes);
+
+    List<String> result = new ArrayList<String>();
+    if (baseDir.isDirectory()) {
+      scan(baseDir, "", includePatterns, excludePatterns, result);
+    } else if (ArchiveEntries.isArchive(baseDir)) {
+      for (String entryName : ArchiveEntries.list(baseDir)) {
+        String path = entryName.replace('/', File.separatorChar);
+        if (matchesAny(includePatterns, path) && !matchesAny(excludePatterns, path)) {
+          result.add(path);
+        }
+      }
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * Recursively scans a directory.
+   * 
+   * @param directory
+   *          the directory to scan
+   * @param relativePath
+   *          the directory's path relative to the base directory, empty or ending with a file separator
+   * @param includes
+   *          the normalized include patterns
+   * @param excludes
+   *          the normalized exclude patterns
+   * @param result
+   *          the list to add the relative paths of matching files to
+   */
+  private void scan(final File directory, final String relativePath, final List<String> includes,
+      final List<String> excludes, final List<String> result) {
+    DirectoryContent content = getContent(directory);
+    for (String fileName : content.files) {
+      String path = relativePath + fileName;
+      if (matchesAny(includes, path) && !matchesAny(excludes, path)) {
+        result.add(path);
+      }
+    }
+    for (String directoryName : content.directories) {
+      String path = relativePath + directoryName;
+      if (couldMatchAny(includes, path) && !matchesAny(excludes, path)) {
+        scan(new File(directory, directoryName), path + File.separator, includes, excludes, result);
+      }
+    }
+  }
+
+  /**
+   * Returns the content of the given directory, listing it only if it has been modified since it was last indexed.
+   * 
+   * @param directory
+   *          the directory
+   * @return the directory's content
+   */
+  private DirectoryContent getContent(final File directory) {
+    String path = directory.getAbsolutePath();
+    visitedDirectories.add(path);
+
+    long lastModified = directory.lastModified();
+    DirectoryContent content = directories.get(path);
+    if (content != null && content.lastModified == lastModified) {
+      return content;
+    }
+
+    List<String> files = new ArrayList<String>();
+    List<String> subDirectories = new ArrayList<String>();
+    File[] children = directory.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        if (child.isDirectory()) {
+          subDirectories.add(child.getName());
+        } else {
+          files.add(child.getName());
+        }
+      }
+    }
+    content = new DirectoryContent(lastModified, files.toArray(new String[files.size()]),
+        subDirectories.toArray(new String[subDirectories.size()]));
+    directories.put(path, content);
+    modified = true;
+    return content;
+  }
+
+  /**
+   * Loads the index file. A missing, unreadable or outdated file results in an empty index.
+   */
+  private void load() {
+    if (indexFile == null || !indexFile.isFile()) {
+      return;
+    }
+    try {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+      try {
+        if (in.readInt() != FORMAT_VERSION) {
+          return;
+        }
+        int directoryCount = in.readInt();
+        for (int i = 0; i < directoryCount; i++) {
+          String path = in.readUTF();
+          long lastModified = in.readLong();
+          String[] files = readNames(in);
+          String[] subDirectories = readNames(in);
+          directories.put(path, new DirectoryContent(lastModified, files, subDirectories));
+        }
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      // A broken index is no problem, the directories will be listed again
+      directories.clear();
+    }
+  }
+
+  /**
+   * Saves the index file, if the index has been modified. Directories that have not been visited since the index was
+   * loaded are dropped.
+   * 
+   * @throws IOException
+   *           if the index file could not be written
+   */
+  public void save() throws IOException {
+    if (directories.keySet().retainAll(visitedDirectories)) {
+      modified = true;
+    }
+    visitedDirectories.clear();
+    if (indexFile == null || !modified) {
+      return;
+    }
+
+    File parentDirectory = indexFile.getParentFile();
+    if (parentDirectory != null && !parentDirectory.exists() && !parentDirectory.mkdirs()) {
+      throw new IOException("Could not create directory: " + parentDirectory.getAbsolutePath());
+    }
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+    try {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(directories.size());
+      for (Map.Entry<String, DirectoryContent> entry : directories.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue().lastModified);
+        writeNames(out, entry.getValue().files);
+        writeNames(out, entry.getValue().directories);
+      }
+    } finally {
+      out.close();
+    }
+    modified = false;
+  }
+
+  /**
+   * @param in
+   *          the stream to read from
+   * @return the names read
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private static String[] readNames(final DataInputStream in) throws IOException {
+    String[] names = new String[in.readInt()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = in.readUTF();
+    }
+    return names;
+  }
+
+  /**
+   * @param out
+   *          the stream to write to
+   * @param names
+   *          the names to write
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private static void writeNames(final DataOutputStream out, final String[] names) throws IOException {
+    out.writeInt(names.length);
+    for (String name : names) {
+      out.writeUTF(name);
+    }
+  }
+
+  /**
+   * Converts the patterns to use the platform's file separator. A pattern ending with a separator matches everything
+   * below it, like in Ant.
+   * 
+   * @param patterns
+   *          the patterns to normalize, may be <code>null</code>
+   * @return the normalized patterns
+   */
+  private static List<String> normalizePatterns(final List<String> patterns) {
+    if (patterns == null) {
+      return Collections.emptyList();
+    }
+    List<String> normalizedPatterns = new ArrayList<String>(patterns.size());
+    for (String pattern : patterns) {
+      String normalizedPattern = pattern.trim().replace('/', File.separatorChar).replace('\\', File.separatorChar);
+      if (normalizedPattern.endsWith(File.separator)) {
+        normalizedPattern += "**";
+      }
+      normalizedPatterns.add(normalizedPattern);
+    }
+    return normalizedPatterns;
+  }
+
+  /**
+   * @param patterns
+   *          the patterns
+   * @param path
+   *          the relative path
+   * @return <code>true</code> if the path matches at least one pattern
+   */
+  private static boolean matchesAny(final List<String> patterns, final String path) {
+    for (String pattern : patterns) {
+      if (SelectorUtils.matchPath(pattern, path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param patterns
+   *          the patterns
+   * @param directoryPath
+   *          the relative path of a directory
+   * @return <code>true</code> if a file below the directory could match at least one pattern
+   */
+  private static boolean couldMatchAny(final List<String> patterns, final String directoryPath) {
+    for (String pattern : patterns) {
+      if (SelectorUtils.matchPatternStart(pattern, directoryPath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The names of the files and sub directories of a directory at a given modification time.
+   */
+  private static final class DirectoryContent {
+
+    /**
+     * The directory's modification time when it was listed.
+     */
+    private final long lastModified;
+
+    /**
+     * Names of the files in the directory.
+     */
+    private final String[] files;
+
+    /**
+     * Names of the sub directories.
+     */
+    private final String[] directories;
+
+    /**
+     * Constructs a new {@link DirectoryContent}.
+     * 
+     * @param lastModified
+     *          the directory's modification time when it was listed
+     * @param files
+     *          names of the files in the directory
+     * @param directories
+     *          names of the sub directories
+     */
+    private DirectoryContent(final long lastModified, final String[] files, final String[] directories) {
+      this.lastModified = lastModified;
+      this.files = files;
+      this.directories = directories;
+    }
+  }
+}
@@ -12,32 +12,57 @@
  */
 package com.google.code.maven.propertiesenumplugin;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
+import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 
+import com.google.code.maven.propertiesenumplugin.GenerationReport.FileReport;
+
 /**
  * FIXME javadoc
  * 
@@ -55,26 +80,514 @@ public class EnumGenerator {
    * Code for the toString() method.
    */
   private static final String TO_STRING_METHOD = "  @Override\n  public final String toString() {\n"
-      + "    return originalKey;\n  }\n";
+      + "%s    return originalKey;\n  }\n";
 
   /**
    * Code for the key() method.
    */
   private static final String KEY_METHOD = "  %s\n  public final String key() {\n"
-      + "    return originalKey;\n  }\n";
+      + "%s    return originalKey;\n  }\n";
 
   private static final String AT_OVERRIDE = "@Override";
 
+  /**
+   * Code for the prefix queries, see {@link #prefixQueries}. The first argument is the enum type's name, the second
+   * the prefixes and the third their ordinal ranges.
+   */
+  private static final String PREFIX_QUERIES = "\n  /**\n"
+      + "   * All key prefixes, e.g. \"com\" and \"com.example\" of the key \"com.example.key\".\n   */\n"
+      + "  private static final String[] PREFIXES = {%2$s};\n\n"
+      + "  /**\n"
+      + "   * The ordinal of the first and the ordinal after the last constant below each of {@link #PREFIXES}.\n"
+      + "   */\n"
+      + "  private static final int[] PREFIX_RANGES = {%3$s};\n\n"
+      + "  /**\n   * The constants below each prefix.\n   */\n"
+      + "  private static final java.util.Map<String, java.util.Set<%1$s>> BY_PREFIX = buildPrefixIndex();\n\n"
+      + "  /**\n   * @return the constants below each prefix, by prefix\n   */\n"
+      + "  private static java.util.Map<String, java.util.Set<%1$s>> buildPrefixIndex() {\n"
+      + "    %1$s[] values = values();\n"
+      + "    java.util.Map<String, java.util.Set<%1$s>> index =\n"
+      + "        new java.util.HashMap<String, java.util.Set<%1$s>>(PREFIXES.length * 4 / 3 + 2);\n"
+      + "    index.put(\"\", java.util.Collections.unmodifiableSet(java.util.EnumSet.allOf(%1$s.class)));\n"
+      + "    for (int i = 0; i < PREFIXES.length; i++) {\n"
+      + "      index.put(PREFIXES[i], java.util.Collections.unmodifiableSet(\n"
+      + "          java.util.EnumSet.range(values[PREFIX_RANGES[2 * i]], values[PREFIX_RANGES[2 * i + 1] - 1])));\n"
+      + "    }\n"
+      + "    return index;\n"
+      + "  }\n\n"
+      + "  /**\n"
+      + "   * Returns all constants whose key equals the given prefix or continues it with a dot, e.g.\n"
+      + "   * \"com.example\" matches \"com.example.key\", but not \"com.examples.key\". A trailing dot is ignored\n"
+      + "   * and the empty prefix matches all constants. Takes time proportional to the prefix's length.\n"
+      + "   * @param prefix\n   *          the key prefix\n"
+      + "   * @return the unmodifiable set of matching constants, which are declared one after another\n"
+      + "   */\n"
+      + "  public static java.util.Set<%1$s> withPrefix(final String prefix) {\n"
+      + "    String normalizedPrefix = prefix.endsWith(\".\") ? prefix.substring(0, prefix.length() - 1) : prefix;\n"
+      + "    java.util.Set<%1$s> constants = BY_PREFIX.get(normalizedPrefix);\n"
+      + "    return constants != null ? constants : java.util.Collections.<%1$s> emptySet();\n"
+      + "  }\n";
+
+  /**
+   * Code of a {@link #compiledBundles} class following its <code>KEYS</code> and <code>VALUES</code>. The argument is
+   * the class's name.
+   */
+  private static final String COMPILED_BUNDLE_METHODS = "  /**\n   * The index of each key in {@link #KEYS}.\n   */\n"
+      + "  private static final java.util.Map<String, Integer> INDEX =\n"
+      + "      new java.util.HashMap<String, Integer>(KEYS.length * 4 / 3 + 1);\n\n"
+      + "  static {\n"
+      + "    for (int i = 0; i < KEYS.length; i++) {\n"
+      + "      INDEX.put(KEYS[i], i);\n"
+      + "    }\n"
+      + "  }\n\n"
+      + "  /**\n"
+      + "   * The values by index in {@link #KEYS}, <code>null</code> for keys this bundle doesn't define.\n"
+      + "   */\n"
+      + "  private final String[] values;\n\n"
+      + "  /**\n   * Constructs a new {@link %1$s}, called by java.util.ResourceBundle.getBundle().\n   */\n"
+      + "  public %1$s() {\n"
+      + "    this(VALUES);\n"
+      + "  }\n\n"
+      + "  /**\n   * Constructs a new {@link %1$s} of a localized variant.\n"
+      + "   * @param values\n   *          the values by index in {@link #KEYS}\n   */\n"
+      + "  protected %1$s(final String[] values) {\n"
+      + "    this.values = values;\n"
+      + "  }\n\n"
+      + "  @Override\n"
+      + "  protected final Object handleGetObject(final String key) {\n"
+      + "    Integer index = INDEX.get(key);\n"
+      + "    return index != null ? values[index] : null;\n"
+      + "  }\n\n"
+      + "  @Override\n"
+      + "  protected final java.util.Set<String> handleKeySet() {\n"
+      + "    java.util.Set<String> keys = new java.util.LinkedHashSet<String>();\n"
+      + "    for (int i = 0; i < KEYS.length; i++) {\n"
+      + "      if (values[i] != null) {\n"
+      + "        keys.add(KEYS[i]);\n"
+      + "      }\n"
+      + "    }\n"
+      + "    return keys;\n"
+      + "  }\n\n"
+      + "  @Override\n"
+      + "  public final java.util.Enumeration<String> getKeys() {\n"
+      + "    java.util.Set<String> keys = handleKeySet();\n"
+      + "    if (parent != null) {\n"
+      + "      keys.addAll(parent.keySet());\n"
+      + "    }\n"
+      + "    return java.util.Collections.enumeration(keys);\n"
+      + "  }\n";
+
+  /**
+   * Offset basis of the 32-bit FNV-1a hash of {@link #ENCODED_KEYS}.
+   */
+  private static final int FNV_OFFSET_BASIS = 0x811c9dc5;
+
+  /**
+   * Prime of the 32-bit FNV-1a hash of {@link #ENCODED_KEYS}.
+   */
+  private static final int FNV_PRIME = 0x01000193;
+
+  /**
+   * Code for the UTF-8 encoded keys, see {@link #encodedKeys}. All keys are encoded once when the enum is loaded and
+   * stored one after another in a single array, so copying a key is a single <code>System.arraycopy</code> without any
+   * allocation. The hashes are computed at generation time. The first argument is the enum type's name, the second the
+   * expression of a constant's key, the third the hashes and the fourth the code to count the usage.
+   */
+  private static final String ENCODED_KEYS = "\n  /**\n"
+      + "   * The UTF-8 encoded keys of all constants, one after another.\n   */\n"
+      + "  private static final byte[] KEY_BYTES;\n\n"
+      + "  /**\n"
+      + "   * The offset of each constant's encoded key in {@link #KEY_BYTES} by ordinal, followed by the total\n"
+      + "   * length.\n"
+      + "   */\n"
+      + "  private static final int[] KEY_OFFSETS;\n\n"
+      + "  /**\n   * A read-only buffer of each constant's encoded key, by ordinal.\n   */\n"
+      + "  private static final java.nio.ByteBuffer[] KEY_BUFFERS;\n\n"
+      + "  /**\n   * The 32-bit FNV-1a hash of each constant's encoded key, by ordinal.\n   */\n"
+      + "  private static final int[] KEY_HASHES = {%3$s};\n\n"
+      + "  static {\n"
+      + "    %1$s[] constants = values();\n"
+      + "    byte[][] encodedKeys = new byte[constants.length][];\n"
+      + "    int length = 0;\n"
+      + "    for (int i = 0; i < constants.length; i++) {\n"
+      + "      encodedKeys[i] = %2$s.getBytes(java.nio.charset.Charset.forName(\"UTF-8\"));\n"
+      + "      length += encodedKeys[i].length;\n"
+      + "    }\n"
+      + "    KEY_BYTES = new byte[length];\n"
+      + "    KEY_OFFSETS = new int[constants.length + 1];\n"
+      + "    KEY_BUFFERS = new java.nio.ByteBuffer[constants.length];\n"
+      + "    for (int i = 0; i < constants.length; i++) {\n"
+      + "      System.arraycopy(encodedKeys[i], 0, KEY_BYTES, KEY_OFFSETS[i], encodedKeys[i].length);\n"
+      + "      KEY_OFFSETS[i + 1] = KEY_OFFSETS[i] + encodedKeys[i].length;\n"
+      + "      KEY_BUFFERS[i] = java.nio.ByteBuffer.wrap(KEY_BYTES, KEY_OFFSETS[i], encodedKeys[i].length).slice()\n"
+      + "          .asReadOnlyBuffer();\n"
+      + "    }\n"
+      + "  }\n\n"
+      + "  /**\n   * @return the length of the UTF-8 encoded key in bytes\n   */\n"
+      + "  public final int keyLength() {\n"
+      + "    return KEY_OFFSETS[ordinal() + 1] - KEY_OFFSETS[ordinal()];\n"
+      + "  }\n\n"
+      + "  /**\n   * @return the 32-bit FNV-1a hash of the UTF-8 encoded key\n   */\n"
+      + "  public final int keyHash() {\n"
+      + "    return KEY_HASHES[ordinal()];\n"
+      + "  }\n\n"
+      + "  /**\n   * Copies the UTF-8 encoded key into an array.\n"
+      + "   * @param target\n   *          the array to copy the key into\n"
+      + "   * @param offset\n   *          the index in the array to copy the key to\n"
+      + "   * @return the number of bytes copied, see {@link #keyLength()}\n   */\n"
+      + "  public final int writeKey(final byte[] target, final int offset) {\n"
+      + "%4$s"
+      + "    int length = keyLength();\n"
+      + "    System.arraycopy(KEY_BYTES, KEY_OFFSETS[ordinal()], target, offset, length);\n"
+      + "    return length;\n"
+      + "  }\n\n"
+      + "  /**\n   * Puts the UTF-8 encoded key into a buffer at its current position.\n"
+      + "   * @param target\n   *          the buffer to put the key into\n   */\n"
+      + "  public final void writeKey(final java.nio.ByteBuffer target) {\n"
+      + "%4$s"
+      + "    target.put(KEY_BYTES, KEY_OFFSETS[ordinal()], keyLength());\n"
+      + "  }\n\n"
+      + "  /**\n   * @return a new read-only view of the UTF-8 encoded key, from its first to its last byte\n   */\n"
+      + "  public final java.nio.ByteBuffer keyBytes() {\n"
+      + "%4$s"
+      + "    return KEY_BUFFERS[ordinal()].duplicate();\n"
+      + "  }\n";
+
+  /**
+   * Code for the permanent IDs of the keys, see {@link #keyIds}. The constants are looked up by ID in an array indexed
+   * by ID, which also has slots for the IDs of removed keys. The first argument is the enum type's name, the second the
+   * IDs by ordinal and the third the length of the array.
+   */
+  private static final String KEY_IDS = "\n  /**\n"
+      + "   * The permanent ID of each constant's key, by ordinal.\n   */\n"
+      + "  private static final int[] IDS = {%2$s};\n\n"
+      + "  /**\n   * The constants by ID, <code>null</code> for the IDs of removed keys.\n   */\n"
+      + "  private static final %1$s[] BY_ID = new %1$s[%3$d];\n\n"
+      + "  static {\n"
+      + "    for (%1$s constant : values()) {\n"
+      + "      BY_ID[IDS[constant.ordinal()]] = constant;\n"
+      + "    }\n"
+      + "  }\n\n"
+      + "  /**\n"
+      + "   * @return the permanent ID of the key, which never changes and is never given to another key\n   */\n"
+      + "  public final int id() {\n"
+      + "    return IDS[ordinal()];\n"
+      + "  }\n\n"
+      + "  /**\n   * @param id\n"
+      + "   *          an ID returned by {@link #id()}, possibly by another version of this enum\n"
+      + "   * @return the constant with the given ID, or <code>null</code> if this version has none\n   */\n"
+      + "  public static %1$s fromId(final int id) {\n"
+      + "    return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;\n"
+      + "  }\n";
+
+  /**
+   * Code to parse a duration, see {@link ValueType#DURATION}.
+   */
+  private static final String PARSE_MILLIS_METHOD = "\n  /**\n"
+      + "   * @param value\n   *          a number of milliseconds, optionally followed by ms, s, m, h or d\n"
+      + "   * @return the number of milliseconds\n   */\n"
+      + "  private static long parseMillis(final String value) {\n"
+      + "    int end = value.length();\n"
+      + "    while (end > 0 && !Character.isDigit(value.charAt(end - 1))) {\n"
+      + "      end--;\n"
+      + "    }\n"
+      + "    long amount = Long.parseLong(value.substring(0, end));\n"
+      + "    String unit = value.substring(end).trim();\n"
+      + "    if (unit.length() == 0 || unit.equals(\"ms\")) {\n      return amount;\n"
+      + "    } else if (unit.equals(\"s\")) {\n      return amount * 1000L;\n"
+      + "    } else if (unit.equals(\"m\")) {\n      return amount * 60000L;\n"
+      + "    } else if (unit.equals(\"h\")) {\n      return amount * 3600000L;\n"
+      + "    } else if (unit.equals(\"d\")) {\n      return amount * 86400000L;\n"
+      + "    }\n"
+      + "    throw new IllegalArgumentException(\"Unknown unit: \" + unit);\n"
+      + "  }\n";
+
+  /**
+   * Code to verify that a typed accessor is called on a constant of its type.
+   */
+  private static final String CHECK_VALUE_TYPE_METHOD = "\n  /**\n"
+      + "   * @param type\n   *          the expected value type, see {@link #VALUE_TYPES}\n"
+      + "   * @param typeName\n   *          the expected value type's name\n"
+      + "   * @throws IllegalStateException\n   *           if this constant's value is of another type\n   */\n"
+      + "  private void checkValueType(final char type, final String typeName) {\n"
+      + "    if (VALUE_TYPES.charAt(ordinal()) != type) {\n"
+      + "      throw new IllegalStateException(name() + \" has no \" + typeName + \" value\");\n"
+      + "    }\n"
+      + "  }\n";
+
+  /**
+   * Code of a typed accessor. The arguments are the return type, the accessor's name without "get", the value type's
+   * code, the expression reading the value, a description of the value and the value type's name.
+   */
+  private static final String TYPED_ACCESSOR = "\n  /**\n"
+      + "   * @return the %5$s, parsed when the enum was loaded\n"
+      + "   * @throws IllegalStateException\n   *           if the value is not of this type\n   */\n"
+      + "  public final %1$s get%2$s() {\n"
+      + "    checkValueType('%3$s', \"%6$s\");\n"
+      + "    return %4$s;\n"
+      + "  }\n";
+
+  /**
+   * Package of the runtime artifact, see {@link #runtime}.
+   */
+  private static final String RUNTIME_PACKAGE = "com.google.code.maven.propertiesenumplugin.runtime";
+
+  /**
+   * Code for the descriptor() method of an enum type that uses the runtime artifact.
+   */
+  private static final String DESCRIPTOR_METHOD = "  @Override\n  public " + RUNTIME_PACKAGE
+      + ".EnumDescriptor descriptor() {\n    return DESCRIPTOR;\n  }\n\n";
+
+  /**
+   * Code for the toString() method of an enum type that uses the runtime artifact. Enums can't inherit toString() from
+   * an interface.
+   */
+  private static final String RUNTIME_TO_STRING_METHOD = "  @Override\n  public final String toString() {\n"
+      + "    return key();\n  }\n";
+
+  /**
+   * Code for the key() method of an enum type that uses the runtime artifact and implements {@link #implement}, which
+   * declares key() as well.
+   */
+  private static final String RUNTIME_KEY_METHOD = "  @Override\n  public final String key() {\n"
+      + "    return " + RUNTIME_PACKAGE + ".PropertyKey.super.key();\n  }\n";
+
+  /**
+   * Code for the resource bundle lookup instrumented with JDK Flight Recorder events, see
+   * {@link #flightRecorderEvents}. A disabled event's begin(), end() and shouldCommit() are intrinsified by the JIT, so
+   * the event fields are only computed when an event is actually recorded.
+   */
+  private static final String FLIGHT_RECORDER_SUPPORT = "\n  /**\n"
+      + "   * The resource bundles loaded by {@link #getString(java.util.Locale)}, by locale.\n   */\n"
+      + "  private static final java.util.concurrent.ConcurrentMap<java.util.Locale, java.util.ResourceBundle> "
+      + "BUNDLES =\n      new java.util.concurrent.ConcurrentHashMap<java.util.Locale, java.util.ResourceBundle>();\n\n"
+      + "  /**\n   * Looks up the property's value for the given locale. Returns the property key if it is missing.\n"
+      + "   * @param locale\n   *          the locale\n   * @return the property's value\n   */\n"
+      + "  public final String getString(final java.util.Locale locale) {\n"
+      + "%2$s"
+      + "    LookupEvent event = new LookupEvent();\n"
+      + "    event.begin();\n"
+      + "    String value;\n"
+      + "    try {\n"
+      + "      value = getBundle(locale).getString(originalKey);\n"
+      + "    } catch (java.util.MissingResourceException e) {\n"
+      + "      MissingKeyEvent missingKeyEvent = new MissingKeyEvent();\n"
+      + "      if (missingKeyEvent.isEnabled()) {\n"
+      + "        missingKeyEvent.baseName = getResourceBaseName();\n"
+      + "        missingKeyEvent.locale = locale.toString();\n"
+      + "        missingKeyEvent.key = originalKey;\n"
+      + "        missingKeyEvent.commit();\n"
+      + "      }\n"
+      + "      value = originalKey;\n"
+      + "    }\n"
+      + "    event.end();\n"
+      + "    if (event.shouldCommit()) {\n"
+      + "      event.baseName = getResourceBaseName();\n"
+      + "      event.locale = locale.toString();\n"
+      + "      event.key = originalKey;\n"
+      + "      event.commit();\n"
+      + "    }\n"
+      + "    return value;\n"
+      + "  }\n\n"
+      + "  /**\n   * @param locale\n   *          the locale\n"
+      + "   * @return the resource bundle for the given locale, loaded on first use\n   */\n"
+      + "  private static java.util.ResourceBundle getBundle(final java.util.Locale locale) {\n"
+      + "    java.util.ResourceBundle bundle = BUNDLES.get(locale);\n"
+      + "    if (bundle == null) {\n"
+      + "      BundleLoadEvent event = new BundleLoadEvent();\n"
+      + "      event.begin();\n"
+      + "      bundle = java.util.ResourceBundle.getBundle(getResourceBaseName(), locale);\n"
+      + "      event.end();\n"
+      + "      if (event.shouldCommit()) {\n"
+      + "        event.baseName = getResourceBaseName();\n"
+      + "        event.locale = locale.toString();\n"
+      + "        event.size = bundle.keySet().size();\n"
+      + "        event.commit();\n"
+      + "      }\n"
+      + "      java.util.ResourceBundle loadedBundle = BUNDLES.putIfAbsent(locale, bundle);\n"
+      + "      if (loadedBundle != null) {\n"
+      + "        bundle = loadedBundle;\n"
+      + "      }\n"
+      + "    }\n"
+      + "    return bundle;\n"
+      + "  }\n\n"
+      + "  /**\n   * Recorded when a resource bundle is loaded.\n   */\n"
+      + "  @jdk.jfr.Label(\"Resource Bundle Load\")\n"
+      + "  @jdk.jfr.Category(\"Properties Enum\")\n"
+      + "  static final class BundleLoadEvent extends jdk.jfr.Event {\n"
+      + "    @jdk.jfr.Label(\"Base Name\")\n    String baseName;\n"
+      + "    @jdk.jfr.Label(\"Locale\")\n    String locale;\n"
+      + "    @jdk.jfr.Label(\"Size\")\n    int size;\n"
+      + "  }\n\n"
+      + "  /**\n   * Recorded when a lookup takes longer than the threshold.\n   */\n"
+      + "  @jdk.jfr.Label(\"Slow Property Lookup\")\n"
+      + "  @jdk.jfr.Category(\"Properties Enum\")\n"
+      + "  @jdk.jfr.Threshold(\"%1$s\")\n"
+      + "  static final class LookupEvent extends jdk.jfr.Event {\n"
+      + "    @jdk.jfr.Label(\"Base Name\")\n    String baseName;\n"
+      + "    @jdk.jfr.Label(\"Locale\")\n    String locale;\n"
+      + "    @jdk.jfr.Label(\"Key\")\n    String key;\n"
+      + "  }\n\n"
+      + "  /**\n   * Recorded when a property is missing and its key is returned instead.\n   */\n"
+      + "  @jdk.jfr.Label(\"Missing Property\")\n"
+      + "  @jdk.jfr.Category(\"Properties Enum\")\n"
+      + "  static final class MissingKeyEvent extends jdk.jfr.Event {\n"
+      + "    @jdk.jfr.Label(\"Base Name\")\n    String baseName;\n"
+      + "    @jdk.jfr.Label(\"Locale\")\n    String locale;\n"
+      + "    @jdk.jfr.Label(\"Key\")\n    String key;\n"
+      + "  }\n";
+
+  /**
+   * Version of this plugin, part of every cache key as the generated code may differ between versions.
+   */
+  private static final String PLUGIN_VERSION = readPluginVersion();
+
+  /**
+   * Code to count the usage of an enum constant, see {@link #usageCounters}.
+   */
+  private static final String COUNT_USAGE = "    countUsage();\n";
+
+  /**
+   * Code for the striped usage counters, see {@link #usageCounters}. Each thread increments the counters of one stripe,
+   * chosen by its ID. A stripe holds one counter per enum constant and is padded to a multiple of 64 bytes, followed by
+   * another 64 bytes, so that threads counting in different stripes never write to the same cache line.
+   */
+  private static final String USAGE_COUNTERS = "\n  /**\n"
+      + "   * Number of usage counter stripes, the next power of two of the number of processors (at most 32).\n"
+      + "   */\n"
+      + "  private static final int USAGE_STRIPES =\n"
+      + "      Integer.highestOneBit(Math.min(Runtime.getRuntime().availableProcessors(), 32) * 2 - 1);\n\n"
+      + "  /**\n"
+      + "   * Distance between two stripes: the number of constants, rounded up to 8 longs plus 8 longs of padding.\n"
+      + "   */\n"
+      + "  private static final int USAGE_STRIDE = (values().length + 15) & ~7;\n\n"
+      + "  /**\n"
+      + "   * The usage counters, indexed by stripe * {@link #USAGE_STRIDE} + ordinal.\n"
+      + "   */\n"
+      + "  private static final java.util.concurrent.atomic.AtomicLongArray USAGE_COUNTS =\n"
+      + "      new java.util.concurrent.atomic.AtomicLongArray(USAGE_STRIPES * USAGE_STRIDE);\n\n"
+      + "  /**\n"
+      + "   * Increments the usage counter of this constant in the current thread's stripe.\n"
+      + "   */\n"
+      + "  private void countUsage() {\n"
+      + "    int stripe = (int) Thread.currentThread().getId() & (USAGE_STRIPES - 1);\n"
+      + "    USAGE_COUNTS.incrementAndGet(stripe * USAGE_STRIDE + ordinal());\n"
+      + "  }\n\n"
+      + "  /**\n"
+      + "   * @return how often each property key has been used since the enum was loaded, in declaration order\n"
+      + "   */\n"
+      + "  public static java.util.Map<String, Long> getUsageCounts() {\n"
+      + "    java.util.Map<String, Long> usageCounts = new java.util.LinkedHashMap<String, Long>();\n"
+      + "    for (%1$s constant : values()) {\n"
+      + "      long count = 0;\n"
+      + "      for (int stripe = 0; stripe < USAGE_STRIPES; stripe++) {\n"
+      + "        count += USAGE_COUNTS.get(stripe * USAGE_STRIDE + constant.ordinal());\n"
+      + "      }\n"
+      + "      usageCounts.put(constant.originalKey, count);\n"
+      + "    }\n"
+      + "    return usageCounts;\n"
+      + "  }\n";
+
+  /**
+   * Matches a lower case letter or digit followed by an upper case letter, used to convert camelCase to CAMEL_CASE.
+   */
+  private static final Pattern CAMEL_CASE_PATTERN = Pattern.compile("([a-z0-9])([A-Z])");
+
+  /**
+   * Matches dots, whitespaces and dashes between two words, used to convert them to underscores.
+   */
+  private static final Pattern WORD_SEPARATOR_PATTERN = Pattern.compile("([A-Z0-9])[\\.\\s-]([A-Z0-9])");
+
+  /**
+   * Prefix of a base directory that refers to the JAR of a dependency, followed by its group and artifact ID.
+   */
+  static final String DEPENDENCY_PREFIX = "dependency:";
+
+  /**
+   * Maximum number of properties files listed in the logged {@link GenerationReport}.
+   */
+  private static final int REPORT_ROWS = 10;
+
+  /**
+   * Appended to the enum type's name to build the name of its {@link #keyConstants} class.
+   */
+  static final String KEY_CONSTANTS_SUFFIX = "Keys";
+
   /**
    * Base directory for poperties files.
    */
   private String baseDir;
 
+  /**
+   * Additional base directories that are scanned using {@link #includes} and {@link #excludes}.
+   */
+  private List<String> baseDirs;
+
+  /**
+   * Directory to keep state between builds in, e.g. the {@link DirectoryIndex}. If <code>null</code>, no state is
+   * kept.
+   */
+  private String buildStateDirectory;
+
+  /**
+   * Manifest of the generated files, loaded on first use. Only used if {@link #buildStateDirectory} is set.
+   */
+  private BuildManifest buildManifest;
+
+  /**
+   * Directory of the {@link GenerationCache}. If <code>null</code>, no cache is used.
+   */
+  private String cacheDirectory;
+
+  /**
+   * Maximum size of the {@link GenerationCache} in bytes.
+   */
+  private long cacheMaxSize;
+
+  /**
+   * If <code>true</code>, a {@link java.util.ResourceBundle} subclass is generated for each properties file and each of
+   * its localized variants, named like the bundle, so that <code>ResourceBundle.getBundle</code> loads the values
+   * without parsing the properties files, see {@link #renderCompiledBundles}.
+   */
+  private boolean compiledBundles;
+
+  /**
+   * The generation cache, created on first use.
+   */
+  private GenerationCache generationCache;
+
+  /**
+   * Index of the scanned directories, created on first use.
+   */
+  private DirectoryIndex directoryIndex;
+
   /**
    * The pattern a generated enum field name must match to be valid.
    */
   private final String enumFieldPattern;
 
+  /**
+   * If <code>true</code>, each constant of the generated enums carries its key encoded as UTF-8, together with a hash
+   * of the encoded key, so that it can be copied into byte buffers without encoding, see {@link #ENCODED_KEYS}.
+   */
+  private boolean encodedKeys;
+
+  /**
+   * If <code>true</code>, the generated enums get a <code>getString(Locale)</code> method that emits JDK Flight
+   * Recorder events for bundle loads, slow lookups and missing properties. Requires Java 11 to compile the enums.
+   */
+  private boolean flightRecorderEvents;
+
+  /**
+   * Duration a lookup must exceed to be recorded as slow, in JFR's format (e.g. "1 ms").
+   */
+  private String flightRecorderThreshold = "1 ms";
+
+  /**
+   * {@link #enumFieldPattern}, compiled once so it can be reused for every key and every regeneration.
+   */
+  private final Pattern compiledEnumFieldPattern;
+
   /**
    * String format for enum field's javadoc. Two strings are given: the first one is the property key, the second one
    * the property value.
@@ -82,16 +595,28 @@ public class EnumGenerator {
   private final String enumJavadoc;
 
   /**
-   * List of files to process. Relative to <code>baseDir</code>. The path will be used as package name, if
-   * <code>packageName</code> is not set.
+   * Patterns of properties files to exclude from {@link #includes}.
    */
-  private final List<String> files;
+  private List<String> excludes;
+
+  /**
+   * If <code>true</code>, a final class with a <code>public static final String</code> constant for each key is
+   * generated next to each enum, named like the enum with {@link #KEY_CONSTANTS_SUFFIX} appended. As compile-time
+   * constants, the keys can be used in switch case labels and annotation values.
+   */
+  private boolean keyConstants;
+
+  /**
+   * If <code>true</code>, each key gets a permanent ID, which is stored in a {@link KeyIdRegistry} file next to the
+   * properties file, and the generated enums get the methods of {@link #KEY_IDS}.
+   */
+  private boolean keyIds;
 
   /**
-   * A map of enum field names that have already been declared. Key is the value the enum field name, value the property
-   * key.
+   * List of files to process. Relative to <code>baseDir</code>. The path will be used as package name, if
+   * <code>packageName</code> is not set.
    */
-  private final Map<String, String> generatedEnumFieldNames;
+  private final List<String> files;
 
   /**
    * The directory to create the files in.
@@ -104,16 +629,54 @@ public class EnumGenerator {
    */
   private final String implement;
 
+  /**
+   * Patterns of properties files to process, relative to {@link #baseDir} and each of {@link #baseDirs}. These files
+   * are processed in addition to {@link #files}.
+   */
+  private List<String> includes;
+
   /**
    * The maximum line length to use when creating the source file.
    */
   private final Integer lineLength;
 
+  /**
+   * Compiled word wrap patterns, by line length.
+   */
+  private final Map<Integer, Pattern> wordWrapPatterns;
+
   /**
    * Logger.
    */
   private final Log logger;
 
+  /**
+   * The directory to write the {@link NativeImageMetadata} of all generated classes to, usually the project's output
+   * directory, or <code>null</code> if none is written. The metadata is only written by {@link #generate()}, as it
+   * covers all properties files.
+   */
+  private String nativeImageDirectory;
+
+  /**
+   * If <code>true</code>, the {@link NativeImageMetadata} tells <code>native-image</code> to initialize the generated
+   * classes at build time.
+   */
+  private boolean initializeAtBuildTime;
+
+  /**
+   * The directory to write a JSON catalog of each properties file and each of its localized variants to, or
+   * <code>null</code> if no catalogs are written. Each catalog is a minified JSON object with the keys sorted, which
+   * contains the values a <code>ResourceBundle</code> of the variant's locale returns, i.e. including the ones
+   * inherited from its parents. Keys are filtered like for the enums, see {@link #filterProperties(Properties)}.
+   */
+  private String jsonCatalogDirectory;
+
+  /**
+   * If <code>true</code>, each {@link #jsonCatalogDirectory JSON catalog} is additionally written gzip compressed, with
+   * <code>.gz</code> appended to its name, so that it can be served with <code>Content-Encoding: gzip</code> as is.
+   */
+  private boolean gzipJsonCatalogs;
+
   /**
    * Name of the target package. If not given, the package name will be same as the property's path, relative to
    * <code>baseDir</code>.
@@ -131,16 +694,81 @@ public class EnumGenerator {
    */
   private final boolean prefixedOnly;
 
+  /**
+   * If <code>true</code>, the constants of the generated enums are ordered by their keys' hierarchy and the enums get a
+   * static <code>withPrefix(String)</code> method, see {@link #PREFIX_QUERIES}.
+   */
+  private boolean prefixQueries;
+
   /**
    * Character encoding of the generated java file.
    */
   private final String targetEncoding;
 
+  /**
+   * If <code>true</code>, the generated enums count how often each constant's key is used, see
+   * {@link #USAGE_COUNTERS}.
+   */
+  private boolean usageCounters;
+
   /**
    * Reference to the maven project.
    */
   private final MavenProject project;
 
+  /**
+   * If <code>true</code>, the generated enums implement the <code>PropertyKey</code> interface of the runtime artifact
+   * and only contain their constants and an <code>EnumDescriptor</code>, instead of their own copy of the key field,
+   * constructor and methods.
+   */
+  private boolean runtime;
+
+  /**
+   * If <code>true</code>, the generated enums get typed accessors like <code>getInt()</code>, which return the values
+   * parsed once when the enum is loaded. The type of each value is taken from {@link #valueTypes} or inferred from the
+   * value in the properties file.
+   */
+  private boolean typedAccessors;
+
+  /**
+   * The types of the values of {@link #typedAccessors}, by key, overriding the inferred types.
+   */
+  private SortedMap<String, ValueType> valueTypes = new TreeMap<String, ValueType>();
+
+  /**
+   * Fully qualified name of the index class listing all generated enums, or <code>null</code> if none is generated,
+   * see {@link #renderRegistryClass(List)}. Like the {@link NativeImageMetadata}, it is only written by
+   * {@link #generate()}.
+   */
+  private String registryClass;
+
+  /**
+   * The directory to write the <code>META-INF/services</code> entry of {@link #registryClass} to.
+   */
+  private String registryDirectory;
+
+  /**
+   * The groups of properties files to merge, each into one properties file below {@link #mergeDirectory}, which is
+   * processed instead of the files of the group.
+   */
+  private List<MergeGroup> mergeGroups;
+
+  /**
+   * The directory to write the merged properties files of the {@link #mergeGroups} to.
+   */
+  private String mergeDirectory;
+
+  /**
+   * File to write the {@link GenerationReport} of {@link #generate()} to as JSON. If <code>null</code>, the report is
+   * only logged.
+   */
+  private String reportFile;
+
+  /**
+   * The base directory of each properties file returned by {@link #getSourceFiles()}.
+   */
+  private final Map<File, File> sourceBaseDirs;
+
   /**
    * Constructs a new {@link EnumGenerator}.
    * 
@@ -162,10 +790,12 @@ public class EnumGenerator {
       final List<String> files, final String generateDirectory, final String implement, final Integer lineLength,
       final Log logger, final String packageName, final String prefix, final boolean prefixedOnly,
       final MavenProject project, final String targetEncoding) {
-    generatedEnumFieldNames = new HashMap<String, String>();
+    wordWrapPatterns = new ConcurrentHashMap<Integer, Pattern>();
+    sourceBaseDirs = new LinkedHashMap<File, File>();
 
     this.baseDir = baseDir;
     this.enumFieldPattern = enumFieldPattern;
+    compiledEnumFieldPattern = enumFieldPattern != null ? Pattern.compile(enumFieldPattern) : null;
     this.enumJavadoc = enumJavadoc;
     this.files = files;
     this.generateDirectory = generateDirectory;
@@ -216,9 +846,9 @@ public class EnumGenerator {
         fieldName = propertyKey.substring(prefixWithPoint.length());
       }
     }
-    fieldName = fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
-    fieldName = fieldName.replaceAll("([A-Z0-9])[\\.\\s-]([A-Z0-9])", "$1_$2");
-    if (!fieldName.matches(enumFieldPattern)) {
+    fieldName = CAMEL_CASE_PATTERN.matcher(fieldName).replaceAll("$1_$2").toUpperCase();
+    fieldName = WORD_SEPARATOR_PATTERN.matcher(fieldName).replaceAll("$1_$2");
+    if (!compiledEnumFieldPattern.matcher(fieldName).matches()) {
       throw new InvalidPropertyKeyException("The key \"" + propertyKey
           + "\" is invalid. The resulting enum must match the pattern " + enumFieldPattern + " but was: " + fieldName);
     }
@@ -331,116 +961,1967 @@ public class EnumGenerator {
     Iterator<Entry<Object, Object>> iterator = properties.entrySet().iterator();
     while (iterator.hasNext()) {
       Entry<Object, Object> entry = iterator.next();
-      String key = entry.getKey().toString();
-
-      String prefixWithPoint = prefix + ".";
-      if (prefixedOnly && !key.startsWith(prefixWithPoint)) {
+      if (!isEnumKey(entry.getKey().toString())) {
         iterator.remove();
       }
     }
   }
 
   /**
+   * @param key
+   *          a property key
+   * @return <code>false</code> if the key won't be written to the enum, as {@link #prefixedOnly} is set and the key
+   *         does not start with {@link #prefix}
+   */
+  boolean isEnumKey(final String key) {
+    return !prefixedOnly || key.startsWith(prefix + ".");
+  }
+
+  /**
+   * Generates the enum files for all configured properties files.
+   * 
    * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
    * @throws IOException
+   *           if an I/O error occurred or a configured file does not exist
    */
   public void generate() throws IOException, InvalidPropertyKeyException {
-    prepare();
-    for (String fileName : files) {
-      File sourceFile = new File(baseDir, fileName);
-      if (!sourceFile.exists()) {
-        throw new FileNotFoundException("The file " + sourceFile.getAbsolutePath() + " could not be found");
+    long startTime = System.nanoTime();
+    GenerationReport report = new GenerationReport();
+    List<File> sourceFiles = getSourceFiles();
+    if (mergeGroups != null) {
+      for (MergeGroup mergeGroup : mergeGroups) {
+        for (Entry<File, byte[]> mergedFile : renderMergedBundles(mergeGroup).entrySet()) {
+          writeIfChanged(mergedFile.getKey(), mergedFile.getValue());
+        }
+      }
+    }
+    report.setScanTime(System.nanoTime() - startTime);
+    Set<String> unknownKeys = findUnknownValueTypeKeys(sourceFiles);
+    if (!unknownKeys.isEmpty()) {
+      throw new IOException("The valueTypes of " + unknownKeys + " don't belong to a key of the properties files");
+    }
+    BuildManifest manifest = getBuildManifest();
+    for (File sourceFile : sourceFiles) {
+      List<File> generatedFiles = generateEnumFile(sourceFile, report);
+      if (manifest != null) {
+        manifest.setOutputs(sourceFile, generatedFiles);
+      }
+    }
+    Map<File, byte[]> projectOutputs = renderProjectOutputs(sourceFiles);
+    for (Entry<File, byte[]> output : projectOutputs.entrySet()) {
+      writeIfChanged(output.getKey(), output.getValue());
+    }
+    if (manifest != null) {
+      List<File> inputs = new ArrayList<File>(sourceFiles);
+      inputs.add(getProjectOutputsKey());
+      manifest.retainInputs(inputs);
+      manifest.setOutputs(getProjectOutputsKey(), projectOutputs.keySet());
+      deleteOrphanedOutputs(manifest);
+    }
+    if (nativeImageDirectory != null) {
+      File argumentsFile = new File(getNativeImageConfigDirectory(), NativeImageMetadata.NATIVE_IMAGE_PROPERTIES);
+      if (!projectOutputs.containsKey(argumentsFile) && argumentsFile.exists() && !argumentsFile.delete()) {
+        throw new IOException("Could not delete " + argumentsFile.getAbsolutePath());
       }
-      generateEnumFile(sourceFile);
     }
+    GenerationCache cache = getGenerationCache();
+    if (cache != null) {
+      cache.evict();
+    }
+    report.setTotalTime(System.nanoTime() - startTime);
+    writeReport(report);
   }
 
   /**
-   * Generates an enum file based on a properties file.
+   * Renders the files generated for all properties files together: the {@link NativeImageMetadata}, the
+   * {@link #registryClass} and its <code>META-INF/services</code> entry.
    * 
-   * @param propertiesFile
-   *          the properties file read
+   * @param sourceFiles
+   *          all properties files
+   * @return the content of each file by its target file
    * @throws IOException
    *           if an I/O error occurred
    * @throws InvalidPropertyKeyException
    *           if a property key is invalid, so that the generated enum field name does not match the pattern
    *           {@link #enumFieldPattern}
    */
-  void generateEnumFile(final File propertiesFile) throws IOException, InvalidPropertyKeyException {
-    String packageName = this.packageName;
-    if (packageName == null) {
-      packageName = buildPackageName(propertiesFile, new File(baseDir));
+  Map<File, byte[]> renderProjectOutputs(final List<File> sourceFiles) throws IOException,
+      InvalidPropertyKeyException {
+    Map<File, byte[]> outputs = new LinkedHashMap<File, byte[]>();
+    if (nativeImageDirectory != null) {
+      outputs.putAll(renderNativeImageMetadata(sourceFiles));
     }
-    if (!Charset.isSupported(targetEncoding)) {
-      throw new UnsupportedEncodingException("The target charset " + targetEncoding + " is not supported");
+    if (registryClass != null) {
+      outputs.put(new File(generateDirectory, registryClass.replace('.', File.separatorChar) + ".java"),
+          renderRegistryClass(sourceFiles).getBytes(targetEncoding));
+      File servicesFile = new File(registryDirectory, "META-INF" + File.separator + "services" + File.separator
+          + RUNTIME_PACKAGE + ".EnumIndex");
+      outputs.put(servicesFile, (registryClass + "\n").getBytes("UTF-8"));
     }
+    return outputs;
+  }
 
-    File targetFile = buildTargetFile(propertiesFile, packageName, generateDirectory);
+  /**
+   * @return the input the {@link BuildManifest} records the outputs of {@link #renderProjectOutputs(List)} for, so
+   *         that they are deleted once they are not generated anymore
+   */
+  private File getProjectOutputsKey() {
+    return new File(buildStateDirectory);
+  }
 
-    // Create package directory
-    createDirectories(targetFile.getParentFile());
+  /**
+   * Finds the keys of {@link #valueTypes} that are not a key of an enum constant, e.g. because of a typo, which would
+   * otherwise be ignored silently.
+   * 
+   * @param sourceFiles
+   *          all properties files
+   * @return the unknown keys, empty if {@link #typedAccessors} are not generated
+   * @throws IOException
+   *           if a properties file could not be read
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  private Set<String> findUnknownValueTypeKeys(final List<File> sourceFiles) throws IOException,
+      InvalidPropertyKeyException {
+    Set<String> unknownKeys = new TreeSet<String>();
+    if (typedAccessors) {
+      unknownKeys.addAll(valueTypes.keySet());
+      Iterator<File> iterator = sourceFiles.iterator();
+      while (!unknownKeys.isEmpty() && iterator.hasNext()) {
+        File sourceFile = iterator.next();
+        unknownKeys.removeAll(loadBundle(sourceFile, createFileReport(sourceFile, getTargetFile(sourceFile)))
+            .getKeys());
+      }
+    }
+    return unknownKeys;
+  }
 
-    /*
-     * I don't yet understand why targetEncoding is also needed for input stream (and not ISO-8859-1), but that was the
-     * only way that worked.
-     */
-    Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(propertiesFile), targetEncoding));
-    Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(targetFile), targetEncoding));
+  /**
+   * Renders the {@link NativeImageMetadata} of the classes generated for the given properties files.
+   * 
+   * @param sourceFiles
+   *          all properties files
+   * @return the content of each metadata file by its target file below {@link #getNativeImageConfigDirectory()}
+   * @throws IOException
+   *           if an archive could not be read
+   */
+  private Map<File, byte[]> renderNativeImageMetadata(final List<File> sourceFiles) throws IOException {
+    NativeImageMetadata metadata = new NativeImageMetadata();
+    for (File sourceFile : sourceFiles) {
+      String enumPackageName = getPackageName(sourceFile);
+      String enumTypeName = buildEnumTypeName(getTargetFile(sourceFile));
+      metadata.addEnum(enumPackageName.length() > 0 ? enumPackageName + "." + enumTypeName : enumTypeName,
+          buildBaseName(getBaseDir(sourceFile), sourceFile));
+      if (compiledBundles) {
+        for (String path : findCompiledBundlePaths(sourceFile)) {
+          metadata.addBundleClass(path.substring(0, path.length() - ".properties".length()).replace('/', '.'));
+        }
+      }
+    }
+    if (runtime) {
+      metadata.addBuildTimeClass(RUNTIME_PACKAGE + ".EnumDescriptor");
+    }
 
-    try {
-      Properties properties = new Properties();
-      properties.load(reader);
+    File directory = getNativeImageConfigDirectory();
+    Map<File, byte[]> files = new LinkedHashMap<File, byte[]>();
+    for (Entry<String, String> file : metadata.render(initializeAtBuildTime).entrySet()) {
+      files.put(new File(directory, file.getKey()), file.getValue().getBytes("UTF-8"));
+    }
+    return files;
+  }
 
-      writePackageDeclaration(writer, packageName);
-      writeEnumTypeJavadoc(writer, propertiesFile);
+  /**
+   * @return the directory of the {@link NativeImageMetadata} files, below {@link #nativeImageDirectory}:
+   *         <code>META-INF/native-image/groupId/artifactId</code>
+   */
+  private File getNativeImageConfigDirectory() {
+    String configPath = "META-INF/native-image/";
+    if (project != null) {
+      configPath += project.getGroupId() + "/" + project.getArtifactId();
+    } else {
+      configPath += "maven-properties-enum";
+    }
+    return new File(nativeImageDirectory, configPath.replace('/', File.separatorChar));
+  }
 
+  /**
+   * Renders the source code of {@link #registryClass}, which implements <code>EnumIndex</code> of the runtime artifact
+   * and lists each enum type with its base name, number of keys and the locales of its properties files.
+   * 
+   * @param sourceFiles
+   *          all properties files
+   * @return the index class's source code
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  String renderRegistryClass(final List<File> sourceFiles) throws IOException, InvalidPropertyKeyException {
+    SortedMap<String, String> entries = new TreeMap<String, String>();
+    for (File sourceFile : sourceFiles) {
+      File targetFile = getTargetFile(sourceFile);
+      String enumPackageName = getPackageName(sourceFile);
       String enumTypeName = buildEnumTypeName(targetFile);
-      writeEnumTypeSignature(writer, enumTypeName);
-
-      filterProperties(properties);
-
-      writeEnumFields(writer, properties, enumTypeName);
-      writeOriginalKeyField(writer);
-      writeConstructor(writer, buildEnumTypeName(targetFile));
-      writeGetBaseNameMethod(writer, propertiesFile);
-      writeToStringMethod(writer);
-      writeKeyMethod(writer, implement != null);
-      writer.write("}\n");
-    } finally {
-      try {
-        reader.close();
-      } catch (IOException e) {
-        logger.error("Could not close reader");
+      if (enumPackageName.length() > 0) {
+        enumTypeName = enumPackageName + "." + enumTypeName;
       }
-      try {
-        writer.close();
-      } catch (IOException e) {
-        logger.error("Could not close writer");
+      PropertiesBundle bundle = loadBundle(sourceFile, createFileReport(sourceFile, targetFile));
+      StringBuilder entry = new StringBuilder();
+      entry.append("new ").append(RUNTIME_PACKAGE).append(".IndexedEnum(LOADER, ");
+      entry.append(buildStringLiteral(enumTypeName)).append(",\n          ");
+      entry.append(buildStringLiteral(buildBaseName(getBaseDir(sourceFile), sourceFile))).append(", ");
+      entry.append(bundle.size());
+      entry.append(", \"\"");
+      List<String> paths = findLocalizedFiles(sourceFile, getBaseDir(sourceFile));
+      int localeStart = sourceFile.getName().indexOf('.') + 1;
+      for (String path : paths.subList(1, paths.size())) {
+        String fileName = path.substring(path.lastIndexOf('/') + 1);
+        entry.append(", ").append(buildStringLiteral(fileName.substring(localeStart, fileName.length()
+            - ".properties".length())));
       }
+      entries.put(enumTypeName, entry.append(')').toString());
+    }
+
+    int separator = registryClass.lastIndexOf('.');
+    String className = registryClass.substring(separator + 1);
+    StringWriter writer = new StringWriter();
+    writePackageDeclaration(writer, separator >= 0 ? registryClass.substring(0, separator) : "");
+    writer.append(buildJavadoc("Index of the enums generated from properties files, registered in META-INF/services"
+        + " for " + RUNTIME_PACKAGE + ".EnumRegistry.", "", lineLength));
+    writer.append("public final class ").append(className).append(" implements ").append(RUNTIME_PACKAGE);
+    writer.append(".EnumIndex {\n\n");
+    writer.append(buildJavadoc("The class loader to load the enums and their resource bundles with.", "  ",
+        lineLength));
+    writer.append("  private static final ClassLoader LOADER = ").append(className).append(
+        ".class.getClassLoader();\n\n");
+    writer.append(buildJavadoc("The indexed enums, by name.", "  ", lineLength));
+    writer.append("  private static final java.util.List<").append(RUNTIME_PACKAGE).append(".IndexedEnum> ENUMS =\n");
+    writer.append("      java.util.Collections.unmodifiableList(java.util.Arrays.asList(");
+    String entrySeparator = "\n        ";
+    for (String entry : entries.values()) {
+      writer.append(entrySeparator).append(entry);
+      entrySeparator = ",\n        ";
     }
+    writer.append("));\n\n");
+    writer.append("  @Override\n  public java.util.List<").append(RUNTIME_PACKAGE);
+    writer.append(".IndexedEnum> getEnums() {\n");
+    writer.append("    return ENUMS;\n  }\n}\n");
+    return writer.toString();
   }
 
   /**
+   * Logs the report of a generation and writes it to {@link #reportFile}, if set.
    * 
+   * @param report
+   *          the report to write
+   * @throws IOException
+   *           if the report file could not be written
    */
-  private void prepare() {
-    // Normalize directories
-    baseDir = new File(baseDir).getAbsolutePath();
-    generateDirectory = new File(generateDirectory).getAbsolutePath();
+  private void writeReport(final GenerationReport report) throws IOException {
+    for (String line : report.formatTable(REPORT_ROWS)) {
+      logger.info(line);
+    }
+    if (reportFile != null) {
+      report.writeJson(new File(reportFile));
+    }
   }
 
   /**
-   * Word wrapping. Fails if a string is longer than <code>length</code> characters (I guess this string won't be
-   * returned then).
+   * Resolves the configured properties files.
    * 
-   * @param string
-   *          the string to wrap
+   * @return the properties files to generate enums for
+   * @throws FileNotFoundException
+   *           if a configured file does not exist
+   * @throws IOException
+   *           if the directory index could not be saved
+   */
+  public List<File> getSourceFiles() throws IOException {
+    List<File> sourceFiles = findSourceFiles();
+    if (directoryIndex != null) {
+      directoryIndex.save();
+    }
+    return sourceFiles;
+  }
+
+  /**
+   * Resolves the files the generated files depend on, so that they can be watched for modifications: the configured
+   * properties files and, if {@link #compiledBundles} or JSON catalogs are generated, their localized variants. Instead
+   * of a file merged from a {@link MergeGroup}, the files of the group and their localized variants are watched.
+   * 
+   * @return the properties file to generate the enum for again, by each file it depends on
+   * @throws FileNotFoundException
+   *           if a configured file does not exist
+   * @throws IOException
+   *           if the directory index could not be saved
+   */
+  public Map<File, File> getWatchedFiles() throws IOException {
+    Map<File, File> watchedFiles = new LinkedHashMap<File, File>();
+    for (File sourceFile : getSourceFiles()) {
+      MergeGroup mergeGroup = findMergeGroup(sourceFile);
+      if (mergeGroup != null) {
+        File baseDirectory = new File(baseDir);
+        if (!ArchiveEntries.isArchive(baseDirectory)) {
+          for (String fileName : mergeGroup.getFiles()) {
+            for (String path : findLocalizedFiles(new File(baseDirectory, fileName), baseDirectory)) {
+              watchedFiles.put(new File(baseDirectory, path.replace('/', File.separatorChar)), sourceFile);
+            }
+          }
+        }
+        continue;
+      }
+      watchedFiles.put(sourceFile, sourceFile);
+      File baseDirectory = getBaseDir(sourceFile);
+      if ((compiledBundles || jsonCatalogDirectory != null) && !ArchiveEntries.isArchive(baseDirectory)) {
+        for (String path : findCompiledBundlePaths(sourceFile)) {
+          File file = new File(baseDirectory, path.replace('/', File.separatorChar));
+          if (!watchedFiles.containsKey(file)) {
+            watchedFiles.put(file, sourceFile);
+          }
+        }
+      }
+    }
+    return watchedFiles;
+  }
+
+  /**
+   * Resolves the configured properties files without saving the directory index.
+   * 
+   * @return the properties files to generate enums for
+   * @throws FileNotFoundException
+   *           if a configured file does not exist
+   * @throws IOException
+   *           if an archive could not be read
+   */
+  private List<File> findSourceFiles() throws IOException {
+    prepare();
+    sourceBaseDirs.clear();
+    if (files != null) {
+      File baseDirectory = new File(baseDir);
+      boolean archive = ArchiveEntries.isArchive(baseDirectory);
+      for (String fileName : files) {
+        File sourceFile = new File(baseDirectory, fileName);
+        if (archive ? !ArchiveEntries.exists(baseDirectory, fileName.replace('\\', '/')) : !sourceFile.exists()) {
+          throw new FileNotFoundException("The file " + sourceFile.getAbsolutePath() + " could not be found");
+        }
+        sourceBaseDirs.put(sourceFile, baseDirectory);
+      }
+    }
+    if (includes != null && !includes.isEmpty()) {
+      DirectoryIndex index = getDirectoryIndex();
+      for (File baseDirectory : getBaseDirectories()) {
+        for (String fileName : index.scan(baseDirectory, includes, excludes)) {
+          File sourceFile = new File(baseDirectory, fileName);
+          if (!sourceBaseDirs.containsKey(sourceFile)) {
+            sourceBaseDirs.put(sourceFile, baseDirectory);
+          }
+        }
+      }
+    }
+    if (mergeGroups != null) {
+      File baseDirectory = new File(baseDir);
+      File mergeBaseDirectory = new File(mergeDirectory);
+      for (MergeGroup mergeGroup : mergeGroups) {
+        for (String fileName : mergeGroup.getFiles()) {
+          for (String path : findLocalizedFiles(new File(baseDirectory, fileName), baseDirectory)) {
+            sourceBaseDirs.remove(new File(baseDirectory, path.replace('/', File.separatorChar)));
+          }
+        }
+        sourceBaseDirs.put(new File(mergeBaseDirectory, mergeGroup.getTarget().replace('/', File.separatorChar)),
+            mergeBaseDirectory);
+      }
+    }
+    return new ArrayList<File>(sourceBaseDirs.keySet());
+  }
+
+  /**
+   * @param propertiesFile
+   *          a properties file
+   * @return the {@link MergeGroup} the properties file is merged from, or <code>null</code> if it is not a merged file
+   */
+  private MergeGroup findMergeGroup(final File propertiesFile) {
+    if (mergeGroups != null) {
+      for (MergeGroup mergeGroup : mergeGroups) {
+        if (new File(mergeDirectory, mergeGroup.getTarget().replace('/', File.separatorChar)).equals(propertiesFile)) {
+          return mergeGroup;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Merges the properties files of a {@link MergeGroup} and each of their localized variants, e.g.
+   * <code>messages-core_de.properties</code> and <code>messages-billing_de.properties</code> into
+   * <code>messages_de.properties</code>. Only the keys of the files themselves are checked for conflicting enum field
+   * names, as the variants don't contribute any fields.
+   * 
+   * @param mergeGroup
+   *          the merge group
+   * @return the content of each merged file by its target file below {@link #mergeDirectory}
+   * @throws IOException
+   *           if a file could not be read
+   * @throws InvalidPropertyKeyException
+   *           if a key does not result in a valid enum field name
+   * @throws DuplicateEnumFieldException
+   *           if a key is defined more than once or two keys result in the same enum field name
+   */
+  Map<File, byte[]> renderMergedBundles(final MergeGroup mergeGroup) throws IOException,
+      InvalidPropertyKeyException {
+    File baseDirectory = new File(baseDir);
+    Map<String, Map<String, byte[]>> sourcesByLocale = new TreeMap<String, Map<String, byte[]>>();
+    for (String fileName : mergeGroup.getFiles()) {
+      String partPath = fileName.replace('\\', '/');
+      String partBaseName = partPath.substring(0, partPath.length() - ".properties".length());
+      for (String path : findLocalizedFiles(new File(baseDirectory, fileName), baseDirectory)) {
+        String locale = path.equals(partPath) ? "" : path.substring(partBaseName.length(), path.length()
+            - ".properties".length());
+        Map<String, byte[]> sources = sourcesByLocale.get(locale);
+        if (sources == null) {
+          sources = new LinkedHashMap<String, byte[]>();
+          sourcesByLocale.put(locale, sources);
+        }
+        sources.put(path, readBundleSource(baseDirectory, path));
+      }
+    }
+
+    String targetPath = mergeGroup.getTarget().replace('\\', '/');
+    String targetBaseName = targetPath.substring(0, targetPath.length() - ".properties".length());
+    Map<File, byte[]> mergedFiles = new LinkedHashMap<File, byte[]>();
+    for (Entry<String, Map<String, byte[]>> sources : sourcesByLocale.entrySet()) {
+      String path = targetBaseName + sources.getKey() + ".properties";
+      mergedFiles.put(new File(mergeDirectory, path.replace('/', File.separatorChar)), mergeGroup.merge(
+          sources.getValue(), targetEncoding, sources.getKey().length() == 0 ? this : null));
+    }
+    return mergedFiles;
+  }
+
+  /**
+   * @return {@link #baseDir}, followed by all {@link #baseDirs}
+   * @throws FileNotFoundException
+   *           if a base directory refers to a dependency that could not be found
+   */
+  private List<File> getBaseDirectories() throws FileNotFoundException {
+    List<File> baseDirectories = new ArrayList<File>();
+    baseDirectories.add(new File(baseDir));
+    if (baseDirs != null) {
+      for (String directory : baseDirs) {
+        baseDirectories.add(resolveBaseDir(directory));
+      }
+    }
+    return baseDirectories;
+  }
+
+  /**
+   * Returns the base directory of the given properties file, which is needed to build its package and base name.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @return the base directory the file has been found in by {@link #getSourceFiles()}, or {@link #baseDir}
+   */
+  File getBaseDir(final File propertiesFile) {
+    File baseDirectory = sourceBaseDirs.get(propertiesFile);
+    if (baseDirectory == null) {
+      baseDirectory = new File(baseDir);
+    }
+    return baseDirectory;
+  }
+
+  /**
+   * @return the directory index, which is stored in {@link #buildStateDirectory} if set
+   */
+  private DirectoryIndex getDirectoryIndex() {
+    if (directoryIndex == null) {
+      File indexFile = null;
+      if (buildStateDirectory != null) {
+        indexFile = new File(buildStateDirectory, "directory-index");
+      }
+      directoryIndex = new DirectoryIndex(indexFile);
+    }
+    return directoryIndex;
+  }
+
+  /**
+   * Generates the enum files for the given properties files only, e.g. after they have been modified. All other
+   * generated enums are left untouched. Files merged from a {@link MergeGroup} are merged again first.
+   * 
+   * @param propertiesFiles
+   *          the properties files to regenerate the enums for
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  public void regenerate(final Collection<File> propertiesFiles) throws IOException, InvalidPropertyKeyException {
+    prepare();
+    GenerationReport report = new GenerationReport();
+    BuildManifest manifest = getBuildManifest();
+    for (File propertiesFile : propertiesFiles) {
+      MergeGroup mergeGroup = findMergeGroup(propertiesFile);
+      if (mergeGroup != null) {
+        for (Entry<File, byte[]> mergedFile : renderMergedBundles(mergeGroup).entrySet()) {
+          writeIfChanged(mergedFile.getKey(), mergedFile.getValue());
+        }
+      }
+      List<File> generatedFiles = generateEnumFile(propertiesFile, report);
+      if (manifest != null) {
+        manifest.setOutputs(propertiesFile, generatedFiles);
+      }
+    }
+    if (manifest != null) {
+      deleteOrphanedOutputs(manifest);
+    }
+    if (logger.isDebugEnabled()) {
+      for (String line : report.formatTable(REPORT_ROWS)) {
+        logger.debug(line);
+      }
+    }
+  }
+
+  /**
+   * Deletes the files generated for the given properties files, e.g. because they have been deleted. Requires
+   * {@link #buildStateDirectory} to be set, otherwise the generated files are not known and nothing is deleted.
+   * 
+   * @param propertiesFiles
+   *          the properties files
+   * @throws IOException
+   *           if a file could not be deleted or the manifest could not be saved
+   */
+  public void remove(final Collection<File> propertiesFiles) throws IOException {
+    prepare();
+    BuildManifest manifest = getBuildManifest();
+    if (manifest != null) {
+      manifest.removeInputs(propertiesFiles);
+      deleteOrphanedOutputs(manifest);
+    }
+  }
+
+  /**
+   * Deletes all files that are not generated anymore and saves the manifest.
+   * 
+   * @param manifest
+   *          the build manifest
+   * @throws IOException
+   *           if a file could not be deleted or the manifest could not be saved
+   */
+  private void deleteOrphanedOutputs(final BuildManifest manifest) throws IOException {
+    for (File deletedFile : manifest.deleteOrphanedOutputs()) {
+      logger.info("Deleted stale file " + deletedFile.getAbsolutePath());
+    }
+    manifest.save();
+  }
+
+  /**
+   * @return the build manifest, stored in {@link #buildStateDirectory}, or <code>null</code> if no build state is kept
+   * @throws IOException
+   *           if the manifest could not be read
+   */
+  private BuildManifest getBuildManifest() throws IOException {
+    if (buildManifest == null && buildStateDirectory != null) {
+      buildManifest = new BuildManifest(new File(buildStateDirectory, "manifest.properties"), new File(
+          buildStateDirectory, "fingerprints.properties"));
+    }
+    return buildManifest;
+  }
+
+  /**
+   * Generates an enum file based on a properties file.
+   * 
+   * @param propertiesFile
+   *          the properties file read
+   * @param report
+   *          the report to add the statistics of the properties file to
+   * @return the generated files
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  List<File> generateEnumFile(final File propertiesFile, final GenerationReport report) throws IOException,
+      InvalidPropertyKeyException {
+    File targetFile = getTargetFile(propertiesFile);
+    FileReport fileReport = createFileReport(propertiesFile, targetFile);
+    PropertiesBundle bundle = loadBundle(propertiesFile, fileReport);
+    Map<String, byte[]> localizedSources = compiledBundles || jsonCatalogDirectory != null
+        ? readLocalizedSources(propertiesFile) : null;
+    KeyIdRegistry keyIdRegistry = keyIds ? loadKeyIds(propertiesFile) : null;
+    if (keyIdRegistry != null && keyIdRegistry.assign(bundle.getKeys())) {
+      writeIfChanged(keyIdRegistry.getFile(), keyIdRegistry.render(propertiesFile.getName()).getBytes("UTF-8"));
+      logger.info("Assigned IDs to new keys in " + keyIdRegistry.getFile().getAbsolutePath());
+    }
+
+    long startTime = System.nanoTime();
+    GenerationCache cache = getGenerationCache();
+    String cacheKey = null;
+    byte[] content = null;
+    if (cache != null) {
+      cacheKey = buildCacheKey(propertiesFile, buildSourceDigest(bundle, null, keyIdRegistry), targetFile);
+      content = cache.get(cacheKey);
+      fileReport.setGenerationCacheHit(content != null);
+    }
+    if (content == null) {
+      content = renderEnumFile(propertiesFile, bundle, targetFile).getBytes(targetEncoding);
+      if (cache != null) {
+        cache.put(cacheKey, content);
+      }
+    }
+    fileReport.setRenderTime(System.nanoTime() - startTime);
+    fileReport.setOutputBytes(content.length);
+
+    startTime = System.nanoTime();
+    fileReport.setWritten(writeIfChanged(targetFile, content));
+    fileReport.setWriteTime(System.nanoTime() - startTime);
+
+    BuildManifest manifest = getBuildManifest();
+    if (manifest != null) {
+      manifest.setFingerprint(propertiesFile, buildFingerprint(propertiesFile, buildSourceDigest(bundle,
+          localizedSources, keyIdRegistry)));
+      manifest.setFingerprint(targetFile, Digests.digest(content));
+    }
+    List<File> generatedFiles = new ArrayList<File>();
+    generatedFiles.add(targetFile);
+    if (keyConstants) {
+      generatedFiles.add(generateKeyConstantsFile(propertiesFile, bundle, targetFile, cacheKey, fileReport));
+    }
+    if (compiledBundles) {
+      startTime = System.nanoTime();
+      Map<File, String> bundleClasses = renderCompiledBundles(propertiesFile, bundle, localizedSources, targetFile);
+      fileReport.setRenderTime(fileReport.getRenderTime() + System.nanoTime() - startTime);
+      for (Entry<File, String> bundleClass : bundleClasses.entrySet()) {
+        writeOutput(bundleClass.getKey(), bundleClass.getValue().getBytes(targetEncoding), fileReport, manifest);
+        generatedFiles.add(bundleClass.getKey());
+      }
+    }
+    if (jsonCatalogDirectory != null) {
+      startTime = System.nanoTime();
+      Map<File, byte[]> catalogs = renderJsonCatalogs(propertiesFile, localizedSources);
+      fileReport.setRenderTime(fileReport.getRenderTime() + System.nanoTime() - startTime);
+      for (Entry<File, byte[]> catalog : catalogs.entrySet()) {
+        writeOutput(catalog.getKey(), catalog.getValue(), fileReport, manifest);
+        generatedFiles.add(catalog.getKey());
+      }
+    }
+    report.add(fileReport);
+    return generatedFiles;
+  }
+
+  /**
+   * Writes an additional file generated for a properties file, if its content has changed, and records it in the
+   * statistics and the build manifest.
+   * 
+   * @param file
+   *          the file to write
+   * @param content
+   *          the file's content
+   * @param fileReport
+   *          the statistics of the properties file, to add the time spent and the file's size to
+   * @param manifest
+   *          the build manifest, or <code>null</code> if no build state is kept
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private void writeOutput(final File file, final byte[] content, final FileReport fileReport,
+      final BuildManifest manifest) throws IOException {
+    fileReport.setOutputBytes(fileReport.getOutputBytes() + content.length);
+    long startTime = System.nanoTime();
+    if (writeIfChanged(file, content)) {
+      fileReport.setWritten(true);
+    }
+    fileReport.setWriteTime(fileReport.getWriteTime() + System.nanoTime() - startTime);
+    if (manifest != null) {
+      manifest.setFingerprint(file, Digests.digest(content));
+    }
+  }
+
+  /**
+   * Generates the {@link #keyConstants} class of a properties file.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param bundle
+   *          the parsed properties file
+   * @param targetFile
+   *          the enum's target file
+   * @param cacheKey
+   *          the {@link GenerationCache} key of the enum, or <code>null</code> if no cache is used
+   * @param fileReport
+   *          the statistics of the properties file, to add the time spent and the class's size to
+   * @return the generated file
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private File generateKeyConstantsFile(final File propertiesFile, final PropertiesBundle bundle,
+      final File targetFile, final String cacheKey, final FileReport fileReport) throws IOException {
+    long startTime = System.nanoTime();
+    GenerationCache cache = getGenerationCache();
+    File constantsFile = buildKeyConstantsFile(targetFile);
+    String constantsCacheKey = null;
+    byte[] constantsContent = null;
+    if (cache != null) {
+      constantsCacheKey = Digests.digest(cacheKey, KEY_CONSTANTS_SUFFIX);
+      constantsContent = cache.get(constantsCacheKey);
+    }
+    if (constantsContent == null) {
+      constantsContent = renderKeyConstantsFile(propertiesFile, bundle, targetFile).getBytes(targetEncoding);
+      if (cache != null) {
+        cache.put(constantsCacheKey, constantsContent);
+      }
+    }
+    fileReport.setRenderTime(fileReport.getRenderTime() + System.nanoTime() - startTime);
+    fileReport.setOutputBytes(fileReport.getOutputBytes() + constantsContent.length);
+
+    startTime = System.nanoTime();
+    if (writeIfChanged(constantsFile, constantsContent)) {
+      fileReport.setWritten(true);
+    }
+    fileReport.setWriteTime(fileReport.getWriteTime() + System.nanoTime() - startTime);
+
+    BuildManifest manifest = getBuildManifest();
+    if (manifest != null) {
+      manifest.setFingerprint(constantsFile, Digests.digest(constantsContent));
+    }
+    return constantsFile;
+  }
+
+  /**
+   * @param targetFile
+   *          the enum's target file
+   * @return the target file of the enum's {@link #keyConstants} class, in the same directory
+   */
+  File buildKeyConstantsFile(final File targetFile) {
+    return new File(targetFile.getParentFile(), buildEnumTypeName(targetFile) + KEY_CONSTANTS_SUFFIX + ".java");
+  }
+
+  /**
+   * Creates the {@link FileReport} of a properties file, which identifies the properties file and enum by their paths
+   * relative to the base and generate directory, so that reports of different checkouts can be compared.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param targetFile
+   *          the enum's target file
+   * @return the new, empty statistics of the properties file
+   */
+  FileReport createFileReport(final File propertiesFile, final File targetFile) {
+    return new FileReport(buildRelativePath(propertiesFile, getBaseDir(propertiesFile)), buildRelativePath(targetFile,
+        new File(generateDirectory)));
+  }
+
+  /**
+   * @param file
+   *          a file
+   * @param directory
+   *          a directory
+   * @return the path of the file relative to the directory, using / as separator, or the absolute path of the file if
+   *         it is not below the directory
+   */
+  private static String buildRelativePath(final File file, final File directory) {
+    String path = file.getAbsolutePath();
+    String directoryPath = directory.getAbsolutePath() + File.separator;
+    if (path.startsWith(directoryPath)) {
+      path = path.substring(directoryPath.length());
+    }
+    return path.replace(File.separatorChar, '/');
+  }
+
+  /**
+   * Builds the enum's target file for a properties file.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @return the enum's target file
+   * @throws UnsupportedEncodingException
+   *           if {@link #targetEncoding} is not supported
+   */
+  File getTargetFile(final File propertiesFile) throws UnsupportedEncodingException {
+    if (!Charset.isSupported(targetEncoding)) {
+      throw new UnsupportedEncodingException("The target charset " + targetEncoding + " is not supported");
+    }
+    return buildTargetFile(propertiesFile, getPackageName(propertiesFile), generateDirectory);
+  }
+
+  /**
+   * @param propertiesFile
+   *          the properties file
+   * @return {@link #packageName} if set, the package name built from the properties file's path otherwise
+   */
+  private String getPackageName(final File propertiesFile) {
+    if (packageName == null) {
+      return buildPackageName(propertiesFile, getBaseDir(propertiesFile));
+    }
+    return packageName;
+  }
+
+  /**
+   * Loads the parsed bundle of a properties file. The file is only read and parsed if it is not in the
+   * {@link BundleCache} or has been modified since.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param fileReport
+   *          the statistics of the properties file, to record the time spent and the bundle's size in
+   * @return the parsed bundle
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  PropertiesBundle loadBundle(final File propertiesFile, final FileReport fileReport) throws IOException,
+      InvalidPropertyKeyException {
+    long startTime = System.nanoTime();
+    String parseOptions = Digests.digest(targetEncoding, prefix, prefixedOnly, enumFieldPattern);
+    File baseDirectory = getBaseDir(propertiesFile);
+    PropertiesBundle bundle;
+    if (ArchiveEntries.isArchive(baseDirectory)) {
+      bundle = loadArchiveBundle(baseDirectory, propertiesFile, parseOptions, fileReport);
+    } else {
+      bundle = BundleCache.get(propertiesFile, parseOptions);
+      if (bundle == null) {
+        long lastModified = propertiesFile.lastModified();
+        byte[] source = Digests.readFile(propertiesFile);
+        long readTime = System.nanoTime() - startTime;
+        bundle = parseBundle(source, fileReport);
+        fileReport.setParseTime(readTime + fileReport.getParseTime());
+        BundleCache.put(propertiesFile, parseOptions, lastModified, bundle);
+      } else {
+        fileReport.setBundleCacheHit(true);
+        fileReport.setParseTime(System.nanoTime() - startTime);
+      }
+    }
+    fileReport.setKeys(bundle.size());
+    fileReport.setInputBytes(bundle.getSourceLength());
+    return bundle;
+  }
+
+  /**
+   * Loads the parsed bundle of a properties file inside of an archive. The entry's checksum from the archive's central
+   * directory is used to validate the {@link BundleCache}, so an unchanged entry is not read again, even if the archive
+   * has been rebuilt.
+   * 
+   * @param archive
+   *          the archive
+   * @param propertiesFile
+   *          the virtual properties file
+   * @param parseOptions
+   *          the options the bundle is parsed with
+   * @param fileReport
+   *          the statistics of the properties file, to record the time spent in
+   * @return the parsed bundle
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  private PropertiesBundle loadArchiveBundle(final File archive, final File propertiesFile, final String parseOptions,
+      final FileReport fileReport) throws IOException, InvalidPropertyKeyException {
+    long startTime = System.nanoTime();
+    String entryName = buildRelativePath(propertiesFile, archive);
+    ZipFile zipFile = new ZipFile(archive);
+    try {
+      ZipEntry entry = ArchiveEntries.getEntry(zipFile, entryName);
+      String path = archive.getCanonicalPath() + ArchiveEntries.SEPARATOR + entryName;
+      PropertiesBundle bundle = BundleCache.get(path, parseOptions, entry.getCrc(), entry.getSize());
+      if (bundle == null) {
+        byte[] source = ArchiveEntries.read(zipFile, entryName);
+        long readTime = System.nanoTime() - startTime;
+        bundle = parseBundle(source, fileReport);
+        fileReport.setParseTime(readTime + fileReport.getParseTime());
+        BundleCache.put(path, parseOptions, entry.getCrc(), entry.getSize(), bundle);
+      } else {
+        fileReport.setBundleCacheHit(true);
+        fileReport.setParseTime(System.nanoTime() - startTime);
+      }
+      return bundle;
+    } finally {
+      zipFile.close();
+    }
+  }
+
+  /**
+   * Parses the content of a properties file and builds the enum field names of all properties that will be written to
+   * the enum.
+   * 
+   * @param source
+   *          the content of the properties file
+   * @param fileReport
+   *          the statistics of the properties file, to record the time spent parsing and deriving the names in
+   * @return the parsed bundle
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  PropertiesBundle parseBundle(final byte[] source, final FileReport fileReport) throws IOException,
+      InvalidPropertyKeyException {
+    long startTime = System.nanoTime();
+    /*
+     * I don't yet understand why targetEncoding is also needed for input stream (and not ISO-8859-1), but that was the
+     * only way that worked.
+     */
+    Reader reader = new InputStreamReader(new ByteArrayInputStream(source), targetEncoding);
+    Properties properties = new Properties();
+    properties.load(reader);
+    filterProperties(properties);
+    fileReport.setParseTime(System.nanoTime() - startTime);
+
+    startTime = System.nanoTime();
+    List<String> keys = new ArrayList<String>(properties.size());
+    List<String> values = new ArrayList<String>(properties.size());
+    List<String> fieldNames = new ArrayList<String>(properties.size());
+    for (Entry<Object, Object> entry : properties.entrySet()) {
+      String key = entry.getKey().toString();
+      keys.add(key);
+      values.add(entry.getValue().toString());
+      fieldNames.add(buildEnumFieldName(key));
+    }
+    fileReport.setNamingTime(System.nanoTime() - startTime);
+    return new PropertiesBundle(keys, values, fieldNames, Digests.digest(source), source.length);
+  }
+
+  /**
+   * Renders the source code of the enum for a properties file.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param properties
+   *          the parsed properties file
+   * @param targetFile
+   *          the enum's target file
+   * @return the enum's source code
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  String renderEnumFile(final File propertiesFile, final PropertiesBundle properties, final File targetFile)
+      throws IOException {
+    PropertiesBundle bundle = prefixQueries ? sortByHierarchy(properties) : properties;
+    StringWriter writer = new StringWriter();
+    writePackageDeclaration(writer, getPackageName(propertiesFile));
+    writeEnumTypeJavadoc(writer, propertiesFile);
+
+    String enumTypeName = buildEnumTypeName(targetFile);
+    writeEnumTypeSignature(writer, enumTypeName);
+
+    writeEnumFields(writer, bundle);
+    if (runtime) {
+      writeDescriptor(writer, enumTypeName, propertiesFile, bundle);
+      writeRuntimeMethods(writer);
+    } else {
+      writeOriginalKeyField(writer);
+      writeConstructor(writer, enumTypeName);
+      writeGetBaseNameMethod(writer, propertiesFile);
+      writeToStringMethod(writer);
+      writeKeyMethod(writer, implement != null);
+      if (usageCounters) {
+        writeUsageCounters(writer, enumTypeName);
+      }
+      if (flightRecorderEvents) {
+        writeFlightRecorderSupport(writer);
+      }
+    }
+    if (prefixQueries) {
+      writePrefixQueries(writer, enumTypeName, bundle);
+    }
+    if (typedAccessors) {
+      writeTypedAccessors(writer, enumTypeName, buildBaseName(getBaseDir(propertiesFile), propertiesFile), bundle);
+    }
+    if (encodedKeys) {
+      writeEncodedKeys(writer, enumTypeName, bundle);
+    }
+    if (keyIds) {
+      writeKeyIds(writer, enumTypeName, bundle, loadKeyIds(propertiesFile));
+    }
+    writer.write("}\n");
+    return writer.toString();
+  }
+
+  /**
+   * Sorts the properties of a bundle in {@link KeyHierarchy#SEGMENT_ORDER}, so that the constants below each prefix are
+   * declared one after another.
+   * 
+   * @param bundle
+   *          the parsed properties file
+   * @return a bundle with the same properties, sorted by key
+   */
+  private static PropertiesBundle sortByHierarchy(final PropertiesBundle bundle) {
+    List<String> keys = new ArrayList<String>(bundle.size());
+    List<String> values = new ArrayList<String>(bundle.size());
+    List<String> fieldNames = new ArrayList<String>(bundle.size());
+    for (int index : KeyHierarchy.sort(bundle.getKeys())) {
+      keys.add(bundle.getKeys().get(index));
+      values.add(bundle.getValues().get(index));
+      fieldNames.add(bundle.getFieldNames().get(index));
+    }
+    return new PropertiesBundle(keys, values, fieldNames, bundle.getSourceDigest(), bundle.getSourceLength());
+  }
+
+  /**
+   * Renders the source code of the {@link #keyConstants} class for a properties file.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param bundle
+   *          the parsed properties file
+   * @param targetFile
+   *          the enum's target file
+   * @return the class's source code
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  String renderKeyConstantsFile(final File propertiesFile, final PropertiesBundle bundle, final File targetFile)
+      throws IOException {
+    StringWriter writer = new StringWriter();
+    writePackageDeclaration(writer, getPackageName(propertiesFile));
+    String enumTypeName = buildEnumTypeName(targetFile);
+    String className = enumTypeName + KEY_CONSTANTS_SUFFIX;
+    writer.append(buildJavadoc("The property keys of {@link " + enumTypeName + "} as compile-time constants, e.g. for"
+        + " switch case labels and annotation values.", "", lineLength));
+    writer.append("public final class ");
+    writer.append(className);
+    writer.append(" {\n\n");
+    for (int i = 0; i < bundle.size(); i++) {
+      String key = bundle.getKeys().get(i);
+      writer.append(buildJavadoc(String.format(enumJavadoc, key, bundle.getValues().get(i)), "  ", lineLength));
+      writer.append("  public static final String ");
+      writer.append(bundle.getFieldNames().get(i));
+      writer.append(" = ");
+      writer.append(buildStringLiteral(key));
+      writer.append(";\n\n");
+    }
+    writer.append(buildJavadoc("Not to be instantiated.", "  ", lineLength));
+    writer.append("  private ");
+    writer.append(className);
+    writer.append("() {\n  }\n}\n");
+    return writer.toString();
+  }
+
+  /**
+   * Writes a file, unless it already has the given content. Leaving unchanged files untouched keeps their
+   * modification time, so they don't need to be compiled again.
+   * 
+   * @param file
+   *          the file to write
+   * @param content
+   *          the content to write
+   * @return <code>true</code> if the file has been written, <code>false</code> if it was up to date
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  boolean writeIfChanged(final File file, final byte[] content) throws IOException {
+    if (file.isFile() && file.length() == content.length && Arrays.equals(Digests.readFile(file), content)) {
+      return false;
+    }
+    createDirectories(file.getParentFile());
+    OutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+    return true;
+  }
+
+  /**
+   * Builds a fingerprint of a properties file, which changes whenever the file's content or anything else that
+   * influences the generated enum changes.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param sourceDigest
+   *          digest of the properties file's content
+   * @return the fingerprint
+   */
+  String buildFingerprint(final File propertiesFile, final String sourceDigest) {
+    String projectBaseDir = project != null ? project.getBasedir().getAbsolutePath() : null;
+    return Digests.digest(PLUGIN_VERSION, propertiesFile.getAbsolutePath(), getBaseDir(propertiesFile),
+        projectBaseDir, compiledBundles, encodedKeys, enumFieldPattern, enumJavadoc, flightRecorderEvents,
+        flightRecorderThreshold, gzipJsonCatalogs, implement, jsonCatalogDirectory, keyIds, lineLength, packageName,
+        prefix, prefixedOnly, prefixQueries, runtime, targetEncoding, typedAccessors, usageCounters, valueTypes,
+        sourceDigest);
+  }
+
+  /**
+   * Builds the {@link GenerationCache} key of a properties file. Unlike {@link #buildFingerprint(File, String)}, it
+   * doesn't contain any absolute paths, so that it is the same in every checkout.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param sourceDigest
+   *          digest of the properties file's content
+   * @param targetFile
+   *          the enum's target file
+   * @return the cache key
+   */
+  String buildCacheKey(final File propertiesFile, final String sourceDigest, final File targetFile) {
+    return Digests.digest(PLUGIN_VERSION, buildSourcePath(propertiesFile), getPackageName(propertiesFile),
+        buildBaseName(getBaseDir(propertiesFile), propertiesFile), targetFile.getName(), encodedKeys, enumFieldPattern,
+        enumJavadoc, flightRecorderEvents, flightRecorderThreshold, implement, keyIds, lineLength, prefix, prefixedOnly,
+        prefixQueries, runtime, targetEncoding, typedAccessors, usageCounters, valueTypes, sourceDigest);
+  }
+
+  /**
+   * @return the generation cache, or <code>null</code> if {@link #cacheDirectory} is not set
+   */
+  private GenerationCache getGenerationCache() {
+    if (generationCache == null && cacheDirectory != null) {
+      generationCache = new GenerationCache(new File(cacheDirectory), cacheMaxSize);
+    }
+    return generationCache;
+  }
+
+  /**
+   * Reads the version of this plugin from the Maven metadata in its JAR.
+   * 
+   * @return the plugin version, or "unknown" if it could not be read
+   */
+  private static String readPluginVersion() {
+    InputStream in = EnumGenerator.class
+        .getResourceAsStream("/META-INF/maven/com.googlecode.maven-properties-enum-plugin/maven-properties-enum-plugin"
+            + "/pom.properties");
+    if (in == null) {
+      return "unknown";
+    }
+    try {
+      try {
+        Properties properties = new Properties();
+        properties.load(in);
+        return properties.getProperty("version", "unknown");
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      return "unknown";
+    }
+  }
+
+  /**
+   * Verifies that the generated enums of all configured properties files are up to date, without writing anything.
+   * If the build state recorded by a previous generation shows that neither the properties file nor the generated
+   * file has changed since, the enum is not rendered at all. The properties files are checked in parallel.
+   * 
+   * @param threads
+   *          the number of threads to use
+   * @return a description of each problem found, empty if all enums are up to date
+   * @throws IOException
+   *           if the properties files could not be resolved
+   * @throws InterruptedException
+   *           if the thread was interrupted while waiting for the checks to finish
+   */
+  public List<String> check(final int threads) throws IOException, InterruptedException {
+    List<File> sourceFiles = findSourceFiles();
+    final BuildManifest manifest = getBuildManifest();
+
+    List<String> problems = new ArrayList<String>();
+    if (mergeGroups != null) {
+      for (MergeGroup mergeGroup : mergeGroups) {
+        try {
+          for (Entry<File, byte[]> mergedFile : renderMergedBundles(mergeGroup).entrySet()) {
+            if (!mergedFile.getKey().isFile()
+                || !Arrays.equals(mergedFile.getValue(), Digests.readFile(mergedFile.getKey()))) {
+              problems.add(mergedFile.getKey().getAbsolutePath() + " is not up to date with "
+                  + mergeGroup.getFiles());
+            }
+          }
+        } catch (InvalidPropertyKeyException e) {
+          problems.add(e.getMessage());
+        } catch (DuplicateEnumFieldException e) {
+          problems.add(e.getMessage());
+        }
+      }
+    }
+    try {
+      Set<String> unknownKeys = findUnknownValueTypeKeys(sourceFiles);
+      if (!unknownKeys.isEmpty()) {
+        problems.add("The valueTypes of " + unknownKeys + " don't belong to a key of the properties files");
+      }
+    } catch (InvalidPropertyKeyException e) {
+      problems.add(e.getMessage());
+    }
+    Map<File, byte[]> projectOutputs = new LinkedHashMap<File, byte[]>();
+    try {
+      projectOutputs = renderProjectOutputs(sourceFiles);
+    } catch (InvalidPropertyKeyException e) {
+      problems.add(e.getMessage());
+    }
+    for (Entry<File, byte[]> output : projectOutputs.entrySet()) {
+      if (!output.getKey().isFile() || !Arrays.equals(output.getValue(), Digests.readFile(output.getKey()))) {
+        problems.add(output.getKey().getAbsolutePath() + " is not up to date");
+      }
+    }
+    if (manifest != null) {
+      Set<File> expectedOutputs = new HashSet<File>();
+      for (File output : projectOutputs.keySet()) {
+        expectedOutputs.add(output.getAbsoluteFile());
+      }
+      for (File output : manifest.getOutputs(getProjectOutputsKey())) {
+        if (!expectedOutputs.contains(output) && output.exists()) {
+          problems.add(output.getAbsolutePath() + " is stale, it is not generated anymore");
+        }
+      }
+      Set<File> removedFiles = new HashSet<File>(manifest.getInputs());
+      removedFiles.removeAll(sourceFiles);
+      removedFiles.remove(getProjectOutputsKey());
+      for (File removedFile : removedFiles) {
+        for (File output : manifest.getOutputs(removedFile)) {
+          if (output.exists()) {
+            problems.add(output.getAbsolutePath() + " is stale, its properties file " + removedFile.getAbsolutePath()
+                + " does not exist anymore");
+          }
+        }
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, sourceFiles.size())));
+    try {
+      List<Future<String>> results = new ArrayList<Future<String>>();
+      for (final File sourceFile : sourceFiles) {
+        results.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            return checkEnumFile(sourceFile, manifest);
+          }
+        }));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          String problem = results.get(i).get();
+          if (problem != null) {
+            problems.add(problem);
+          }
+        } catch (ExecutionException e) {
+          problems.add(sourceFiles.get(i).getAbsolutePath() + " could not be checked: " + e.getCause().getMessage());
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return problems;
+  }
+
+  /**
+   * Verifies that the generated enum of a properties file is up to date.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param manifest
+   *          the build manifest, or <code>null</code> if no build state is kept
+   * @return a description of the problem, or <code>null</code> if the enum is up to date
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   */
+  String checkEnumFile(final File propertiesFile, final BuildManifest manifest) throws IOException,
+      InvalidPropertyKeyException {
+    File targetFile = getTargetFile(propertiesFile);
+    File constantsFile = keyConstants ? buildKeyConstantsFile(targetFile) : null;
+    if (!targetFile.isFile()) {
+      return targetFile.getAbsolutePath() + " has not been generated for " + propertiesFile.getAbsolutePath();
+    }
+    if (constantsFile != null && !constantsFile.isFile()) {
+      return constantsFile.getAbsolutePath() + " has not been generated for " + propertiesFile.getAbsolutePath();
+    }
+
+    Map<String, byte[]> localizedSources = compiledBundles || jsonCatalogDirectory != null
+        ? readLocalizedSources(propertiesFile) : null;
+    List<File> outputFiles = new ArrayList<File>();
+    if (localizedSources != null) {
+      for (String path : localizedSources.keySet()) {
+        if (compiledBundles) {
+          outputFiles.add(buildCompiledBundleFile(path));
+        }
+        if (jsonCatalogDirectory != null) {
+          File catalogFile = buildJsonCatalogFile(path);
+          outputFiles.add(catalogFile);
+          if (gzipJsonCatalogs) {
+            outputFiles.add(new File(catalogFile.getPath() + ".gz"));
+          }
+        }
+      }
+    }
+    Map<File, byte[]> actualOutputs = new LinkedHashMap<File, byte[]>();
+    for (File outputFile : outputFiles) {
+      if (!outputFile.isFile()) {
+        return outputFile.getAbsolutePath() + " has not been generated for " + propertiesFile.getAbsolutePath();
+      }
+      actualOutputs.put(outputFile, Digests.readFile(outputFile));
+    }
+
+    PropertiesBundle bundle = loadBundle(propertiesFile, createFileReport(propertiesFile, targetFile));
+    KeyIdRegistry keyIdRegistry = keyIds ? loadKeyIds(propertiesFile) : null;
+    if (keyIdRegistry != null) {
+      for (String key : bundle.getKeys()) {
+        if (keyIdRegistry.getId(key) == 0) {
+          return keyIdRegistry.getFile().getAbsolutePath() + " has no ID for key \"" + key + "\" of "
+              + propertiesFile.getAbsolutePath();
+        }
+      }
+    }
+    byte[] actualContent = Digests.readFile(targetFile);
+    byte[] actualConstantsContent = constantsFile != null ? Digests.readFile(constantsFile) : null;
+    String fingerprint = buildFingerprint(propertiesFile,
+        buildSourceDigest(bundle, localizedSources, keyIdRegistry));
+    if (manifest != null && fingerprint.equals(manifest.getFingerprint(propertiesFile))
+        && Digests.digest(actualContent).equals(manifest.getFingerprint(targetFile))
+        && (constantsFile == null || Digests.digest(actualConstantsContent).equals(
+            manifest.getFingerprint(constantsFile)))) {
+      boolean upToDate = true;
+      for (Entry<File, byte[]> output : actualOutputs.entrySet()) {
+        upToDate &= Digests.digest(output.getValue()).equals(manifest.getFingerprint(output.getKey()));
+      }
+      if (upToDate) {
+        return null;
+      }
+    }
+
+    byte[] expectedContent = renderEnumFile(propertiesFile, bundle, targetFile).getBytes(targetEncoding);
+    if (!Arrays.equals(expectedContent, actualContent)) {
+      return targetFile.getAbsolutePath() + " is not up to date with " + propertiesFile.getAbsolutePath();
+    }
+    if (constantsFile != null) {
+      expectedContent = renderKeyConstantsFile(propertiesFile, bundle, targetFile).getBytes(targetEncoding);
+      if (!Arrays.equals(expectedContent, actualConstantsContent)) {
+        return constantsFile.getAbsolutePath() + " is not up to date with " + propertiesFile.getAbsolutePath();
+      }
+    }
+    Map<File, byte[]> expectedOutputs = new LinkedHashMap<File, byte[]>();
+    if (compiledBundles) {
+      for (Entry<File, String> bundleClass : renderCompiledBundles(propertiesFile, bundle, localizedSources,
+          targetFile).entrySet()) {
+        expectedOutputs.put(bundleClass.getKey(), bundleClass.getValue().getBytes(targetEncoding));
+      }
+    }
+    if (jsonCatalogDirectory != null) {
+      expectedOutputs.putAll(renderJsonCatalogs(propertiesFile, localizedSources));
+    }
+    for (Entry<File, byte[]> output : expectedOutputs.entrySet()) {
+      if (!Arrays.equals(output.getValue(), actualOutputs.get(output.getKey()))) {
+        return output.getKey().getAbsolutePath() + " is not up to date with " + propertiesFile.getAbsolutePath();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Writes copies of all configured properties files and their localized variants that only contain the keys whose
+   * enum constants are referenced by compiled classes, the same constants {@link #writeEnumFields} produced. Keys that
+   * are not part of the enum, e.g. because of {@link #prefixedOnly}, are always kept, as well as the keys whose values
+   * the {@link #typedAccessors} parse when the enum is loaded. The copies are written to the
+   * same path relative to the output directory as the properties file has relative to its base directory.
+   * 
+   * @param classesDirectory
+   *          the directory containing the compiled classes
+   * @param outputDirectory
+   *          the directory to write the shrunk properties files to
+   * @param threads
+   *          the number of threads used to scan the class files
+   * @return the unreferenced keys of each properties file, which have been removed from the copies
+   * @throws IOException
+   *           if an I/O error occurred
+   * @throws InvalidPropertyKeyException
+   *           if a property key is invalid, so that the generated enum field name does not match the pattern
+   *           {@link #enumFieldPattern}
+   * @throws InterruptedException
+   *           if the thread was interrupted while waiting for the scan to finish
+   */
+  public Map<File, List<String>> shrink(final File classesDirectory, final File outputDirectory, final int threads)
+      throws IOException, InvalidPropertyKeyException, InterruptedException {
+    Map<File, String> enumTypeNames = new LinkedHashMap<File, String>();
+    List<String> generatedClassNames = new ArrayList<String>();
+    for (File sourceFile : getSourceFiles()) {
+      String enumTypeName = buildEnumTypeName(getTargetFile(sourceFile));
+      String enumPackageName = getPackageName(sourceFile);
+      if (enumPackageName.length() > 0) {
+        enumTypeName = enumPackageName.replace('.', '/') + '/' + enumTypeName;
+      }
+      enumTypeNames.put(sourceFile, enumTypeName);
+      if (keyConstants) {
+        generatedClassNames.add(enumTypeName + KEY_CONSTANTS_SUFFIX);
+      }
+      if (compiledBundles) {
+        for (String path : findCompiledBundlePaths(sourceFile)) {
+          generatedClassNames.add(path.substring(0, path.length() - ".properties".length()));
+        }
+      }
+    }
+    ClassFileScanner scanner = new ClassFileScanner(enumTypeNames.values(), generatedClassNames);
+    scanner.scanDirectory(classesDirectory, threads);
+
+    Map<File, List<String>> unreferencedKeys = new LinkedHashMap<File, List<String>>();
+    for (Entry<File, String> entry : enumTypeNames.entrySet()) {
+      File sourceFile = entry.getKey();
+      String enumTypeName = entry.getValue();
+      List<String> keys = new ArrayList<String>();
+      if (scanner.isDynamicallyUsed(enumTypeName)) {
+        logger.info("Keeping all keys of " + sourceFile.getAbsolutePath() + ", as the constants of "
+            + enumTypeName.replace('/', '.') + " are used dynamically");
+      } else {
+        PropertiesBundle bundle = loadBundle(sourceFile, createFileReport(sourceFile, getTargetFile(sourceFile)));
+        Set<String> referencedConstants = scanner.getReferencedConstants(enumTypeName);
+        Set<String> stringConstants = scanner.getStringConstants();
+        for (int i = 0; i < bundle.size(); i++) {
+          String fieldName = bundle.getFieldNames().get(i);
+          String key = bundle.getKeys().get(i);
+          boolean typedValue = typedAccessors && getValueType(key, bundle.getValues().get(i)) != ValueType.STRING;
+          if (!typedValue && !referencedConstants.contains(fieldName) && !stringConstants.contains(fieldName)
+              && !stringConstants.contains(key)) {
+            keys.add(key);
+          }
+        }
+      }
+      unreferencedKeys.put(sourceFile, keys);
+
+      Set<String> removedKeys = new HashSet<String>(keys);
+      File baseDirectory = getBaseDir(sourceFile);
+      for (String bundlePath : findLocalizedFiles(sourceFile, baseDirectory)) {
+        String content = new String(readBundleSource(baseDirectory, bundlePath), targetEncoding);
+        byte[] shrunkContent = PropertiesShrinker.removeProperties(content, removedKeys).getBytes(targetEncoding);
+        File outputFile = new File(outputDirectory, bundlePath);
+        if (writeIfChanged(outputFile, shrunkContent)) {
+          logger.info("Removed " + keys.size() + " unreferenced key(s) from " + outputFile.getAbsolutePath());
+        }
+      }
+    }
+    return unreferencedKeys;
+  }
+
+  /**
+   * @param propertiesFile
+   *          a properties file, e.g. "com/example/messages.properties"
+   * @param baseDirectory
+   *          the base directory or archive of the properties file
+   * @return the path of the properties file relative to its base directory, followed by the paths of its localized
+   *         variants, e.g. "com/example/messages_de.properties"
+   * @throws IOException
+   *           if the base directory is an archive that could not be read
+   */
+  private List<String> findLocalizedFiles(final File propertiesFile, final File baseDirectory) throws IOException {
+    String path = buildRelativePath(propertiesFile, baseDirectory);
+    String fileName = propertiesFile.getName();
+    String variantPrefix = path.substring(0, path.length() - fileName.length()) + fileName.substring(0,
+        fileName.indexOf('.')) + "_";
+
+    List<String> siblings = new ArrayList<String>();
+    if (ArchiveEntries.isArchive(baseDirectory)) {
+      siblings.addAll(ArchiveEntries.list(baseDirectory));
+    } else {
+      String[] fileNames = propertiesFile.getAbsoluteFile().getParentFile().list();
+      if (fileNames != null) {
+        for (String siblingName : fileNames) {
+          siblings.add(path.substring(0, path.length() - fileName.length()) + siblingName);
+        }
+      }
+    }
+    Collections.sort(siblings);
+
+    List<String> localizedFiles = new ArrayList<String>();
+    localizedFiles.add(path);
+    for (String sibling : siblings) {
+      if (sibling.startsWith(variantPrefix) && sibling.indexOf('/', variantPrefix.length()) < 0
+          && sibling.endsWith(".properties")) {
+        localizedFiles.add(sibling);
+      }
+    }
+    return localizedFiles;
+  }
+
+  /**
+   * @param baseDirectory
+   *          a base directory or archive
+   * @param path
+   *          the path of a properties file relative to the base directory, using / as separator
+   * @return the content of the properties file
+   * @throws IOException
+   *           if the file could not be read
+   */
+  private static byte[] readBundleSource(final File baseDirectory, final String path) throws IOException {
+    if (ArchiveEntries.isArchive(baseDirectory)) {
+      return ArchiveEntries.read(baseDirectory, path);
+    }
+    return Digests.readFile(new File(baseDirectory, path));
+  }
+
+  /**
+   * Reads a properties file and those of its localized variants that are not processed on their own, for
+   * {@link #compiledBundles}.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @return the content of each file by its path relative to the base directory, the properties file first
+   * @throws IOException
+   *           if a file could not be read
+   */
+  private Map<String, byte[]> readLocalizedSources(final File propertiesFile) throws IOException {
+    File baseDirectory = getBaseDir(propertiesFile);
+    Map<String, byte[]> sources = new LinkedHashMap<String, byte[]>();
+    for (String path : findCompiledBundlePaths(propertiesFile)) {
+      sources.put(path, readBundleSource(baseDirectory, path));
+    }
+    return sources;
+  }
+
+  /**
+   * @param propertiesFile
+   *          the properties file
+   * @return the paths of the properties file and those of its localized variants that are not processed on their own,
+   *         relative to the base directory, which get a {@link #compiledBundles} class
+   * @throws IOException
+   *           if the base directory is an archive that could not be read
+   */
+  private List<String> findCompiledBundlePaths(final File propertiesFile) throws IOException {
+    File baseDirectory = getBaseDir(propertiesFile);
+    List<String> paths = findLocalizedFiles(propertiesFile, baseDirectory);
+    Iterator<String> iterator = paths.listIterator(1);
+    while (iterator.hasNext()) {
+      if (sourceBaseDirs.containsKey(new File(baseDirectory, iterator.next().replace('/', File.separatorChar)))) {
+        iterator.remove();
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * @param bundle
+   *          the parsed properties file
+   * @param localizedSources
+   *          the sources read by {@link #readLocalizedSources(File)}, or <code>null</code> if they are not needed
+   * @param keyIdRegistry
+   *          the IDs of the keys, or <code>null</code> if they are not needed
+   * @return the digest of everything read to generate the files of the properties file
+   */
+  private static String buildSourceDigest(final PropertiesBundle bundle, final Map<String, byte[]> localizedSources,
+      final KeyIdRegistry keyIdRegistry) {
+    if (localizedSources == null && keyIdRegistry == null) {
+      return bundle.getSourceDigest();
+    }
+    List<Object> parts = new ArrayList<Object>();
+    parts.add(bundle.getSourceDigest());
+    if (localizedSources != null) {
+      for (Entry<String, byte[]> source : localizedSources.entrySet()) {
+        parts.add(source.getKey());
+        parts.add(Digests.digest(source.getValue()));
+      }
+    }
+    if (keyIdRegistry != null) {
+      parts.add(keyIdRegistry.render(""));
+    }
+    return Digests.digest(parts.toArray());
+  }
+
+  /**
+   * Loads the {@link #keyIds} of a properties file. The IDs of a file merged from a {@link MergeGroup} are stored below
+   * {@link #baseDir} next to the files of the group, at the target's path, as the {@link #mergeDirectory} is usually
+   * deleted by a clean build.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @return the IDs of its keys, from the {@link KeyIdRegistry} file next to it
+   * @throws IOException
+   *           if the properties file is inside of an archive, or the ID file could not be read or is malformed
+   */
+  private KeyIdRegistry loadKeyIds(final File propertiesFile) throws IOException {
+    MergeGroup mergeGroup = findMergeGroup(propertiesFile);
+    File baseDirectory = mergeGroup != null ? new File(baseDir) : getBaseDir(propertiesFile);
+    File sourceFile = mergeGroup != null ? new File(baseDirectory, mergeGroup.getTarget().replace('/',
+        File.separatorChar)) : propertiesFile;
+    if (ArchiveEntries.isArchive(baseDirectory)) {
+      throw new IOException("Can't store the IDs of the keys of " + propertiesFile.getAbsolutePath()
+          + ", as it is inside of an archive");
+    }
+    return new KeyIdRegistry(KeyIdRegistry.buildFile(sourceFile));
+  }
+
+  /**
+   * @param path
+   *          the path of a properties file relative to its base directory, using / as separator
+   * @return the target file of its {@link #compiledBundles} class, e.g. "com/example/messages_de.java" below
+   *         {@link #generateDirectory}
+   */
+  File buildCompiledBundleFile(final String path) {
+    String classPath = path.substring(0, path.length() - ".properties".length()) + ".java";
+    return new File(generateDirectory, classPath.replace('/', File.separatorChar));
+  }
+
+  /**
+   * Renders the {@link #compiledBundles} classes of a properties file and its localized variants. The class of the
+   * properties file holds the keys of all variants, those of the enum constants first and in the same order, and maps
+   * each key to its index. The class of each variant extends it and only adds its values by index, <code>null</code>
+   * for the keys it doesn't define, so that <code>ResourceBundle</code> looks them up in the parent bundle.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param bundle
+   *          the parsed properties file
+   * @param localizedSources
+   *          the sources read by {@link #readLocalizedSources(File)}
+   * @param targetFile
+   *          the enum's target file
+   * @return the source code of each class by its target file, the class of the properties file first
+   * @throws IOException
+   *           if a source could not be parsed, or a class name is not a valid Java identifier or clashes with the enum
+   */
+  Map<File, String> renderCompiledBundles(final File propertiesFile, final PropertiesBundle bundle,
+      final Map<String, byte[]> localizedSources, final File targetFile) throws IOException {
+    Map<String, Properties> variants = parseLocalizedSources(localizedSources);
+    Set<String> otherKeys = new TreeSet<String>();
+    for (Properties properties : variants.values()) {
+      otherKeys.addAll(properties.stringPropertyNames());
+    }
+    List<String> keys = new ArrayList<String>((prefixQueries ? sortByHierarchy(bundle) : bundle).getKeys());
+    otherKeys.removeAll(keys);
+    keys.addAll(otherKeys);
+
+    Map<File, String> bundleClasses = new LinkedHashMap<File, String>();
+    String baseClassName = null;
+    for (Entry<String, Properties> variant : variants.entrySet()) {
+      String path = variant.getKey();
+      File bundleClassFile = buildCompiledBundleFile(path);
+      String className = buildEnumTypeName(bundleClassFile);
+      if (!isJavaIdentifier(className)) {
+        throw new IOException("The bundle class of " + path + " can't be generated, " + className
+            + " is not a valid Java identifier");
+      }
+      if (bundleClassFile.getAbsolutePath().equalsIgnoreCase(targetFile.getAbsolutePath())) {
+        throw new IOException("The bundle class " + bundleClassFile.getAbsolutePath() + " clashes with the enum "
+            + targetFile.getAbsolutePath() + " on case-insensitive file systems, set packageName to generate the enum"
+            + " in another package");
+      }
+      int separator = path.lastIndexOf('/');
+      String bundlePackageName = separator >= 0 ? path.substring(0, separator).replace('/', '.') : "";
+      StringWriter writer = new StringWriter();
+      writePackageDeclaration(writer, bundlePackageName);
+      if (baseClassName == null) {
+        baseClassName = className;
+        writeCompiledBundleClass(writer, path, className, keys, variant.getValue());
+      } else {
+        writeCompiledBundleVariant(writer, path, className, baseClassName, keys, variant.getValue());
+      }
+      bundleClasses.put(bundleClassFile, writer.toString());
+    }
+    return bundleClasses;
+  }
+
+  /**
+   * @param localizedSources
+   *          the sources read by {@link #readLocalizedSources(File)}
+   * @return the parsed properties of each source, by path
+   * @throws IOException
+   *           if a source could not be parsed
+   */
+  private Map<String, Properties> parseLocalizedSources(final Map<String, byte[]> localizedSources)
+      throws IOException {
+    Map<String, Properties> variants = new LinkedHashMap<String, Properties>();
+    for (Entry<String, byte[]> source : localizedSources.entrySet()) {
+      Properties properties = new Properties();
+      properties.load(new InputStreamReader(new ByteArrayInputStream(source.getValue()), targetEncoding));
+      variants.put(source.getKey(), properties);
+    }
+    return variants;
+  }
+
+  /**
+   * @param path
+   *          the path of a properties file relative to its base directory, using / as separator
+   * @return the target file of its {@link #jsonCatalogDirectory JSON catalog}, e.g. "com/example/messages_de.json"
+   *         below {@link #jsonCatalogDirectory}
+   */
+  File buildJsonCatalogFile(final String path) {
+    String catalogPath = path.substring(0, path.length() - ".properties".length()) + ".json";
+    return new File(jsonCatalogDirectory, catalogPath.replace('/', File.separatorChar));
+  }
+
+  /**
+   * Renders the {@link #jsonCatalogDirectory JSON catalogs} of a properties file and its localized variants. The
+   * catalog of a variant contains the values of its parents it does not override, like a <code>ResourceBundle</code>,
+   * e.g. the one of <code>messages_de_CH</code> those of <code>messages_de</code> and <code>messages</code>.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @param localizedSources
+   *          the sources read by {@link #readLocalizedSources(File)}
+   * @return the content of each catalog, and of its gzip compressed copy if {@link #gzipJsonCatalogs} is set, by
+   *         target file
+   * @throws IOException
+   *           if a source could not be parsed
+   */
+  Map<File, byte[]> renderJsonCatalogs(final File propertiesFile, final Map<String, byte[]> localizedSources)
+      throws IOException {
+    Map<String, Properties> variants = parseLocalizedSources(localizedSources);
+    for (Properties properties : variants.values()) {
+      filterProperties(properties);
+    }
+    String basePath = variants.keySet().iterator().next();
+    String baseName = basePath.substring(0, basePath.lastIndexOf('/') + 1 + propertiesFile.getName().indexOf('.'));
+
+    Map<File, byte[]> catalogs = new LinkedHashMap<File, byte[]>();
+    for (String path : variants.keySet()) {
+      SortedMap<String, String> values = new TreeMap<String, String>();
+      putAll(values, variants.get(basePath));
+      String[] localeParts = path.substring(baseName.length(), path.length() - ".properties".length()).split("_");
+      StringBuilder parentPath = new StringBuilder(baseName);
+      for (int i = 1; i < localeParts.length; i++) {
+        parentPath.append('_').append(localeParts[i]);
+        Properties parent = variants.get(parentPath + ".properties");
+        if (parent != null) {
+          putAll(values, parent);
+        }
+      }
+
+      StringBuilder json = new StringBuilder("{");
+      for (Entry<String, String> value : values.entrySet()) {
+        if (json.length() > 1) {
+          json.append(',');
+        }
+        json.append(GenerationReport.quote(value.getKey())).append(':').append(GenerationReport.quote(
+            value.getValue()));
+      }
+      byte[] content = json.append('}').toString().getBytes("UTF-8");
+      File catalogFile = buildJsonCatalogFile(path);
+      catalogs.put(catalogFile, content);
+      if (gzipJsonCatalogs) {
+        catalogs.put(new File(catalogFile.getPath() + ".gz"), gzip(content));
+      }
+    }
+    return catalogs;
+  }
+
+  /**
+   * @param values
+   *          the map to put the properties into
+   * @param properties
+   *          the properties
+   */
+  private static void putAll(final Map<String, String> values, final Properties properties) {
+    for (String key : properties.stringPropertyNames()) {
+      values.put(key, properties.getProperty(key));
+    }
+  }
+
+  /**
+   * @param content
+   *          the content to compress
+   * @return the content compressed with the best gzip compression. The header contains no time stamp, so the result
+   *         only depends on the content.
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  static byte[] gzip(final byte[] content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2 + 32);
+    GZIPOutputStream out = new GZIPOutputStream(bytes) {
+      {
+        def.setLevel(Deflater.BEST_COMPRESSION);
+      }
+    };
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Writes the {@link #compiledBundles} class of a properties file.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param path
+   *          the path of the properties file relative to its base directory
+   * @param className
+   *          the class's name, the bundle's name
+   * @param keys
+   *          the keys of the bundle and all of its localized variants
+   * @param properties
+   *          the properties of the properties file
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private void writeCompiledBundleClass(final Writer writer, final String path, final String className,
+      final List<String> keys, final Properties properties) throws IOException {
+    writer.append(buildJavadoc("The values of " + path + ", compiled so that java.util.ResourceBundle.getBundle() loads"
+        + " them without parsing the properties file.", "", lineLength));
+    writer.append("public class ").append(className).append(" extends java.util.ResourceBundle {\n\n");
+    writer.append(buildJavadoc("The keys of the bundle and all of its localized variants, those of the enum constants"
+        + " first, in their order.", "  ", lineLength));
+    writeStringArray(writer, "  static final String[] KEYS", keys, null);
+    writer.append(buildJavadoc("The values by index in {@link #KEYS}, <code>null</code> for keys only localized"
+        + " variants define.", "  ", lineLength));
+    writeStringArray(writer, "  private static final String[] VALUES", keys, properties);
+    writer.append(String.format(COMPILED_BUNDLE_METHODS, className));
+    writer.append("}\n");
+  }
+
+  /**
+   * Writes the {@link #compiledBundles} class of a localized variant of a properties file.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param path
+   *          the path of the localized variant relative to its base directory
+   * @param className
+   *          the class's name, the localized bundle's name
+   * @param baseClassName
+   *          the name of the class of the properties file
+   * @param keys
+   *          the keys of the bundle and all of its localized variants
+   * @param properties
+   *          the properties of the localized variant
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private void writeCompiledBundleVariant(final Writer writer, final String path, final String className,
+      final String baseClassName, final List<String> keys, final Properties properties) throws IOException {
+    writer.append(buildJavadoc("The values of " + path + ", compiled so that java.util.ResourceBundle.getBundle() loads"
+        + " them without parsing the properties file.", "", lineLength));
+    writer.append("public class ").append(className).append(" extends ").append(baseClassName).append(" {\n\n");
+    writer.append(buildJavadoc("The values by index in {@link " + baseClassName + "#KEYS}, <code>null</code> for keys"
+        + " this bundle doesn't define.", "  ", lineLength));
+    writeStringArray(writer, "  private static final String[] VALUES", keys, properties);
+    writer.append(buildJavadoc("Constructs a new {@link " + className + "}, called by"
+        + " java.util.ResourceBundle.getBundle().", "  ", lineLength));
+    writer.append("  public ").append(className).append("() {\n    super(VALUES);\n  }\n}\n");
+  }
+
+  /**
+   * Writes a string array, one element per line.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param declaration
+   *          the array's declaration
+   * @param keys
+   *          the keys
+   * @param properties
+   *          the properties to write the value of each key of, <code>null</code> to write the keys themselves
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private static void writeStringArray(final Writer writer, final String declaration, final List<String> keys,
+      final Properties properties) throws IOException {
+    writer.append(declaration).append(" = {");
+    String separator = "\n      ";
+    for (String key : keys) {
+      String element = properties != null ? properties.getProperty(key) : key;
+      writer.append(separator).append(element != null ? buildStringLiteral(element) : "null");
+      separator = ",\n      ";
+    }
+    writer.append("};\n\n");
+  }
+
+  /**
+   * @param string
+   *          a string
+   * @return the string as Java string literal, with all characters outside of printable ASCII escaped, so that it
+   *         doesn't depend on {@link #targetEncoding}
+   */
+  static String buildStringLiteral(final String string) {
+    StringBuilder builder = new StringBuilder(string.length() + 2);
+    builder.append('"');
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      } else if (c == '\n') {
+        builder.append("\\n");
+      } else if (c == '\r') {
+        builder.append("\\r");
+      } else if (c == '\t') {
+        builder.append("\\t");
+      } else if (c < ' ') {
+        // unicode escapes of line terminators would end the literal, so use an octal escape
+        builder.append(String.format("\\%03o", (int) c));
+      } else if (c > '~') {
+        builder.append(String.format("\\u%04x", (int) c));
+      } else {
+        builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  /**
+   * @param name
+   *          a name
+   * @return <code>true</code> if the name is a valid Java identifier
+   */
+  private static boolean isJavaIdentifier(final String name) {
+    if (name.length() == 0 || !Character.isJavaIdentifierStart(name.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Normalizes the configured directories.
+   * 
+   * @throws FileNotFoundException
+   *           if {@link #baseDir} refers to a dependency that could not be found
+   */
+  private void prepare() throws FileNotFoundException {
+    // Normalize directories
+    baseDir = resolveBaseDir(baseDir).getAbsolutePath();
+    generateDirectory = new File(generateDirectory).getAbsolutePath();
+  }
+
+  /**
+   * Resolves a configured base directory, which is either a directory, an archive or a dependency of the project, like
+   * "dependency:com.example:messages".
+   * 
+   * @param directory
+   *          the configured base directory
+   * @return the directory, or the archive of the dependency
+   * @throws FileNotFoundException
+   *           if the directory refers to a dependency that could not be found
+   */
+  File resolveBaseDir(final String directory) throws FileNotFoundException {
+    if (!directory.startsWith(DEPENDENCY_PREFIX)) {
+      return new File(directory).getAbsoluteFile();
+    }
+    String coordinates = directory.substring(DEPENDENCY_PREFIX.length());
+    if (project != null) {
+      for (Object object : project.getArtifacts()) {
+        Artifact artifact = (Artifact) object;
+        if (coordinates.equals(artifact.getGroupId() + ":" + artifact.getArtifactId()) && artifact.getFile() != null) {
+          return artifact.getFile().getAbsoluteFile();
+        }
+      }
+    }
+    throw new FileNotFoundException("The dependency " + coordinates
+        + " could not be found, it must be a resolved dependency of the project");
+  }
+
+  /**
+   * Word wrapping. Fails if a string is longer than <code>length</code> characters (I guess this string won't be
+   * returned then).
+   * 
+   * @param string
+   *          the string to wrap
    * @param length
    *          the maximum line length
    * @return wrapped lines
    */
   List<String> wordWrap(final String string, final int length) {
-    Pattern pattern = Pattern.compile("(.{1," + length + "})(?:[\\s]|$)|([\\S]{" + length + ",})");
+    Pattern pattern = wordWrapPatterns.get(length);
+    if (pattern == null) {
+      pattern = Pattern.compile("(.{1," + length + "})(?:[\\s]|$)|([\\S]{" + length + ",})");
+      wordWrapPatterns.put(length, pattern);
+    }
     Matcher m = pattern.matcher(string);
 
     List<String> list = new LinkedList<String>();
@@ -488,30 +2969,26 @@ public class EnumGenerator {
    *          the property's key
    * @param value
    *          the property's value
+   * @param enumFieldName
+   *          the enum field name built from the key
    * @param writer
    *          the Writer to use
    * @param isLast
    *          <code>true</code> if this is the last enum field, <code>false</code> otherwise
-   * @param enumTypeName
-   *          the name of the target enum type
+   * @param declaredFieldNames
+   *          the property keys of the fields already declared in the enum, by enum field name. Each render of an enum
+   *          has its own map, so that enums rendered in parallel don't interfere.
    * @throws IOException
    *           if an I/O error occurred
-   * @throws InvalidPropertyKeyException
-   *           if the property key is invalid, so that the generated enum field name does not match the pattern
-   *           {@link #enumFieldPattern}
    */
-  void writeEnumField(final String key, final String value, final Writer writer, final boolean isLast,
-      String enumTypeName)
-      throws IOException, InvalidPropertyKeyException {
-    String enumFieldName = buildEnumFieldName(key);
-
-    String fieldIdentifier = String.format("%s.%s", enumTypeName, enumFieldName);
-
-    if (generatedEnumFieldNames.containsKey(fieldIdentifier)) {
-      throw new DuplicateEnumFieldException("Duplicate enum field name. Both, '" + key + "' and '"
-          + generatedEnumFieldNames.get(fieldIdentifier) + "' result in '" + enumFieldName + "'");
+  void writeEnumField(final String key, final String value, final String enumFieldName, final Writer writer,
+      final boolean isLast, final Map<String, String> declaredFieldNames)
+      throws IOException {
+    String previousKey = declaredFieldNames.put(enumFieldName, key);
+    if (previousKey != null) {
+      throw new DuplicateEnumFieldException("Duplicate enum field name. Both, '" + key + "' and '" + previousKey
+          + "' result in '" + enumFieldName + "'");
     }
-    generatedEnumFieldNames.put(fieldIdentifier, key);
 
     String description = String.format(enumJavadoc, key, value);
     String javadoc = buildJavadoc(description, "  ", lineLength);
@@ -519,9 +2996,11 @@ public class EnumGenerator {
     writer.append(javadoc);
     writer.append("  ");
     writer.append(enumFieldName);
-    writer.append("(\"");
-    writer.append(key);
-    writer.append("\")");
+    if (!runtime) {
+      writer.append("(");
+      writer.append(buildStringLiteral(key));
+      writer.append(")");
+    }
 
     if (!isLast) {
       writer.append(",\n\n");
@@ -533,29 +3012,37 @@ public class EnumGenerator {
    * 
    * @param writer
    *          the {@link Writer} to use
-   * @param properties
-   *          the properties to generate enum fields for
-   * @param enumTypeName
-   *          the name of the target enum type
+   * @param bundle
+   *          the parsed properties to generate enum fields for
    * @throws IOException
    *           if an I/O error occurred
-   * @throws InvalidPropertyKeyException
-   *           if a property key is invalid, so that the generated enum field name does not match the pattern
-   *           {@link #enumFieldPattern}
    */
-  private void writeEnumFields(final Writer writer, final Properties properties, String enumTypeName)
-      throws IOException,
-      InvalidPropertyKeyException {
-    Iterator<Entry<Object, Object>> iterator = properties.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Entry<Object, Object> entry = iterator.next();
-      String key = entry.getKey().toString();
-
-      writeEnumField(key, entry.getValue().toString(), writer, !iterator.hasNext(), enumTypeName);
+  private void writeEnumFields(final Writer writer, final PropertiesBundle bundle) throws IOException {
+    Map<String, String> declaredFieldNames = new HashMap<String, String>();
+    for (int i = 0; i < bundle.size(); i++) {
+      writeEnumField(bundle.getKeys().get(i), bundle.getValues().get(i), bundle.getFieldNames().get(i), writer,
+          i == bundle.size() - 1, declaredFieldNames);
     }
     writer.append(";\n\n");
   }
 
+  /**
+   * Builds the path of the properties file relative to the project's base directory, as shown in the enum's javadoc.
+   * 
+   * @param propertiesFile
+   *          the properties file
+   * @return e.g. "/src/main/resources/com/example/File.properties"
+   */
+  String buildSourcePath(final File propertiesFile) {
+    File baseDirectory = getBaseDir(propertiesFile);
+    if (ArchiveEntries.isArchive(baseDirectory)) {
+      return baseDirectory.getName() + ArchiveEntries.SEPARATOR + buildRelativePath(propertiesFile, baseDirectory);
+    }
+    // As it's javadoc, we want to have / in the path
+    String projectBaseDir = project.getBasedir().getAbsolutePath();
+    return propertiesFile.getAbsolutePath().replace(projectBaseDir, "").replace(File.separatorChar, '/');
+  }
+
   /**
    * @param writer
    *          the Writer to use
@@ -567,9 +3054,7 @@ public class EnumGenerator {
   void writeEnumTypeJavadoc(final Writer writer, final File propertiesFile) throws IOException {
     StringBuilder builder = new StringBuilder("Auto generated enum type for property file ");
     builder.append("\"");
-    // As it's javadoc, we want to have / in the path
-    String projectBaseDir = project.getBasedir().getAbsolutePath();
-    builder.append(propertiesFile.getAbsolutePath().replace(projectBaseDir, "").replace(File.separatorChar, '/'));
+    builder.append(buildSourcePath(propertiesFile));
     builder.append("\".");
     String description = builder.toString();
 
@@ -588,13 +3073,74 @@ public class EnumGenerator {
   void writeEnumTypeSignature(final Writer writer, final String name) throws IOException {
     writer.append("public enum ");
     writer.append(name);
-    if (implement != null) {
+    if (runtime) {
+      writer.append(" implements ");
+      writer.append(RUNTIME_PACKAGE);
+      writer.append(".PropertyKey");
+      if (implement != null) {
+        writer.append(", ");
+        writer.append(implement);
+      }
+    } else if (implement != null) {
       writer.append(" implements ");
       writer.append(implement);
     }
     writer.append(" {\n\n");
   }
 
+  /**
+   * Writes the descriptor of an enum type that uses the runtime artifact, and the method returning it.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the enum type's name
+   * @param propertiesFile
+   *          the current properties file, needed to create the base name from
+   * @param bundle
+   *          the parsed properties, whose keys are listed in the order of the enum constants
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writeDescriptor(final Writer writer, final String enumTypeName, final File propertiesFile,
+      final PropertiesBundle bundle) throws IOException {
+    String baseName = buildBaseName(getBaseDir(propertiesFile), propertiesFile);
+    String javadoc = buildJavadoc("The base name and the property key of each constant, by ordinal.", "  ",
+        lineLength);
+    writer.append(javadoc);
+    writer.append("  private static final ");
+    writer.append(RUNTIME_PACKAGE);
+    writer.append(".EnumDescriptor DESCRIPTOR =\n      new ");
+    writer.append(RUNTIME_PACKAGE);
+    writer.append(".EnumDescriptor(");
+    writer.append(enumTypeName);
+    writer.append(".class,\n          \"");
+    writer.append(baseName);
+    writer.append('"');
+    for (String key : bundle.getKeys()) {
+      writer.append(",\n          ");
+      writer.append(buildStringLiteral(key));
+    }
+    writer.append(");\n\n");
+    writer.append(DESCRIPTOR_METHOD);
+  }
+
+  /**
+   * Writes the methods an enum type that uses the runtime artifact can't inherit from <code>PropertyKey</code>.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writeRuntimeMethods(final Writer writer) throws IOException {
+    writer.append(RUNTIME_TO_STRING_METHOD);
+    if (implement != null) {
+      writer.append("\n");
+      writer.append(RUNTIME_KEY_METHOD);
+    }
+  }
+
   /**
    * Writes the method to get the base name (the properties file).
    * 
@@ -606,7 +3152,7 @@ public class EnumGenerator {
    *           if an I/O error occurred
    */
   void writeGetBaseNameMethod(final Writer writer, final File propertiesFile) throws IOException {
-    String baseName = buildBaseName(new File(baseDir), propertiesFile);
+    String baseName = buildBaseName(getBaseDir(propertiesFile), propertiesFile);
     String javadoc = buildJavadoc("@return the source properties file's base name", "  ", lineLength);
     writer.append(javadoc);
     writer.append(String.format(GET_BASE_NAME_METHOD, baseName));
@@ -649,7 +3195,7 @@ public class EnumGenerator {
   void writeToStringMethod(final Writer writer) throws IOException {
     String javadoc = buildJavadoc("@return the property key.", "  ", lineLength);
     writer.append(javadoc);
-    writer.append(TO_STRING_METHOD);
+    writer.append(String.format(TO_STRING_METHOD, getCountUsage()));
   }
 
   /**
@@ -661,6 +3207,491 @@ public class EnumGenerator {
   void writeKeyMethod(final Writer writer, boolean override) throws IOException {
     String javadoc = buildJavadoc("@return the property key.", "  ", lineLength);
     writer.append(javadoc);
-    writer.append(String.format(KEY_METHOD, AT_OVERRIDE));
+    writer.append(String.format(KEY_METHOD, AT_OVERRIDE, getCountUsage()));
+  }
+
+  /**
+   * Writes the resource bundle lookup method, instrumented with JDK Flight Recorder events.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writeFlightRecorderSupport(final Writer writer) throws IOException {
+    writer.append(String.format(FLIGHT_RECORDER_SUPPORT, flightRecorderThreshold, getCountUsage()));
+  }
+
+  /**
+   * Writes the prefix index and the <code>withPrefix(String)</code> method.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the name of the enum type
+   * @param bundle
+   *          the parsed properties, sorted in {@link KeyHierarchy#SEGMENT_ORDER}
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writePrefixQueries(final Writer writer, final String enumTypeName, final PropertiesBundle bundle)
+      throws IOException {
+    StringBuilder prefixes = new StringBuilder();
+    StringBuilder ranges = new StringBuilder();
+    for (Entry<String, int[]> entry : KeyHierarchy.buildRanges(bundle.getKeys()).entrySet()) {
+      String separator = prefixes.length() == 0 ? "\n      " : ",\n      ";
+      prefixes.append(separator).append(buildStringLiteral(entry.getKey()));
+      ranges.append(separator).append(entry.getValue()[0]).append(", ").append(entry.getValue()[1]);
+    }
+    if (prefixes.length() > 0) {
+      prefixes.append("\n  ");
+      ranges.append("\n  ");
+    }
+    writer.append(String.format(PREFIX_QUERIES, enumTypeName, prefixes, ranges));
+  }
+
+  /**
+   * Writes the UTF-8 encoded keys, their hashes and the methods to copy them, see {@link #ENCODED_KEYS}.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the name of the enum type
+   * @param bundle
+   *          the parsed properties, in the order of the enum constants
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writeEncodedKeys(final Writer writer, final String enumTypeName, final PropertiesBundle bundle)
+      throws IOException {
+    StringBuilder hashes = new StringBuilder();
+    for (int i = 0; i < bundle.size(); i++) {
+      hashes.append(i % 8 == 0 ? "\n      " : " ");
+      hashes.append(String.format("0x%08x,", hashKey(bundle.getKeys().get(i))));
+    }
+    if (hashes.length() > 0) {
+      hashes.setLength(hashes.length() - 1);
+    }
+    String key = runtime ? "constants[i].key()" : "constants[i].originalKey";
+    writer.append(String.format(ENCODED_KEYS, enumTypeName, key, hashes, getCountUsage()));
+  }
+
+  /**
+   * Writes the permanent IDs of the keys and the methods to convert between IDs and constants, see {@link #KEY_IDS}.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the name of the enum type
+   * @param bundle
+   *          the parsed properties, in the order of the enum constants
+   * @param keyIdRegistry
+   *          the IDs of the keys
+   * @throws IOException
+   *           if a key has no ID or an I/O error occurred
+   */
+  void writeKeyIds(final Writer writer, final String enumTypeName, final PropertiesBundle bundle,
+      final KeyIdRegistry keyIdRegistry) throws IOException {
+    StringBuilder ids = new StringBuilder();
+    for (int i = 0; i < bundle.size(); i++) {
+      String key = bundle.getKeys().get(i);
+      int id = keyIdRegistry.getId(key);
+      if (id == 0) {
+        throw new IOException(keyIdRegistry.getFile().getAbsolutePath() + " has no ID for key \"" + key + "\"");
+      }
+      ids.append(i % 16 == 0 ? "\n      " : " ").append(id).append(',');
+    }
+    if (ids.length() > 0) {
+      ids.setLength(ids.length() - 1);
+    }
+    writer.append(String.format(KEY_IDS, enumTypeName, ids, keyIdRegistry.getMaxId() + 1));
+  }
+
+  /**
+   * @param key
+   *          a property key
+   * @return the 32-bit FNV-1a hash of the key encoded as UTF-8
+   * @throws UnsupportedEncodingException
+   *           never, as UTF-8 is always supported
+   */
+  static int hashKey(final String key) throws UnsupportedEncodingException {
+    int hash = FNV_OFFSET_BASIS;
+    for (byte b : key.getBytes("UTF-8")) {
+      hash ^= b & 0xff;
+      hash *= FNV_PRIME;
+    }
+    return hash;
+  }
+
+  /**
+   * Writes the typed accessors and the code to parse the values when the enum is loaded. Only the arrays and accessors
+   * of the types that actually occur are written, nothing at all if all values are strings.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the name of the enum type
+   * @param baseName
+   *          the base name of the properties file to load the values from
+   * @param bundle
+   *          the parsed properties, in the order of the enum constants
+   * @throws IOException
+   *           if an I/O error occurred, or if a value can't be parsed as the type configured in {@link #valueTypes}
+   */
+  void writeTypedAccessors(final Writer writer, final String enumTypeName, final String baseName,
+      final PropertiesBundle bundle) throws IOException {
+    StringBuilder codes = new StringBuilder(bundle.size());
+    Set<ValueType> types = new HashSet<ValueType>();
+    for (int i = 0; i < bundle.size(); i++) {
+      ValueType type = getValueType(bundle.getKeys().get(i), bundle.getValues().get(i));
+      if (!type.isValid(bundle.getValues().get(i))) {
+        throw new IOException("The value of key \"" + bundle.getKeys().get(i) + "\" in " + baseName + " is not a valid "
+            + type.name().toLowerCase(Locale.ENGLISH) + ": \"" + bundle.getValues().get(i) + "\"");
+      }
+      codes.append(type.getCode());
+      types.add(type);
+    }
+    types.remove(ValueType.STRING);
+    if (types.isEmpty()) {
+      return;
+    }
+    boolean longValues = types.contains(ValueType.LONG) || types.contains(ValueType.DURATION);
+
+    writer.append("\n  /**\n");
+    writer.append("   * The type of each constant's value, by ordinal: i = int, l = long, b = boolean,\n");
+    writer.append("   * d = duration in milliseconds, L = list, s = string.\n");
+    writer.append("   */\n");
+    writer.append("  private static final String VALUE_TYPES = \"").append(codes).append("\";\n");
+    if (types.contains(ValueType.INT)) {
+      writeValueArray(writer, "int values", "int[] INT_VALUES", " new int[VALUE_TYPES.length()]");
+    }
+    if (longValues) {
+      writeValueArray(writer, "long values and durations", "long[] LONG_VALUES", " new long[VALUE_TYPES.length()]");
+    }
+    if (types.contains(ValueType.BOOLEAN)) {
+      writeValueArray(writer, "boolean values", "boolean[] BOOLEAN_VALUES", " new boolean[VALUE_TYPES.length()]");
+    }
+    if (types.contains(ValueType.LIST)) {
+      writeValueArray(writer, "list values", "java.util.List<java.util.List<String>> LIST_VALUES",
+          "\n      new java.util.ArrayList<java.util.List<String>>(\n"
+              + "          java.util.Collections.<java.util.List<String>> nCopies(VALUE_TYPES.length(), null))");
+    }
+
+    String key = runtime ? "constant.key()" : "constant.originalKey";
+    writer.append("\n  static {\n");
+    writer.append("    java.util.ResourceBundle bundle = java.util.ResourceBundle.getBundle(\"").append(baseName)
+        .append("\", java.util.Locale.ROOT);\n");
+    writer.append("    for (").append(enumTypeName).append(" constant : values()) {\n");
+    writer.append("      int ordinal = constant.ordinal();\n");
+    writer.append("      char type = VALUE_TYPES.charAt(ordinal);\n");
+    writer.append("      if (type == 's') {\n        continue;\n      }\n");
+    writer.append("      String value = bundle.getString(").append(key).append(").trim();\n");
+    writer.append("      try {\n");
+    String condition = "        if";
+    if (types.contains(ValueType.INT)) {
+      writer.append(condition).append(" (type == 'i') {\n");
+      writer.append("          INT_VALUES[ordinal] = Integer.parseInt(value);\n");
+      condition = "        } else if";
+    }
+    if (types.contains(ValueType.LONG)) {
+      writer.append(condition).append(" (type == 'l') {\n");
+      writer.append("          LONG_VALUES[ordinal] = Long.parseLong(value);\n");
+      condition = "        } else if";
+    }
+    if (types.contains(ValueType.BOOLEAN)) {
+      writer.append(condition).append(" (type == 'b') {\n");
+      writer.append("          BOOLEAN_VALUES[ordinal] = Boolean.parseBoolean(value);\n");
+      condition = "        } else if";
+    }
+    if (types.contains(ValueType.DURATION)) {
+      writer.append(condition).append(" (type == 'd') {\n");
+      writer.append("          LONG_VALUES[ordinal] = parseMillis(value);\n");
+      condition = "        } else if";
+    }
+    if (types.contains(ValueType.LIST)) {
+      writer.append(condition).append(" (type == 'L') {\n");
+      writer.append("          String[] values =\n");
+      writer.append("              value.length() == 0 ? new String[0] : value.split(\"\\\\s*,\\\\s*\");\n");
+      writer.append("          LIST_VALUES.set(ordinal, java.util.Collections.unmodifiableList(");
+      writer.append("java.util.Arrays.asList(values)));\n");
+    }
+    writer.append("        }\n");
+    writer.append("      } catch (RuntimeException e) {\n");
+    writer.append("        throw new IllegalStateException(\"Invalid value of \" + ").append(key)
+        .append(" + \": \" + value, e);\n");
+    writer.append("      }\n    }\n  }\n");
+
+    if (types.contains(ValueType.DURATION)) {
+      writer.append(PARSE_MILLIS_METHOD);
+    }
+    writer.append(CHECK_VALUE_TYPE_METHOD);
+    if (types.contains(ValueType.INT)) {
+      writer.append(String.format(TYPED_ACCESSOR, "int", "Int", 'i', "INT_VALUES[ordinal()]", "int value", "int"));
+    }
+    if (types.contains(ValueType.LONG)) {
+      writer.append(String.format(TYPED_ACCESSOR, "long", "Long", 'l', "LONG_VALUES[ordinal()]", "long value",
+          "long"));
+    }
+    if (types.contains(ValueType.BOOLEAN)) {
+      writer.append(String.format(TYPED_ACCESSOR, "boolean", "Boolean", 'b', "BOOLEAN_VALUES[ordinal()]",
+          "boolean value", "boolean"));
+    }
+    if (types.contains(ValueType.DURATION)) {
+      writer.append(String.format(TYPED_ACCESSOR, "long", "Millis", 'd', "LONG_VALUES[ordinal()]",
+          "duration in milliseconds", "duration"));
+    }
+    if (types.contains(ValueType.LIST)) {
+      writer.append(String.format(TYPED_ACCESSOR, "java.util.List<String>", "List", 'L',
+          "LIST_VALUES.get(ordinal())", "unmodifiable list of comma separated values", "list"));
+    }
+  }
+
+  /**
+   * @param key
+   *          a property key
+   * @param value
+   *          the property's value
+   * @return the type of the value of {@link #typedAccessors}, taken from {@link #valueTypes} or inferred from the value
+   */
+  private ValueType getValueType(final String key, final String value) {
+    ValueType type = valueTypes.get(key);
+    return type != null ? type : ValueType.infer(value);
+  }
+
+  /**
+   * Writes the declaration of an array of parsed values.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param description
+   *          a description of the values
+   * @param declaration
+   *          the array's type and name
+   * @param initializer
+   *          the code creating the array, including the white space after the equals sign
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  private static void writeValueArray(final Writer writer, final String description, final String declaration,
+      final String initializer) throws IOException {
+    writer.append("\n  /**\n   * The ").append(description).append(", by ordinal, parsed when the enum is loaded.\n");
+    writer.append("   */\n");
+    writer.append("  private static final ").append(declaration).append(" =").append(initializer).append(";\n");
+  }
+
+  /**
+   * Writes the usage counters and the method to read them.
+   * 
+   * @param writer
+   *          the Writer to use
+   * @param enumTypeName
+   *          the name of the enum type
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  void writeUsageCounters(final Writer writer, final String enumTypeName) throws IOException {
+    writer.append(String.format(USAGE_COUNTERS, enumTypeName));
+  }
+
+  /**
+   * @return the code to count the usage of a constant if {@link #usageCounters} is set, an empty string otherwise
+   */
+  private String getCountUsage() {
+    return usageCounters ? COUNT_USAGE : "";
+  }
+
+  /**
+   * @param baseDirs
+   *          the baseDirs to set
+   */
+  public void setBaseDirs(final List<String> baseDirs) {
+    this.baseDirs = baseDirs;
+  }
+
+  /**
+   * @param buildStateDirectory
+   *          the buildStateDirectory to set
+   */
+  public void setBuildStateDirectory(final String buildStateDirectory) {
+    this.buildStateDirectory = buildStateDirectory;
+  }
+
+  /**
+   * @param cacheDirectory
+   *          the cacheDirectory to set
+   */
+  public void setCacheDirectory(final String cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * @param cacheMaxSize
+   *          the cacheMaxSize to set, in bytes
+   */
+  public void setCacheMaxSize(final long cacheMaxSize) {
+    this.cacheMaxSize = cacheMaxSize;
+  }
+
+  /**
+   * @param compiledBundles
+   *          whether a resource bundle class is generated for each properties file and its localized variants
+   */
+  public void setCompiledBundles(final boolean compiledBundles) {
+    this.compiledBundles = compiledBundles;
+  }
+
+  /**
+   * @param encodedKeys
+   *          whether the constants of the generated enums carry their keys encoded as UTF-8
+   */
+  public void setEncodedKeys(final boolean encodedKeys) {
+    this.encodedKeys = encodedKeys;
+  }
+
+  /**
+   * @param excludes
+   *          the excludes to set
+   */
+  public void setExcludes(final List<String> excludes) {
+    this.excludes = excludes;
+  }
+
+  /**
+   * @param flightRecorderEvents
+   *          whether the generated enums emit JDK Flight Recorder events
+   */
+  public void setFlightRecorderEvents(final boolean flightRecorderEvents) {
+    this.flightRecorderEvents = flightRecorderEvents;
+  }
+
+  /**
+   * @param flightRecorderThreshold
+   *          the duration a lookup must exceed to be recorded as slow, in JFR's format (e.g. "1 ms")
+   */
+  public void setFlightRecorderThreshold(final String flightRecorderThreshold) {
+    this.flightRecorderThreshold = flightRecorderThreshold;
+  }
+
+  /**
+   * @param includes
+   *          the includes to set
+   */
+  public void setIncludes(final List<String> includes) {
+    this.includes = includes;
+  }
+
+  /**
+   * @param initializeAtBuildTime
+   *          whether <code>native-image</code> initializes the generated classes at build time
+   */
+  public void setInitializeAtBuildTime(final boolean initializeAtBuildTime) {
+    this.initializeAtBuildTime = initializeAtBuildTime;
+  }
+
+  /**
+   * @param jsonCatalogDirectory
+   *          the directory to write a JSON catalog of each properties file and each of its localized variants to, or
+   *          <code>null</code> to write no catalogs
+   * @param gzipJsonCatalogs
+   *          whether each catalog is additionally written gzip compressed
+   */
+  public void setJsonCatalogs(final String jsonCatalogDirectory, final boolean gzipJsonCatalogs) {
+    this.jsonCatalogDirectory = jsonCatalogDirectory;
+    this.gzipJsonCatalogs = gzipJsonCatalogs;
+  }
+
+  /**
+   * @param keyConstants
+   *          whether a class of compile-time key constants is generated next to each enum
+   */
+  public void setKeyConstants(final boolean keyConstants) {
+    this.keyConstants = keyConstants;
+  }
+
+  /**
+   * @param keyIds
+   *          whether each key gets a permanent ID, which is stored next to the properties file
+   */
+  public void setKeyIds(final boolean keyIds) {
+    this.keyIds = keyIds;
+  }
+
+  /**
+   * @param mergeGroups
+   *          the groups of properties files to merge, each into one properties file
+   * @param mergeDirectory
+   *          the directory to write the merged properties files to
+   */
+  public void setMergeGroups(final List<MergeGroup> mergeGroups, final String mergeDirectory) {
+    this.mergeGroups = mergeGroups;
+    this.mergeDirectory = mergeDirectory;
+  }
+
+  /**
+   * @param nativeImageDirectory
+   *          the directory to write the native image metadata to, or <code>null</code> if none is written
+   */
+  public void setNativeImageDirectory(final String nativeImageDirectory) {
+    this.nativeImageDirectory = nativeImageDirectory;
+  }
+
+  /**
+   * @param prefixQueries
+   *          whether the generated enums support prefix queries
+   */
+  public void setPrefixQueries(final boolean prefixQueries) {
+    this.prefixQueries = prefixQueries;
+  }
+
+  /**
+   * @param registryClass
+   *          fully qualified name of the index class listing all generated enums, <code>null</code> if none is
+   *          generated
+   * @param registryDirectory
+   *          the directory to write the <code>META-INF/services</code> entry of the index class to
+   */
+  public void setRegistry(final String registryClass, final String registryDirectory) {
+    this.registryClass = registryClass;
+    this.registryDirectory = registryDirectory;
+  }
+
+  /**
+   * @param reportFile
+   *          the file to write the report of each generation to as JSON, <code>null</code> to only log it
+   */
+  public void setReportFile(final String reportFile) {
+    this.reportFile = reportFile;
+  }
+
+  /**
+   * @param runtime
+   *          whether the generated enums use the runtime artifact
+   */
+  public void setRuntime(final boolean runtime) {
+    this.runtime = runtime;
+  }
+
+  /**
+   * @param typedAccessors
+   *          whether the generated enums get typed accessors
+   */
+  public void setTypedAccessors(final boolean typedAccessors) {
+    this.typedAccessors = typedAccessors;
+  }
+
+  /**
+   * @param usageCounters
+   *          whether the generated enums count how often each constant's key is used
+   */
+  public void setUsageCounters(final boolean usageCounters) {
+    this.usageCounters = usageCounters;
+  }
+
+  /**
+   * @param valueTypes
+   *          the types of the values of the typed accessors, by key, overriding the inferred types
+   */
+  public void setValueTypes(final Map<String, ValueType> valueTypes) {
+    this.valueTypes = new TreeMap<String, ValueType>(valueTypes);
   }
 }
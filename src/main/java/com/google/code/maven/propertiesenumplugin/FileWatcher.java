@@ -0,0 +1,136 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Detects modifications of a set of files by comparing their last modification time and size with the ones seen
+ * during the previous poll. Polling is used instead of a native file system watch so it works the same on every
+ * platform and JDK.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class FileWatcher {
+
+  /**
+   * The last seen state of each watched file. A value of <code>null</code> means that the file did not exist.
+   */
+  private final Map<File, FileState> states;
+
+  /**
+   * Constructs a new {@link FileWatcher} and records the current state of the given files.
+   * 
+   * @param files
+   *          the files to watch
+   */
+  public FileWatcher(final Collection<File> files) {
+    states = new HashMap<File, FileState>();
+    for (File file : files) {
+      states.put(file, FileState.of(file));
+    }
+  }
+
+  /**
+   * Starts watching the given files, unless they are watched already. Files added this way are reported as created by
+   * the next {@link #poll()}, if they exist.
+   * 
+   * @param files
+   *          the files to watch
+   */
+  public void watch(final Collection<File> files) {
+    for (File file : files) {
+      if (!states.containsKey(file)) {
+        states.put(file, null);
+      }
+    }
+  }
+
+  /**
+   * Returns all files that have been created, modified or deleted since the last poll.
+   * 
+   * @return the changed files, empty if nothing changed
+   */
+  public Set<File> poll() {
+    Set<File> changedFiles = new LinkedHashSet<File>();
+    for (Map.Entry<File, FileState> entry : states.entrySet()) {
+      FileState currentState = FileState.of(entry.getKey());
+      FileState lastState = entry.getValue();
+      if (currentState == null ? lastState != null : !currentState.equals(lastState)) {
+        changedFiles.add(entry.getKey());
+        entry.setValue(currentState);
+      }
+    }
+    return changedFiles;
+  }
+
+  /**
+   * Last modification time and size of a file.
+   */
+  private static final class FileState {
+
+    /**
+     * The file's last modification time.
+     */
+    private final long lastModified;
+
+    /**
+     * The file's size in bytes.
+     */
+    private final long length;
+
+    /**
+     * Constructs a new {@link FileState}.
+     * 
+     * @param lastModified
+     *          the file's last modification time
+     * @param length
+     *          the file's size in bytes
+     */
+    private FileState(final long lastModified, final long length) {
+      this.lastModified = lastModified;
+      this.length = length;
+    }
+
+    /**
+     * @param file
+     *          the file to get the state for
+     * @return the file's current state, or <code>null</code> if it does not exist
+     */
+    static FileState of(final File file) {
+      if (!file.exists()) {
+        return null;
+      }
+      return new FileState(file.lastModified(), file.length());
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof FileState)) {
+        return false;
+      }
+      FileState other = (FileState) obj;
+      return lastModified == other.lastModified && length == other.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return (int) (lastModified ^ (lastModified >>> 32)) * 31 + (int) length;
+    }
+  }
+}
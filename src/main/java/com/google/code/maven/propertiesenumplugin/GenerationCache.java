@@ -0,0 +1,169 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A local cache of generated files, addressed by a key that covers everything the generated content depends on. It can
+ * be shared by all modules and checkouts on a machine, so that identical enums are generated only once. The least
+ * recently used entries are evicted when the cache grows beyond its maximum size.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class GenerationCache {
+
+  /**
+   * Length of the key prefix used as sub directory, to avoid huge directories.
+   */
+  private static final int PREFIX_LENGTH = 2;
+
+  /**
+   * The cache directory.
+   */
+  private final File directory;
+
+  /**
+   * Maximum size of all cached files in bytes.
+   */
+  private final long maxSize;
+
+  /**
+   * Constructs a new {@link GenerationCache}.
+   * 
+   * @param directory
+   *          the cache directory
+   * @param maxSize
+   *          maximum size of all cached files in bytes
+   */
+  public GenerationCache(final File directory, final long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the cached content for the given key and marks it as recently used.
+   * 
+   * @param key
+   *          the cache key, a hexadecimal digest
+   * @return the cached content, or <code>null</code> if there is none
+   */
+  public byte[] get(final String key) {
+    File file = getFile(key);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      byte[] content = Digests.readFile(file);
+      file.setLastModified(System.currentTimeMillis());
+      return content;
+    } catch (IOException e) {
+      // The entry may just have been evicted by another build
+      return null;
+    }
+  }
+
+  /**
+   * Stores content in the cache. The content is written to a temporary file first and then renamed, so that other
+   * builds using the same cache never see a partially written entry.
+   * 
+   * @param key
+   *          the cache key, a hexadecimal digest
+   * @param content
+   *          the content to store
+   * @throws IOException
+   *           if the content could not be stored
+   */
+  public void put(final String key, final byte[] content) throws IOException {
+    File file = getFile(key);
+    File parentDirectory = file.getParentFile();
+    if (!parentDirectory.exists() && !parentDirectory.mkdirs() && !parentDirectory.isDirectory()) {
+      throw new IOException("Could not create directory: " + parentDirectory.getAbsolutePath());
+    }
+
+    File temporaryFile = File.createTempFile(key, ".tmp", parentDirectory);
+    OutputStream out = new FileOutputStream(temporaryFile);
+    try {
+      out.write(content);
+    } finally {
+      out.close();
+    }
+    if (!temporaryFile.renameTo(file)) {
+      // Another build stored the same entry in the meantime
+      temporaryFile.delete();
+    }
+  }
+
+  /**
+   * Deletes the least recently used entries until the cache is not larger than its maximum size.
+   * 
+   * @return the number of deleted entries
+   */
+  public int evict() {
+    List<File> files = new ArrayList<File>();
+    long size = 0;
+    File[] subDirectories = directory.listFiles();
+    if (subDirectories == null) {
+      return 0;
+    }
+    for (File subDirectory : subDirectories) {
+      File[] entries = subDirectory.listFiles();
+      if (entries != null) {
+        for (File entry : entries) {
+          files.add(entry);
+          size += entry.length();
+        }
+      }
+    }
+    if (size <= maxSize) {
+      return 0;
+    }
+
+    Collections.sort(files, new Comparator<File>() {
+      @Override
+      public int compare(final File file1, final File file2) {
+        long lastModified1 = file1.lastModified();
+        long lastModified2 = file2.lastModified();
+        return lastModified1 < lastModified2 ? -1 : (lastModified1 == lastModified2 ? 0 : 1);
+      }
+    });
+    int deleted = 0;
+    for (File file : files) {
+      if (size <= maxSize) {
+        break;
+      }
+      long length = file.length();
+      if (file.delete()) {
+        size -= length;
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  /**
+   * @param key
+   *          the cache key
+   * @return the file to store the entry with the given key in
+   */
+  private File getFile(final String key) {
+    return new File(new File(directory, key.substring(0, PREFIX_LENGTH)), key.substring(PREFIX_LENGTH));
+  }
+}
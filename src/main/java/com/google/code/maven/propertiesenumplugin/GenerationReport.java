@@ -0,0 +1,553 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Statistics of a single generation, used to find out which properties files dominate the generator's cost. For each
+ * properties file, the time spent reading and parsing it, deriving the enum field names, rendering and writing the enum
+ * is recorded, together with its size and whether it has been written. The report can be printed as a table and
+ * written as JSON, so that the cost can be tracked over time.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class GenerationReport {
+
+  /**
+   * Version of the JSON format, to be increased whenever it changes incompatibly.
+   */
+  static final int FORMAT_VERSION = 1;
+
+  /**
+   * Number of nanoseconds in a millisecond.
+   */
+  private static final double NANOS_PER_MILLI = 1000000d;
+
+  /**
+   * The statistics of each properties file, in the order of generation.
+   */
+  private final List<FileReport> fileReports;
+
+  /**
+   * Start of the generation, in milliseconds since the epoch.
+   */
+  private final long startTime;
+
+  /**
+   * Time spent resolving the properties files, in nanoseconds.
+   */
+  private long scanTime;
+
+  /**
+   * Time spent for the whole generation, in nanoseconds.
+   */
+  private long totalTime;
+
+  /**
+   * Constructs a new, empty {@link GenerationReport}.
+   */
+  public GenerationReport() {
+    fileReports = Collections.synchronizedList(new ArrayList<FileReport>());
+    startTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Adds the statistics of a properties file.
+   * 
+   * @param fileReport
+   *          the statistics to add
+   */
+  public void add(final FileReport fileReport) {
+    fileReports.add(fileReport);
+  }
+
+  /**
+   * @return the statistics of each properties file, in the order of generation
+   */
+  public List<FileReport> getFileReports() {
+    synchronized (fileReports) {
+      return new ArrayList<FileReport>(fileReports);
+    }
+  }
+
+  /**
+   * @return the time spent resolving the properties files, in nanoseconds
+   */
+  public long getScanTime() {
+    return scanTime;
+  }
+
+  /**
+   * @return the time spent for the whole generation, in nanoseconds
+   */
+  public long getTotalTime() {
+    return totalTime;
+  }
+
+  /**
+   * @param scanTime
+   *          the time spent resolving the properties files, in nanoseconds
+   */
+  public void setScanTime(final long scanTime) {
+    this.scanTime = scanTime;
+  }
+
+  /**
+   * @param totalTime
+   *          the time spent for the whole generation, in nanoseconds
+   */
+  public void setTotalTime(final long totalTime) {
+    this.totalTime = totalTime;
+  }
+
+  /**
+   * Formats the report as a table, most expensive properties files first.
+   * 
+   * @param maxRows
+   *          the maximum number of properties files to list
+   * @return the lines of the table
+   */
+  public List<String> formatTable(final int maxRows) {
+    List<FileReport> sortedReports = getFileReports();
+    Collections.sort(sortedReports, new Comparator<FileReport>() {
+      @Override
+      public int compare(final FileReport first, final FileReport second) {
+        long difference = second.getTotalTime() - first.getTotalTime();
+        return difference < 0 ? -1 : difference > 0 ? 1 : 0;
+      }
+    });
+
+    int nameWidth = "Properties file".length();
+    for (FileReport fileReport : sortedReports.subList(0, Math.min(maxRows, sortedReports.size()))) {
+      nameWidth = Math.max(nameWidth, fileReport.getPropertiesFile().length());
+    }
+    String rowFormat = "%-" + nameWidth + "s %6s %9s %9s %8s %8s %8s %8s  %-7s %s";
+
+    List<String> lines = new ArrayList<String>();
+    lines.add(String.format(Locale.ENGLISH, rowFormat, "Properties file", "Keys", "In [B]", "Out [B]", "Parse",
+        "Names", "Render", "Write", "Status", "Cache"));
+    int keys = 0;
+    long inputBytes = 0;
+    long outputBytes = 0;
+    int written = 0;
+    for (int i = 0; i < sortedReports.size(); i++) {
+      FileReport fileReport = sortedReports.get(i);
+      if (i < maxRows) {
+        lines.add(String.format(Locale.ENGLISH, rowFormat, fileReport.getPropertiesFile(), fileReport.getKeys(),
+            fileReport.getInputBytes(), fileReport.getOutputBytes(), formatMillis(fileReport.getParseTime()),
+            formatMillis(fileReport.getNamingTime()), formatMillis(fileReport.getRenderTime()),
+            formatMillis(fileReport.getWriteTime()), fileReport.getStatus(), fileReport.getCacheHits()));
+      }
+      keys += fileReport.getKeys();
+      inputBytes += fileReport.getInputBytes();
+      outputBytes += fileReport.getOutputBytes();
+      if (fileReport.isWritten()) {
+        written++;
+      }
+    }
+    if (sortedReports.size() > maxRows) {
+      lines.add("... " + (sortedReports.size() - maxRows) + " more properties file(s)");
+    }
+    lines.add(String.format(Locale.ENGLISH,
+        "%d properties file(s), %d written, %d keys, %d bytes read, %d bytes generated in %s ms (scan: %s ms)",
+        sortedReports.size(), written, keys, inputBytes, outputBytes, formatMillis(totalTime), formatMillis(scanTime)));
+    return lines;
+  }
+
+  /**
+   * Writes the report as JSON.
+   * 
+   * @param file
+   *          the file to write
+   * @throws IOException
+   *           if the file could not be written
+   */
+  public void writeJson(final File file) throws IOException {
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (!parent.exists() && !parent.mkdirs()) {
+      throw new IOException("Could not create directory: " + parent.getAbsolutePath());
+    }
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    try {
+      writer.write(toJson());
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * @return the report as JSON
+   */
+  public String toJson() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\n");
+    builder.append("  \"formatVersion\": ").append(FORMAT_VERSION).append(",\n");
+    builder.append("  \"startTime\": ").append(startTime).append(",\n");
+    builder.append("  \"scanNanos\": ").append(scanTime).append(",\n");
+    builder.append("  \"totalNanos\": ").append(totalTime).append(",\n");
+    builder.append("  \"files\": [");
+    List<FileReport> reports = getFileReports();
+    for (int i = 0; i < reports.size(); i++) {
+      FileReport fileReport = reports.get(i);
+      builder.append(i == 0 ? "\n" : ",\n");
+      builder.append("    {\"propertiesFile\": ").append(quote(fileReport.getPropertiesFile()));
+      builder.append(", \"targetFile\": ").append(quote(fileReport.getTargetFile()));
+      builder.append(", \"keys\": ").append(fileReport.getKeys());
+      builder.append(", \"inputBytes\": ").append(fileReport.getInputBytes());
+      builder.append(", \"outputBytes\": ").append(fileReport.getOutputBytes());
+      builder.append(", \"parseNanos\": ").append(fileReport.getParseTime());
+      builder.append(", \"namingNanos\": ").append(fileReport.getNamingTime());
+      builder.append(", \"renderNanos\": ").append(fileReport.getRenderTime());
+      builder.append(", \"writeNanos\": ").append(fileReport.getWriteTime());
+      builder.append(", \"bundleCacheHit\": ").append(fileReport.isBundleCacheHit());
+      builder.append(", \"generationCacheHit\": ").append(fileReport.isGenerationCacheHit());
+      builder.append(", \"status\": ").append(quote(fileReport.getStatus())).append('}');
+    }
+    builder.append(reports.isEmpty() ? "]\n" : "\n  ]\n");
+    builder.append("}\n");
+    return builder.toString();
+  }
+
+  /**
+   * @param nanos
+   *          a duration in nanoseconds
+   * @return the duration in milliseconds, with one decimal place
+   */
+  static String formatMillis(final long nanos) {
+    return String.format(Locale.ENGLISH, "%.1f", nanos / NANOS_PER_MILLI);
+  }
+
+  /**
+   * Quotes a string for JSON.
+   * 
+   * @param string
+   *          the string to quote, may be <code>null</code>
+   * @return the quoted and escaped string, or <code>null</code>
+   */
+  static String quote(final String string) {
+    if (string == null) {
+      return "null";
+    }
+    StringBuilder builder = new StringBuilder(string.length() + 2);
+    builder.append('"');
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    builder.append('"');
+    return builder.toString();
+  }
+
+  /**
+   * Statistics of a single properties file.
+   */
+  public static class FileReport {
+
+    /**
+     * Path of the properties file, relative to its base directory.
+     */
+    private final String propertiesFile;
+
+    /**
+     * Path of the generated enum, relative to the generate directory.
+     */
+    private final String targetFile;
+
+    /**
+     * Number of keys written to the enum.
+     */
+    private int keys;
+
+    /**
+     * Size of the properties file in bytes.
+     */
+    private long inputBytes;
+
+    /**
+     * Size of the generated enum in bytes.
+     */
+    private long outputBytes;
+
+    /**
+     * Time spent reading and parsing the properties file, in nanoseconds.
+     */
+    private long parseTime;
+
+    /**
+     * Time spent deriving the enum field names, in nanoseconds.
+     */
+    private long namingTime;
+
+    /**
+     * Time spent rendering the enum, in nanoseconds.
+     */
+    private long renderTime;
+
+    /**
+     * Time spent comparing and writing the enum, in nanoseconds.
+     */
+    private long writeTime;
+
+    /**
+     * Whether the parsed properties file has been taken from the {@link BundleCache}.
+     */
+    private boolean bundleCacheHit;
+
+    /**
+     * Whether the enum has been taken from the {@link GenerationCache}.
+     */
+    private boolean generationCacheHit;
+
+    /**
+     * Whether the enum has been written, <code>false</code> if it was up to date.
+     */
+    private boolean written;
+
+    /**
+     * Constructs a new {@link FileReport}.
+     * 
+     * @param propertiesFile
+     *          path of the properties file, relative to its base directory
+     * @param targetFile
+     *          path of the generated enum, relative to the generate directory
+     */
+    public FileReport(final String propertiesFile, final String targetFile) {
+      this.propertiesFile = propertiesFile;
+      this.targetFile = targetFile;
+    }
+
+    /**
+     * @return a short description of the caches that have been hit, "-" if none
+     */
+    public String getCacheHits() {
+      if (bundleCacheHit && generationCacheHit) {
+        return "bundle,enum";
+      } else if (bundleCacheHit) {
+        return "bundle";
+      } else if (generationCacheHit) {
+        return "enum";
+      }
+      return "-";
+    }
+
+    /**
+     * @return the size of the properties file in bytes
+     */
+    public long getInputBytes() {
+      return inputBytes;
+    }
+
+    /**
+     * @return the number of keys written to the enum
+     */
+    public int getKeys() {
+      return keys;
+    }
+
+    /**
+     * @return the time spent deriving the enum field names, in nanoseconds
+     */
+    public long getNamingTime() {
+      return namingTime;
+    }
+
+    /**
+     * @return the size of the generated enum in bytes
+     */
+    public long getOutputBytes() {
+      return outputBytes;
+    }
+
+    /**
+     * @return the time spent reading and parsing the properties file, in nanoseconds
+     */
+    public long getParseTime() {
+      return parseTime;
+    }
+
+    /**
+     * @return the path of the properties file, relative to its base directory
+     */
+    public String getPropertiesFile() {
+      return propertiesFile;
+    }
+
+    /**
+     * @return the time spent rendering the enum, in nanoseconds
+     */
+    public long getRenderTime() {
+      return renderTime;
+    }
+
+    /**
+     * @return "written" if the enum has been written, "skipped" if it was up to date
+     */
+    public String getStatus() {
+      return written ? "written" : "skipped";
+    }
+
+    /**
+     * @return the path of the generated enum, relative to the generate directory
+     */
+    public String getTargetFile() {
+      return targetFile;
+    }
+
+    /**
+     * @return the time spent for this properties file, in nanoseconds
+     */
+    public long getTotalTime() {
+      return parseTime + namingTime + renderTime + writeTime;
+    }
+
+    /**
+     * @return the time spent comparing and writing the enum, in nanoseconds
+     */
+    public long getWriteTime() {
+      return writeTime;
+    }
+
+    /**
+     * @param bundleCacheHit
+     *          whether the parsed properties file has been taken from the {@link BundleCache}
+     */
+    public void setBundleCacheHit(final boolean bundleCacheHit) {
+      this.bundleCacheHit = bundleCacheHit;
+    }
+
+    /**
+     * @param generationCacheHit
+     *          whether the enum has been taken from the {@link GenerationCache}
+     */
+    public void setGenerationCacheHit(final boolean generationCacheHit) {
+      this.generationCacheHit = generationCacheHit;
+    }
+
+    /**
+     * @param inputBytes
+     *          the size of the properties file in bytes
+     */
+    public void setInputBytes(final long inputBytes) {
+      this.inputBytes = inputBytes;
+    }
+
+    /**
+     * @param keys
+     *          the number of keys written to the enum
+     */
+    public void setKeys(final int keys) {
+      this.keys = keys;
+    }
+
+    /**
+     * @param namingTime
+     *          the time spent deriving the enum field names, in nanoseconds
+     */
+    public void setNamingTime(final long namingTime) {
+      this.namingTime = namingTime;
+    }
+
+    /**
+     * @param outputBytes
+     *          the size of the generated enum in bytes
+     */
+    public void setOutputBytes(final long outputBytes) {
+      this.outputBytes = outputBytes;
+    }
+
+    /**
+     * @param parseTime
+     *          the time spent reading and parsing the properties file, in nanoseconds
+     */
+    public void setParseTime(final long parseTime) {
+      this.parseTime = parseTime;
+    }
+
+    /**
+     * @param renderTime
+     *          the time spent rendering the enum, in nanoseconds
+     */
+    public void setRenderTime(final long renderTime) {
+      this.renderTime = renderTime;
+    }
+
+    /**
+     * @param writeTime
+     *          the time spent comparing and writing the enum, in nanoseconds
+     */
+    public void setWriteTime(final long writeTime) {
+      this.writeTime = writeTime;
+    }
+
+    /**
+     * @param written
+     *          whether the enum has been written, <code>false</code> if it was up to date
+     */
+    public void setWritten(final boolean written) {
+      this.written = written;
+    }
+
+    /**
+     * @return whether the parsed properties file has been taken from the {@link BundleCache}
+     */
+    public boolean isBundleCacheHit() {
+      return bundleCacheHit;
+    }
+
+    /**
+     * @return whether the enum has been taken from the {@link GenerationCache}
+     */
+    public boolean isGenerationCacheHit() {
+      return generationCacheHit;
+    }
+
+    /**
+     * @return whether the enum has been written, <code>false</code> if it was up to date
+     */
+    public boolean isWritten() {
+      return written;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The hierarchy of dotted property keys, e.g. <code>com</code>, <code>com.example</code> and
+ * <code>com.example.key</code> for the key <code>com.example.key</code>. Keys are ordered segment by segment, so that
+ * all keys below a prefix form a contiguous range.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class KeyHierarchy {
+
+  /**
+   * Orders keys by comparing their dot separated segments one after another. A key comes before all keys it is a prefix
+   * of, so "a.b" &lt; "a.b.c" &lt; "a.b-c", even though '-' &lt; '.'.
+   */
+  static final Comparator<String> SEGMENT_ORDER = new Comparator<String>() {
+
+    @Override
+    public int compare(final String key1, final String key2) {
+      String[] segments1 = split(key1);
+      String[] segments2 = split(key2);
+      for (int i = 0; i < Math.min(segments1.length, segments2.length); i++) {
+        int result = segments1[i].compareTo(segments2[i]);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return segments1.length - segments2.length;
+    }
+  };
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private KeyHierarchy() {
+  }
+
+  /**
+   * Sorts keys in {@link #SEGMENT_ORDER}.
+   * 
+   * @param keys
+   *          the keys to sort
+   * @return the indexes of the keys in sorted order
+   */
+  public static List<Integer> sort(final List<String> keys) {
+    List<Integer> indexes = new ArrayList<Integer>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      indexes.add(i);
+    }
+    Collections.sort(indexes, new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer index1, final Integer index2) {
+        return SEGMENT_ORDER.compare(keys.get(index1), keys.get(index2));
+      }
+    });
+    return indexes;
+  }
+
+  /**
+   * Builds the range of keys below each prefix. A key is below a prefix if it equals the prefix or continues it with a
+   * dot.
+   * 
+   * @param sortedKeys
+   *          the keys, sorted in {@link #SEGMENT_ORDER}
+   * @return the index of the first key and the index after the last key below each prefix, by prefix in depth first
+   *         order
+   */
+  public static Map<String, int[]> buildRanges(final List<String> sortedKeys) {
+    Map<String, int[]> ranges = new LinkedHashMap<String, int[]>();
+    for (int i = 0; i < sortedKeys.size(); i++) {
+      String key = sortedKeys.get(i);
+      int end = -1;
+      do {
+        end = key.indexOf('.', end + 1);
+        String prefix = end < 0 ? key : key.substring(0, end);
+        int[] range = ranges.get(prefix);
+        if (range == null) {
+          ranges.put(prefix, new int[] {i, i + 1});
+        } else if (range[1] == i) {
+          range[1] = i + 1;
+        } else {
+          throw new IllegalArgumentException("The keys are not sorted, \"" + key + "\" is not next to \"" + prefix
+              + "\"");
+        }
+      } while (end >= 0);
+    }
+    return ranges;
+  }
+
+  /**
+   * @param key
+   *          a property key
+   * @return the key's dot separated segments, including empty ones
+   */
+  private static String[] split(final String key) {
+    return key.split("\\.", -1);
+  }
+}
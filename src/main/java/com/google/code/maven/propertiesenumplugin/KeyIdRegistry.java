@@ -0,0 +1,224 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Permanent integer IDs of the keys of a properties file. Unlike the ordinals of the generated enum, which change
+ * whenever keys are added or reordered, an ID never changes once it has been assigned, and the IDs of removed keys are
+ * never given to another key. That makes the IDs suitable to identify keys between services built from different
+ * versions of the properties file.
+ * <p>
+ * The IDs are stored in a text file next to the properties file, which is meant to be checked in. Each line contains an
+ * ID and a key, separated by <code>=</code>; lines starting with <code>#</code> are comments. The lines of removed
+ * keys are kept, so their IDs remain taken. Duplicate IDs or keys, e.g. from a badly resolved merge conflict, are
+ * reported with their line number.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class KeyIdRegistry {
+
+  /**
+   * The extension of ID files, which replaces the <code>.properties</code> extension of the properties file.
+   */
+  public static final String EXTENSION = ".ids";
+
+  /**
+   * The ID of the first key. 0 is left out, so that it can mean "no key" on the wire.
+   */
+  static final int FIRST_ID = 1;
+
+  /**
+   * The file the IDs are stored in.
+   */
+  private final File file;
+
+  /**
+   * The keys by ID.
+   */
+  private final TreeMap<Integer, String> keysById;
+
+  /**
+   * The IDs by key.
+   */
+  private final Map<String, Integer> idsByKey;
+
+  /**
+   * Constructs a new {@link KeyIdRegistry} and loads the given file, if it exists.
+   * 
+   * @param file
+   *          the file to store the IDs in
+   * @throws IOException
+   *           if the file could not be read or is malformed
+   */
+  public KeyIdRegistry(final File file) throws IOException {
+    this.file = file;
+    keysById = new TreeMap<Integer, String>();
+    idsByKey = new HashMap<String, Integer>();
+    if (file.isFile()) {
+      parse(new String(Digests.readFile(file), "UTF-8"));
+    }
+  }
+
+  /**
+   * @param propertiesFile
+   *          a properties file
+   * @return the file the IDs of the properties file's keys are stored in, e.g. <code>messages.ids</code> for
+   *         <code>messages.properties</code>
+   */
+  public static File buildFile(final File propertiesFile) {
+    String name = propertiesFile.getName();
+    if (name.endsWith(".properties")) {
+      name = name.substring(0, name.length() - ".properties".length());
+    }
+    return new File(propertiesFile.getParentFile(), name + EXTENSION);
+  }
+
+  /**
+   * Parses the content of an ID file.
+   * 
+   * @param content
+   *          the file's content
+   * @throws IOException
+   *           if a line is malformed or an ID or key occurs twice
+   */
+  private void parse(final String content) throws IOException {
+    String[] lines = content.split("\r?\n", -1);
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (line.length() == 0 || line.charAt(0) == '#') {
+        continue;
+      }
+      int separator = line.indexOf('=');
+      int id;
+      try {
+        id = separator > 0 ? Integer.parseInt(line.substring(0, separator).trim()) : -1;
+      } catch (NumberFormatException e) {
+        id = -1;
+      }
+      if (id < FIRST_ID) {
+        throw new IOException(file.getAbsolutePath() + ":" + (i + 1) + ": expected \"id=key\" with an ID of at least "
+            + FIRST_ID + ", but was: " + line);
+      }
+      String key = unescape(lines[i].substring(lines[i].indexOf('=') + 1));
+      if (keysById.containsKey(id)) {
+        throw new IOException(file.getAbsolutePath() + ":" + (i + 1) + ": ID " + id + " is already assigned to \""
+            + keysById.get(id) + "\"");
+      }
+      if (idsByKey.containsKey(key)) {
+        throw new IOException(file.getAbsolutePath() + ":" + (i + 1) + ": key \"" + key + "\" already has ID "
+            + idsByKey.get(key));
+      }
+      keysById.put(id, key);
+      idsByKey.put(key, id);
+    }
+  }
+
+  /**
+   * Assigns a new ID to each of the given keys that does not have one yet, in the given order. New IDs are always
+   * greater than all IDs assigned before, including the ones of removed keys.
+   * 
+   * @param keys
+   *          the keys
+   * @return <code>true</code> if at least one ID has been assigned
+   */
+  public boolean assign(final Collection<String> keys) {
+    boolean assigned = false;
+    for (String key : keys) {
+      if (!idsByKey.containsKey(key)) {
+        int id = getMaxId() + 1;
+        keysById.put(id, key);
+        idsByKey.put(key, id);
+        assigned = true;
+      }
+    }
+    return assigned;
+  }
+
+  /**
+   * @param key
+   *          a key
+   * @return the key's ID, or 0 if it has none
+   */
+  public int getId(final String key) {
+    Integer id = idsByKey.get(key);
+    return id != null ? id : 0;
+  }
+
+  /**
+   * @return the greatest ID assigned so far, or <code>FIRST_ID - 1</code> if there is none
+   */
+  public int getMaxId() {
+    return keysById.isEmpty() ? FIRST_ID - 1 : keysById.lastKey();
+  }
+
+  /**
+   * @return the file the IDs are stored in
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * @param propertiesFileName
+   *          the name of the properties file, for the header comment
+   * @return the content of the ID file, ordered by ID
+   */
+  public String render(final String propertiesFileName) {
+    StringBuilder content = new StringBuilder();
+    content.append("# Permanent IDs of the keys of ").append(propertiesFileName).append(".\n");
+    content.append("# New keys are appended by the maven-properties-enum-plugin. Never change or remove a line, the\n");
+    content.append("# IDs of removed keys must not be given to other keys.\n");
+    for (Map.Entry<Integer, String> entry : keysById.entrySet()) {
+      content.append(entry.getKey()).append('=').append(escape(entry.getValue())).append('\n');
+    }
+    return content.toString();
+  }
+
+  /**
+   * @param key
+   *          a key
+   * @return the key with backslashes and line breaks escaped, so that it fits on one line
+   */
+  private static String escape(final String key) {
+    return key.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+  }
+
+  /**
+   * @param escapedKey
+   *          a key escaped by {@link #escape(String)}
+   * @return the original key
+   */
+  private static String unescape(final String escapedKey) {
+    StringBuilder key = new StringBuilder(escapedKey.length());
+    for (int i = 0; i < escapedKey.length(); i++) {
+      char c = escapedKey.charAt(i);
+      if (c == '\\' && i + 1 < escapedKey.length()) {
+        c = escapedKey.charAt(++i);
+        if (c == 'n') {
+          c = '\n';
+        } else if (c == 'r') {
+          c = '\r';
+        }
+      }
+      key.append(c);
+    }
+    return key.toString();
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+/**
+ * Several properties files that are combined into one bundle, e.g. <code>messages-core.properties</code> and
+ * <code>messages-billing.properties</code> into <code>messages.properties</code>, so that a single enum is generated
+ * for them and a single <code>ResourceBundle</code> is loaded at runtime. The files are concatenated, and each key and
+ * each enum field name derived from a key is put into a hash index, so that keys defined more than once and keys that
+ * map to the same field name are found in one pass and reported with their files and line numbers.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class MergeGroup {
+
+  /**
+   * The path of the merged properties file relative to the base directory, e.g.
+   * <code>com/example/messages.properties</code>.
+   */
+  private String target;
+
+  /**
+   * The paths of the properties files to merge, relative to the base directory.
+   */
+  private List<String> files;
+
+  /**
+   * Constructs a new, empty {@link MergeGroup}, to be configured by Maven.
+   */
+  public MergeGroup() {
+  }
+
+  /**
+   * Constructs a new {@link MergeGroup}.
+   * 
+   * @param target
+   *          the path of the merged properties file relative to the base directory
+   * @param files
+   *          the paths of the properties files to merge, relative to the base directory
+   */
+  public MergeGroup(final String target, final List<String> files) {
+    this.target = target;
+    this.files = files;
+  }
+
+  /**
+   * Merges the given properties files.
+   * 
+   * @param sources
+   *          the content of each properties file by its path, in the order they are merged in
+   * @param encoding
+   *          the encoding of the properties files
+   * @param enumGenerator
+   *          the generator to derive the enum field names of the keys it writes to the enum with, or <code>null</code>
+   *          to check the keys only, e.g. for localized variants
+   * @return the merged properties file
+   * @throws IOException
+   *           if a properties file could not be parsed
+   * @throws InvalidPropertyKeyException
+   *           if a key does not result in a valid enum field name
+   * @throws DuplicateEnumFieldException
+   *           if a key is defined more than once or two keys result in the same enum field name, listing all conflicts
+   */
+  public byte[] merge(final Map<String, byte[]> sources, final String encoding, final EnumGenerator enumGenerator)
+      throws IOException, InvalidPropertyKeyException {
+    Map<String, KeyLocation> keyIndex = new HashMap<String, KeyLocation>();
+    Map<String, KeyLocation> fieldNameIndex = new HashMap<String, KeyLocation>();
+    List<String> conflicts = new ArrayList<String>();
+
+    ByteArrayOutputStream merged = new ByteArrayOutputStream();
+    for (Entry<String, byte[]> source : sources.entrySet()) {
+      for (KeyLocation location : findKeys(source.getKey(), new String(source.getValue(), encoding))) {
+        KeyLocation previous = keyIndex.put(location.key, location);
+        if (previous != null) {
+          conflicts.add("key \"" + location.key + "\" is defined in " + previous + " and " + location);
+        } else if (enumGenerator != null && enumGenerator.isEnumKey(location.key)) {
+          String fieldName = enumGenerator.buildEnumFieldName(location.key);
+          previous = fieldNameIndex.put(fieldName, location);
+          if (previous != null) {
+            conflicts.add("keys \"" + previous.key + "\" in " + previous + " and \"" + location.key + "\" in "
+                + location + " both result in " + fieldName);
+          }
+        }
+      }
+      merged.write(("# " + source.getKey() + "\n").getBytes(encoding));
+      merged.write(source.getValue());
+      byte[] content = source.getValue();
+      if (content.length > 0 && content[content.length - 1] != '\n') {
+        merged.write("\n".getBytes(encoding));
+      }
+    }
+    if (!conflicts.isEmpty()) {
+      StringBuilder message = new StringBuilder("Could not merge " + sources.keySet() + " into " + target + ":");
+      for (String conflict : conflicts) {
+        message.append("\n  ").append(conflict);
+      }
+      throw new DuplicateEnumFieldException(message.toString());
+    }
+    return merged.toByteArray();
+  }
+
+  /**
+   * Finds the keys of a properties file and the lines they are defined in.
+   * 
+   * @param path
+   *          the path of the properties file
+   * @param content
+   *          the content of the properties file
+   * @return the location of each key, in the order they are defined in
+   * @throws IOException
+   *           if a line could not be parsed
+   */
+  static List<KeyLocation> findKeys(final String path, final String content) throws IOException {
+    List<KeyLocation> locations = new ArrayList<KeyLocation>();
+    String[] lines = content.split("\r\n|\r|\n", -1);
+    for (int i = 0; i < lines.length; i++) {
+      String line = trimLeadingWhitespace(lines[i]);
+      if (line.length() == 0 || line.charAt(0) == '#' || line.charAt(0) == '!') {
+        continue;
+      }
+      int firstLine = i;
+      StringBuilder logicalLine = new StringBuilder(line);
+      while (endsWithContinuation(lines[i]) && i + 1 < lines.length) {
+        logicalLine.append('\n').append(lines[++i]);
+      }
+      Properties properties = new Properties();
+      properties.load(new StringReader(logicalLine.toString()));
+      for (String key : properties.stringPropertyNames()) {
+        locations.add(new KeyLocation(key, path, firstLine + 1));
+      }
+    }
+    return locations;
+  }
+
+  /**
+   * @param line
+   *          a line
+   * @return the line without leading spaces, tabs and form feeds
+   */
+  private static String trimLeadingWhitespace(final String line) {
+    int start = 0;
+    while (start < line.length() && " \t\f".indexOf(line.charAt(start)) >= 0) {
+      start++;
+    }
+    return line.substring(start);
+  }
+
+  /**
+   * @param line
+   *          a line
+   * @return <code>true</code> if the line ends with an odd number of backslashes, so the next line continues it
+   */
+  private static boolean endsWithContinuation(final String line) {
+    int backslashes = 0;
+    for (int i = line.length() - 1; i >= 0 && line.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  /**
+   * @return the path of the merged properties file relative to the base directory
+   */
+  public String getTarget() {
+    return target;
+  }
+
+  /**
+   * @return the paths of the properties files to merge, relative to the base directory
+   */
+  public List<String> getFiles() {
+    return files;
+  }
+
+  /**
+   * A key and the file and line it is defined in.
+   */
+  static final class KeyLocation {
+
+    /**
+     * The key.
+     */
+    private final String key;
+
+    /**
+     * The path of the properties file.
+     */
+    private final String path;
+
+    /**
+     * The number of the line the key is defined in, starting with 1.
+     */
+    private final int line;
+
+    /**
+     * Constructs a new {@link KeyLocation}.
+     * 
+     * @param key
+     *          the key
+     * @param path
+     *          the path of the properties file
+     * @param line
+     *          the number of the line the key is defined in, starting with 1
+     */
+    KeyLocation(final String key, final String path, final int line) {
+      this.key = key;
+      this.path = path;
+      this.line = line;
+    }
+
+    /**
+     * @return the key
+     */
+    String getKey() {
+      return key;
+    }
+
+    @Override
+    public String toString() {
+      return path + ":" + line;
+    }
+  }
+}
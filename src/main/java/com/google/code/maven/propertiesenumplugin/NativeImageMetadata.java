@@ -0,0 +1,168 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The configuration GraalVM's <code>native-image</code> needs for the generated classes, which it picks up from
+ * <code>META-INF/native-image</code> on the class path. The resource bundle of each enum is registered, so that
+ * <code>native-image</code> loads it at build time and stores it in the image, and the compiled bundle classes are
+ * registered for reflection, as <code>ResourceBundle.getBundle</code> instantiates them reflectively. Optionally, the
+ * generated classes are initialized at build time, so that their static state, like parsed typed values, is part of
+ * the image heap as well.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public class NativeImageMetadata {
+
+  /**
+   * Name of the resource configuration file.
+   */
+  static final String RESOURCE_CONFIG = "resource-config.json";
+
+  /**
+   * Name of the reflection configuration file.
+   */
+  static final String REFLECT_CONFIG = "reflect-config.json";
+
+  /**
+   * Name of the file holding the arguments of <code>native-image</code>.
+   */
+  static final String NATIVE_IMAGE_PROPERTIES = "native-image.properties";
+
+  /**
+   * The base names of all resource bundles.
+   */
+  private final SortedSet<String> bundles = new TreeSet<String>();
+
+  /**
+   * The fully qualified names of the compiled bundle classes.
+   */
+  private final SortedSet<String> bundleClasses = new TreeSet<String>();
+
+  /**
+   * The fully qualified names of all classes to initialize at build time.
+   */
+  private final SortedSet<String> buildTimeClasses = new TreeSet<String>();
+
+  /**
+   * Registers a generated enum type.
+   * 
+   * @param enumType
+   *          the enum type's fully qualified name
+   * @param baseName
+   *          the base name of its resource bundle
+   */
+  public void addEnum(final String enumType, final String baseName) {
+    bundles.add(baseName);
+    buildTimeClasses.add(enumType);
+  }
+
+  /**
+   * Registers a compiled bundle class.
+   * 
+   * @param className
+   *          the class's fully qualified name
+   */
+  public void addBundleClass(final String className) {
+    bundleClasses.add(className);
+    buildTimeClasses.add(className);
+  }
+
+  /**
+   * Registers another class to initialize at build time, e.g. a class of the runtime artifact whose instances are
+   * referenced by the static state of the generated classes.
+   * 
+   * @param className
+   *          the class's fully qualified name
+   */
+  public void addBuildTimeClass(final String className) {
+    buildTimeClasses.add(className);
+  }
+
+  /**
+   * @param initializeAtBuildTime
+   *          <code>true</code> to initialize the generated classes at build time
+   * @return the content of each configuration file, by file name; without classes to initialize at build time, there
+   *         are no arguments for <code>native-image</code>, as an empty list would initialize all classes
+   */
+  public Map<String, String> render(final boolean initializeAtBuildTime) {
+    Map<String, String> files = new LinkedHashMap<String, String>();
+    files.put(RESOURCE_CONFIG, renderResourceConfig());
+    files.put(REFLECT_CONFIG, renderReflectConfig());
+    if (initializeAtBuildTime && !buildTimeClasses.isEmpty()) {
+      files.put(NATIVE_IMAGE_PROPERTIES, renderNativeImageProperties());
+    }
+    return files;
+  }
+
+  /**
+   * @return the resource configuration, which registers each bundle and its properties files
+   */
+  String renderResourceConfig() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\n  \"resources\": {\n    \"includes\": [");
+    String separator = "\n";
+    for (String baseName : bundles) {
+      String pattern = "\\Q" + baseName.replace('.', '/') + "\\E(_[^/]*)?\\.properties";
+      builder.append(separator).append("      {\"pattern\": ").append(GenerationReport.quote(pattern)).append('}');
+      separator = ",\n";
+    }
+    builder.append(bundles.isEmpty() ? "]\n" : "\n    ]\n").append("  },\n  \"bundles\": [");
+    separator = "\n";
+    for (String baseName : bundles) {
+      builder.append(separator).append("    {\"name\": ").append(GenerationReport.quote(baseName)).append('}');
+      separator = ",\n";
+    }
+    builder.append(bundles.isEmpty() ? "]\n" : "\n  ]\n").append("}\n");
+    return builder.toString();
+  }
+
+  /**
+   * @return the reflection configuration, which registers the constructor of each compiled bundle class
+   */
+  String renderReflectConfig() {
+    StringBuilder builder = new StringBuilder();
+    builder.append('[');
+    String separator = "\n";
+    for (String className : bundleClasses) {
+      builder.append(separator).append("  {\"name\": ").append(GenerationReport.quote(className));
+      builder.append(", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}");
+      separator = ",\n";
+    }
+    builder.append(bundleClasses.isEmpty() ? "]\n" : "\n]\n");
+    return builder.toString();
+  }
+
+  /**
+   * @return the arguments of <code>native-image</code>, which initialize all registered classes at build time
+   */
+  String renderNativeImageProperties() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("Args = --initialize-at-build-time=");
+    Iterator<String> iterator = buildTimeClasses.iterator();
+    while (iterator.hasNext()) {
+      builder.append(iterator.next());
+      if (iterator.hasNext()) {
+        builder.append(",\\\n  ");
+      }
+    }
+    builder.append('\n');
+    return builder.toString();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parsed content of a properties file: its keys and values in the order they are written to the enum, together
+ * with the enum field name derived from each key. Instances are immutable, so they can be shared between builds by the
+ * {@link BundleCache}.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class PropertiesBundle {
+
+  /**
+   * The property keys.
+   */
+  private final List<String> keys;
+
+  /**
+   * The property values, in the same order as {@link #keys}.
+   */
+  private final List<String> values;
+
+  /**
+   * The enum field names, in the same order as {@link #keys}.
+   */
+  private final List<String> fieldNames;
+
+  /**
+   * Digest of the properties file's content.
+   */
+  private final String sourceDigest;
+
+  /**
+   * Size of the properties file in bytes.
+   */
+  private final long sourceLength;
+
+  /**
+   * Constructs a new {@link PropertiesBundle}.
+   * 
+   * @param keys
+   *          the property keys
+   * @param values
+   *          the property values, in the same order as the keys
+   * @param fieldNames
+   *          the enum field names, in the same order as the keys
+   * @param sourceDigest
+   *          digest of the properties file's content
+   * @param sourceLength
+   *          size of the properties file in bytes
+   */
+  public PropertiesBundle(final List<String> keys, final List<String> values, final List<String> fieldNames,
+      final String sourceDigest, final long sourceLength) {
+    this.keys = Collections.unmodifiableList(keys);
+    this.values = Collections.unmodifiableList(values);
+    this.fieldNames = Collections.unmodifiableList(fieldNames);
+    this.sourceDigest = sourceDigest;
+    this.sourceLength = sourceLength;
+  }
+
+  /**
+   * @return the property keys
+   */
+  public List<String> getKeys() {
+    return keys;
+  }
+
+  /**
+   * @return the property values, in the same order as the keys
+   */
+  public List<String> getValues() {
+    return values;
+  }
+
+  /**
+   * @return the enum field names, in the same order as the keys
+   */
+  public List<String> getFieldNames() {
+    return fieldNames;
+  }
+
+  /**
+   * @return digest of the properties file's content
+   */
+  public String getSourceDigest() {
+    return sourceDigest;
+  }
+
+  /**
+   * @return size of the properties file in bytes
+   */
+  public long getSourceLength() {
+    return sourceLength;
+  }
+
+  /**
+   * @return the number of properties
+   */
+  public int size() {
+    return keys.size();
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Removes properties from the content of a properties file. All other properties are kept exactly as they are written,
+ * including their escapes and line continuations. Comments and blank lines are removed as well.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public final class PropertiesShrinker {
+
+  /**
+   * Utility class, not to be instantiated.
+   */
+  private PropertiesShrinker() {
+  }
+
+  /**
+   * Removes properties from the content of a properties file.
+   * 
+   * @param content
+   *          the content of the properties file
+   * @param keys
+   *          the keys of the properties to remove
+   * @return the content without the given properties, comments and blank lines
+   * @throws IOException
+   *           if a property could not be parsed
+   */
+  public static String removeProperties(final String content, final Set<String> keys) throws IOException {
+    StringBuilder builder = new StringBuilder(content.length());
+    List<String> lines = splitLines(content);
+    int i = 0;
+    while (i < lines.size()) {
+      String line = lines.get(i++);
+      String trimmedLine = line.trim();
+      if (trimmedLine.length() == 0 || trimmedLine.charAt(0) == '#' || trimmedLine.charAt(0) == '!') {
+        continue;
+      }
+      StringBuilder logicalLine = new StringBuilder(line);
+      while (isContinued(line) && i < lines.size()) {
+        line = lines.get(i++);
+        logicalLine.append(line);
+      }
+
+      Properties property = new Properties();
+      property.load(new StringReader(logicalLine.toString()));
+      if (property.isEmpty() || !keys.contains(property.keys().nextElement())) {
+        builder.append(logicalLine);
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Splits a string into lines, keeping their line terminators.
+   * 
+   * @param content
+   *          the string to split
+   * @return the lines
+   */
+  private static List<String> splitLines(final String content) {
+    List<String> lines = new ArrayList<String>();
+    int start = 0;
+    for (int i = 0; i < content.length(); i++) {
+      char c = content.charAt(i);
+      if (c == '\n' || c == '\r' && (i + 1 == content.length() || content.charAt(i + 1) != '\n')) {
+        lines.add(content.substring(start, i + 1));
+        start = i + 1;
+      }
+    }
+    if (start < content.length()) {
+      lines.add(content.substring(start));
+    }
+    return lines;
+  }
+
+  /**
+   * @param line
+   *          a line, including its line terminator
+   * @return <code>true</code> if the line ends with an odd number of backslashes, so that the next line belongs to the
+   *         same property
+   */
+  private static boolean isContinued(final String line) {
+    int end = line.length();
+    while (end > 0 && (line.charAt(end - 1) == '\n' || line.charAt(end - 1) == '\r')) {
+      end--;
+    }
+    int backslashes = 0;
+    while (end - backslashes > 0 && line.charAt(end - backslashes - 1) == '\\') {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+}
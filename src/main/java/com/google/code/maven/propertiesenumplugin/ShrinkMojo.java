@@ -0,0 +1,139 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.maven.plugin.MojoExecutionException;
+
+/**
+ * This Mojo removes the keys whose enum constants are not referenced by any compiled class from the properties files,
+ * so that smaller bundles are shipped. It runs after the classes have been compiled, scans them without loading them
+ * and writes shrunk copies of the properties files and their localized variants. The unreferenced keys are reported.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ * @goal shrink
+ * @phase process-classes
+ * @requiresDependencyResolution compile
+ * @requiresProject true
+ */
+public class ShrinkMojo extends AbstractEnumGeneratorMojo {
+
+  /**
+   * Directory containing the compiled classes to scan for references to the generated enums.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String classesDirectory;
+
+  /**
+   * Directory to write the shrunk properties files to, at the same path relative to this directory as they have
+   * relative to their base directory. By default, the properties files copied to the output directory are replaced.
+   * 
+   * @parameter default-value="${project.build.outputDirectory}"
+   */
+  private String shrinkDirectory;
+
+  /**
+   * Number of threads used to scan the class files. If <code>0</code>, one thread per available processor is used.
+   * 
+   * @parameter expression="${propertiesEnum.threads}" default-value="0"
+   */
+  private int threads;
+
+  /**
+   * Writes the shrunk properties files and reports the unreferenced keys.
+   * 
+   * @throws MojoExecutionException
+   *           if an exception occurred
+   */
+  @Override
+  public void execute() throws MojoExecutionException {
+    EnumGenerator enumGenerator = createEnumGenerator();
+    Map<File, List<String>> unreferencedKeys;
+    try {
+      unreferencedKeys = enumGenerator.shrink(new File(classesDirectory), new File(shrinkDirectory),
+          threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    } catch (IOException e) {
+      getLog().error(e);
+      throw new MojoExecutionException(e.getMessage(), e);
+    } catch (InvalidPropertyKeyException e) {
+      getLog().error(e);
+      throw new MojoExecutionException(e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MojoExecutionException(e.getMessage(), e);
+    }
+
+    int count = 0;
+    for (Entry<File, List<String>> entry : unreferencedKeys.entrySet()) {
+      if (!entry.getValue().isEmpty()) {
+        getLog().info("Unreferenced keys in " + entry.getKey().getAbsolutePath() + ":");
+        for (String key : entry.getValue()) {
+          getLog().info("  " + key);
+        }
+        count += entry.getValue().size();
+      }
+    }
+    getLog().info(count + " unreferenced key(s) in " + unreferencedKeys.size() + " properties file(s)");
+  }
+
+  /**
+   * @return the classesDirectory
+   */
+  public String getClassesDirectory() {
+    return classesDirectory;
+  }
+
+  /**
+   * @return the shrinkDirectory
+   */
+  public String getShrinkDirectory() {
+    return shrinkDirectory;
+  }
+
+  /**
+   * @return the threads
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * @param classesDirectory
+   *          the classesDirectory to set
+   */
+  public void setClassesDirectory(final String classesDirectory) {
+    this.classesDirectory = classesDirectory;
+  }
+
+  /**
+   * @param shrinkDirectory
+   *          the shrinkDirectory to set
+   */
+  public void setShrinkDirectory(final String shrinkDirectory) {
+    this.shrinkDirectory = shrinkDirectory;
+  }
+
+  /**
+   * @param threads
+   *          the threads to set
+   */
+  public void setThreads(final int threads) {
+    this.threads = threads;
+  }
+}
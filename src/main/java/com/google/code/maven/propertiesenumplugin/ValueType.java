@@ -0,0 +1,174 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The type of a property's value, for which a typed accessor is generated. Each type is identified in the generated
+ * code by a single character.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ */
+public enum ValueType {
+
+  /**
+   * A 32 bit integer, read by <code>getInt()</code>.
+   */
+  INT('i'),
+
+  /**
+   * A 64 bit integer, read by <code>getLong()</code>.
+   */
+  LONG('l'),
+
+  /**
+   * <code>true</code> or <code>false</code>, read by <code>getBoolean()</code>.
+   */
+  BOOLEAN('b'),
+
+  /**
+   * A number of milliseconds, optionally followed by one of the units ms, s, m, h and d, like "30s". Read by
+   * <code>getMillis()</code>.
+   */
+  DURATION('d'),
+
+  /**
+   * Comma separated values, read by <code>getList()</code>. Never inferred.
+   */
+  LIST('L'),
+
+  /**
+   * Any other value. Has no typed accessor.
+   */
+  STRING('s');
+
+  /**
+   * Matches integers.
+   */
+  private static final Pattern INTEGER_PATTERN = Pattern.compile("-?\\d+");
+
+  /**
+   * Matches durations with a unit.
+   */
+  private static final Pattern DURATION_PATTERN = Pattern.compile("\\d+\\s*(ms|s|m|h|d)");
+
+  /**
+   * The units of durations understood by the generated code, including none for milliseconds.
+   */
+  private static final List<String> DURATION_UNITS = Arrays.asList("", "ms", "s", "m", "h", "d");
+
+  /**
+   * The character identifying the type in the generated code.
+   */
+  private final char code;
+
+  /**
+   * Constructs a new {@link ValueType}.
+   * 
+   * @param code
+   *          the character identifying the type in the generated code
+   */
+  private ValueType(final char code) {
+    this.code = code;
+  }
+
+  /**
+   * @return the character identifying the type in the generated code
+   */
+  public char getCode() {
+    return code;
+  }
+
+  /**
+   * Infers the type of a value.
+   * 
+   * @param value
+   *          the property's value
+   * @return the most specific type the value can be parsed as; never {@link #LIST}
+   */
+  public static ValueType infer(final String value) {
+    String trimmedValue = value.trim();
+    if (trimmedValue.equalsIgnoreCase("true") || trimmedValue.equalsIgnoreCase("false")) {
+      return BOOLEAN;
+    }
+    if (INTEGER_PATTERN.matcher(trimmedValue).matches()) {
+      try {
+        Integer.parseInt(trimmedValue);
+        return INT;
+      } catch (NumberFormatException e) {
+        try {
+          Long.parseLong(trimmedValue);
+          return LONG;
+        } catch (NumberFormatException e2) {
+          return STRING;
+        }
+      }
+    }
+    if (DURATION_PATTERN.matcher(trimmedValue).matches()) {
+      return DURATION;
+    }
+    return STRING;
+  }
+
+  /**
+   * Checks that a value can be parsed as this type the way the generated code parses it when the enum is loaded.
+   * 
+   * @param value
+   *          the property's value
+   * @return <code>true</code> if the value is valid for this type
+   */
+  public boolean isValid(final String value) {
+    String trimmedValue = value.trim();
+    try {
+      switch (this) {
+        case INT:
+          Integer.parseInt(trimmedValue);
+          return true;
+        case LONG:
+          Long.parseLong(trimmedValue);
+          return true;
+        case BOOLEAN:
+          return trimmedValue.equalsIgnoreCase("true") || trimmedValue.equalsIgnoreCase("false");
+        case DURATION:
+          int end = trimmedValue.length();
+          while (end > 0 && !Character.isDigit(trimmedValue.charAt(end - 1))) {
+            end--;
+          }
+          Long.parseLong(trimmedValue.substring(0, end));
+          return DURATION_UNITS.contains(trimmedValue.substring(end).trim());
+        default:
+          return true;
+      }
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @param name
+   *          the name of a type, case insensitive, e.g. "int" or "duration"
+   * @return the type, or <code>null</code> if there is none with the given name
+   */
+  public static ValueType forName(final String name) {
+    for (ValueType type : values()) {
+      if (type.name().equals(name.trim().toUpperCase(Locale.ENGLISH))) {
+        return type;
+      }
+    }
+    return null;
+  }
+}
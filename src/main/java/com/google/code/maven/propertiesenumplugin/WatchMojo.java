@@ -0,0 +1,191 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * This Mojo generates the enums once and then keeps watching the properties files. Whenever a properties file is
+ * modified, only its enum is generated again. The generator is kept between regenerations, so a change is picked up
+ * without starting Maven again. Stop it with Ctrl+C.
+ * 
+ * @author <a href="mailto:michel_jung@hotmail.com">Michel Jung</a>
+ * @goal watch
+ * @requiresDependencyResolution compile
+ * @requiresProject true
+ */
+public class WatchMojo extends AbstractEnumGeneratorMojo {
+
+  /**
+   * Interval in milliseconds in which the properties files are checked for modifications.
+   * 
+   * @parameter expression="${propertiesEnum.watchInterval}" default-value="200"
+   */
+  private long watchInterval;
+
+  /**
+   * Time in milliseconds without further modifications to wait before the enums are generated again. Editors often
+   * write a file in several steps; this prevents generating an enum from a half-written file.
+   * 
+   * @parameter expression="${propertiesEnum.quietPeriod}" default-value="100"
+   */
+  private long quietPeriod;
+
+  /**
+   * Generates all enums, then regenerates the enums of modified properties files until the build is interrupted.
+   * 
+   * @throws MojoExecutionException
+   *           if an exception occurred
+   * @throws MojoFailureException
+   *           of the mojo failed
+   */
+  @Override
+  public void execute() throws MojoExecutionException, MojoFailureException {
+    EnumGenerator enumGenerator = createEnumGenerator();
+    Map<File, File> sourceFiles;
+    FileWatcher fileWatcher;
+    try {
+      enumGenerator.generate();
+      sourceFiles = enumGenerator.getWatchedFiles();
+      fileWatcher = new FileWatcher(sourceFiles.keySet());
+    } catch (IOException e) {
+      getLog().error(e);
+      throw new MojoExecutionException(e.getMessage(), e);
+    } catch (InvalidPropertyKeyException e) {
+      getLog().error(e);
+      throw new MojoFailureException(e.getMessage(), e);
+    }
+
+    getLog().info("Watching properties files for modifications, press Ctrl+C to stop");
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<File> changedFiles = awaitChanges(enumGenerator, fileWatcher, sourceFiles);
+        regenerate(enumGenerator, changedFiles);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Blocks until at least one file has changed and no further changes were detected during {@link #quietPeriod}. New
+   * properties files matching the configured includes and new localized variants are watched as soon as they are
+   * found.
+   * 
+   * @param enumGenerator
+   *          the generator to get the watched files from
+   * @param fileWatcher
+   *          the file watcher to poll
+   * @param sourceFiles
+   *          the properties file of each watched file, which is updated with the newly watched files
+   * @return the properties files of all files that changed in the meantime
+   * @throws InterruptedException
+   *           if the thread was interrupted while waiting
+   */
+  Set<File> awaitChanges(final EnumGenerator enumGenerator, final FileWatcher fileWatcher,
+      final Map<File, File> sourceFiles) throws InterruptedException {
+    Set<File> changedFiles = new LinkedHashSet<File>();
+    long lastChange = 0;
+    while (changedFiles.isEmpty() || System.currentTimeMillis() - lastChange < quietPeriod) {
+      Thread.sleep(changedFiles.isEmpty() ? watchInterval : Math.min(watchInterval, quietPeriod));
+      try {
+        Map<File, File> watchedFiles = enumGenerator.getWatchedFiles();
+        sourceFiles.putAll(watchedFiles);
+        fileWatcher.watch(watchedFiles.keySet());
+      } catch (IOException e) {
+        getLog().debug(e.getMessage());
+      }
+      Set<File> polledFiles = fileWatcher.poll();
+      if (!polledFiles.isEmpty()) {
+        for (File polledFile : polledFiles) {
+          changedFiles.add(sourceFiles.get(polledFile));
+        }
+        lastChange = System.currentTimeMillis();
+      }
+    }
+    return changedFiles;
+  }
+
+  /**
+   * Generates the enums of the given files again. Errors are logged only, so that a typo in a properties file doesn't
+   * stop watching.
+   * 
+   * @param enumGenerator
+   *          the generator to use
+   * @param changedFiles
+   *          the modified properties files
+   */
+  private void regenerate(final EnumGenerator enumGenerator, final Set<File> changedFiles) {
+    Set<File> existingFiles = new LinkedHashSet<File>();
+    Set<File> deletedFiles = new LinkedHashSet<File>();
+    for (File changedFile : changedFiles) {
+      if (changedFile.exists()) {
+        existingFiles.add(changedFile);
+      } else {
+        getLog().warn("The file " + changedFile.getAbsolutePath() + " has been deleted");
+        deletedFiles.add(changedFile);
+      }
+    }
+
+    long start = System.currentTimeMillis();
+    try {
+      enumGenerator.remove(deletedFiles);
+      enumGenerator.regenerate(existingFiles);
+      getLog().info("Regenerated " + existingFiles.size() + " enum(s) in " + (System.currentTimeMillis() - start)
+          + " ms");
+    } catch (IOException e) {
+      getLog().error(e);
+    } catch (InvalidPropertyKeyException e) {
+      getLog().error(e);
+    } catch (DuplicateEnumFieldException e) {
+      getLog().error(e);
+    }
+  }
+
+  /**
+   * @return the watchInterval
+   */
+  public long getWatchInterval() {
+    return watchInterval;
+  }
+
+  /**
+   * @param watchInterval
+   *          the watchInterval to set
+   */
+  public void setWatchInterval(final long watchInterval) {
+    this.watchInterval = watchInterval;
+  }
+
+  /**
+   * @return the quietPeriod
+   */
+  public long getQuietPeriod() {
+    return quietPeriod;
+  }
+
+  /**
+   * @param quietPeriod
+   *          the quietPeriod to set
+   */
+  public void setQuietPeriod(final long quietPeriod) {
+    this.quietPeriod = quietPeriod;
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link BuildManifest}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class BuildManifestTest {
+
+  /**
+   * The directory containing the manifest and all other files.
+   */
+  private File directory;
+
+  /**
+   * The manifest file.
+   */
+  private File manifestFile;
+
+  /**
+   * The fingerprints file.
+   */
+  private File fingerprintsFile;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if the temporary directory could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("build-manifest", "");
+    assertTrue(directory.delete());
+    assertTrue(directory.mkdir());
+    manifestFile = new File(directory, "manifest.properties");
+    fingerprintsFile = new File(directory, "fingerprints.properties");
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    for (File file : directory.listFiles()) {
+      file.delete();
+    }
+    directory.delete();
+  }
+
+  /**
+   * Tests that the outputs of a removed properties file are deleted in the next build.
+   * 
+   * @throws IOException
+   *           if a file could not be created
+   */
+  @Test
+  public void testDeleteOutputsOfRemovedInput() throws IOException {
+    File messages = new File(directory, "messages.properties");
+    File labels = new File(directory, "labels.properties");
+    File messagesEnum = createFile("Messages.java");
+    File labelsEnum = createFile("Labels.java");
+
+    BuildManifest manifest = new BuildManifest(manifestFile, fingerprintsFile);
+    manifest.setOutputs(messages, Collections.singletonList(messagesEnum));
+    manifest.setOutputs(labels, Collections.singletonList(labelsEnum));
+    manifest.save();
+
+    manifest = new BuildManifest(manifestFile, fingerprintsFile);
+    assertEquals(Collections.singletonList(labelsEnum), manifest.getOutputs(labels));
+    manifest.retainInputs(Arrays.asList(messages));
+    assertEquals(Collections.singletonList(labelsEnum), manifest.deleteOrphanedOutputs());
+    assertFalse(labelsEnum.exists());
+    assertTrue(messagesEnum.exists());
+  }
+
+  /**
+   * Tests that an output that is not generated anymore for an existing properties file is deleted.
+   * 
+   * @throws IOException
+   *           if a file could not be created
+   */
+  @Test
+  public void testDeleteReplacedOutput() throws IOException {
+    File messages = new File(directory, "messages.properties");
+    File oldEnum = createFile("OldMessages.java");
+    File newEnum = createFile("Messages.java");
+
+    BuildManifest manifest = new BuildManifest(manifestFile, fingerprintsFile);
+    manifest.setOutputs(messages, Collections.singletonList(oldEnum));
+    manifest.setOutputs(messages, Collections.singletonList(newEnum));
+
+    assertEquals(Collections.singletonList(oldEnum), manifest.deleteOrphanedOutputs());
+    assertTrue(manifest.deleteOrphanedOutputs().isEmpty());
+    assertTrue(newEnum.exists());
+  }
+
+  /**
+   * @param name
+   *          the file name
+   * @return a new, empty file in {@link #directory}
+   * @throws IOException
+   *           if the file could not be created
+   */
+  private File createFile(final String name) throws IOException {
+    File file = new File(directory, name);
+    assertTrue(file.createNewFile());
+    return file;
+  }
+}
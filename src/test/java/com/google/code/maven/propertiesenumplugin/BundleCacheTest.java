@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link BundleCache}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class BundleCacheTest {
+
+  /**
+   * The cached properties file.
+   */
+  private File file;
+
+  /**
+   * A parsed bundle.
+   */
+  private PropertiesBundle bundle;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if the temporary file could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("bundle-cache", ".properties");
+    bundle = new PropertiesBundle(Arrays.asList("key"), Arrays.asList("value"), Arrays.asList("KEY"), "digest",
+        file.length());
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    BundleCache.clear();
+    file.delete();
+  }
+
+  /**
+   * Tests that a cached bundle is returned as long as the file is unchanged.
+   * 
+   * @throws IOException
+   *           if the canonical path could not be determined
+   */
+  @Test
+  public void testGet() throws IOException {
+    assertNull(BundleCache.get(file, "UTF-8"));
+    BundleCache.put(file, "UTF-8", file.lastModified(), bundle);
+    assertSame(bundle, BundleCache.get(file, "UTF-8"));
+    assertNull(BundleCache.get(file, "ISO-8859-1"));
+  }
+
+  /**
+   * Tests that a modified file invalidates its entry.
+   * 
+   * @throws IOException
+   *           if the canonical path could not be determined
+   */
+  @Test
+  public void testModifiedFile() throws IOException {
+    BundleCache.put(file, "UTF-8", file.lastModified(), bundle);
+    assertTrue(file.setLastModified(file.lastModified() + 2000));
+    assertNull(BundleCache.get(file, "UTF-8"));
+  }
+}
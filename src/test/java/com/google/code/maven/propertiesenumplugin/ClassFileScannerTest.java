@@ -0,0 +1,207 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ClassFileScanner}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class ClassFileScannerTest {
+
+  /**
+   * Internal name of the enum type referenced by this test.
+   */
+  private static final String TIME_UNIT = "java/util/concurrent/TimeUnit";
+
+  /**
+   * Internal name of the enum type used dynamically by {@link DynamicUsage}.
+   */
+  private static final String THREAD_STATE = "java/lang/Thread$State";
+
+  /**
+   * Class that uses all constants of an enum type.
+   */
+  static class DynamicUsage {
+
+    /**
+     * @return the number of thread states
+     */
+    int countStates() {
+      return Thread.State.values().length;
+    }
+  }
+
+  /**
+   * Enum type with the generated lookup of constants by ID.
+   */
+  enum Level {
+
+    /**
+     * The only constant.
+     */
+    LOW;
+
+    /**
+     * @param id
+     *          an ID
+     * @return the constant with the ID
+     */
+    static Level fromId(final int id) {
+      return LOW;
+    }
+  }
+
+  /**
+   * Class that looks up the constants of an enum type by ID.
+   */
+  static class IdUsage {
+
+    /**
+     * @return a constant chosen at runtime
+     */
+    Level getLevel() {
+      return Level.fromId(1);
+    }
+  }
+
+  /**
+   * Class that holds a key as a constant, like the generated key constants class.
+   */
+  static class GeneratedKeys {
+
+    /**
+     * A key.
+     */
+    static final String KEY = "generated.key";
+  }
+
+  /**
+   * @return a referenced constant
+   */
+  TimeUnit getTimeUnit() {
+    return TimeUnit.SECONDS;
+  }
+
+  /**
+   * Reads the class file of a class from the class path.
+   * 
+   * @param type
+   *          the class
+   * @return the class file's content
+   * @throws IOException
+   *           if the class file could not be read
+   */
+  private byte[] readClassFile(final Class<?> type) throws IOException {
+    InputStream in = type.getResourceAsStream(type.getName().substring(type.getName().lastIndexOf('.') + 1)
+        + ".class");
+    try {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    } finally {
+      in.close();
+    }
+  }
+
+  /**
+   * Tests that field references and string constants are found.
+   * 
+   * @throws IOException
+   *           if the class file could not be read
+   */
+  @Test
+  public void testScan() throws IOException {
+    ClassFileScanner scanner = new ClassFileScanner(Arrays.asList(TIME_UNIT, THREAD_STATE));
+    scanner.scan(readClassFile(ClassFileScannerTest.class));
+    assertEquals(Collections.singleton("SECONDS"), scanner.getReferencedConstants(TIME_UNIT));
+    assertFalse(scanner.isDynamicallyUsed(TIME_UNIT));
+    assertFalse(scanner.isDynamicallyUsed(THREAD_STATE));
+    assertTrue(scanner.getStringConstants().contains(TIME_UNIT));
+  }
+
+  /**
+   * Tests that calls to <code>values()</code> are found.
+   * 
+   * @throws IOException
+   *           if the class file could not be read
+   */
+  @Test
+  public void testScanDynamicUsage() throws IOException {
+    ClassFileScanner scanner = new ClassFileScanner(Arrays.asList(TIME_UNIT, THREAD_STATE));
+    scanner.scan(readClassFile(DynamicUsage.class));
+    assertTrue(scanner.isDynamicallyUsed(THREAD_STATE));
+    assertTrue(scanner.getReferencedConstants(TIME_UNIT).isEmpty());
+  }
+
+  /**
+   * Tests that calls to the generated <code>fromId(int)</code> are found.
+   * 
+   * @throws IOException
+   *           if the class file could not be read
+   */
+  @Test
+  public void testScanIdUsage() throws IOException {
+    String level = Level.class.getName().replace('.', '/');
+    ClassFileScanner scanner = new ClassFileScanner(Collections.singleton(level));
+    scanner.scan(readClassFile(IdUsage.class));
+    assertTrue(scanner.isDynamicallyUsed(level));
+  }
+
+  /**
+   * Tests that the string constants of generated classes are ignored.
+   * 
+   * @throws IOException
+   *           if the class file could not be read
+   */
+  @Test
+  public void testScanGeneratedClass() throws IOException {
+    byte[] classFile = readClassFile(GeneratedKeys.class);
+    ClassFileScanner scanner = new ClassFileScanner(Collections.singleton(TIME_UNIT));
+    scanner.scan(classFile);
+    assertTrue(scanner.getStringConstants().contains(GeneratedKeys.KEY));
+
+    scanner = new ClassFileScanner(Collections.singleton(TIME_UNIT), Collections.singleton(GeneratedKeys.class
+        .getName().replace('.', '/')));
+    scanner.scan(classFile);
+    assertFalse(scanner.getStringConstants().contains(GeneratedKeys.KEY));
+  }
+
+  /**
+   * Tests that other files are rejected.
+   * 
+   * @throws IOException
+   *           if the class file is invalid, as expected
+   */
+  @Test(expected = IOException.class)
+  public void testScanInvalidFile() throws IOException {
+    new ClassFileScanner(Collections.singleton(TIME_UNIT)).scan("key=value".getBytes("UTF-8"));
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link DirectoryIndex}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class DirectoryIndexTest {
+
+  /**
+   * The directory to scan.
+   */
+  private File baseDir;
+
+  /**
+   * The file to store the index in.
+   */
+  private File indexFile;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if a file could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    baseDir = File.createTempFile("directory-index", "");
+    assertTrue(baseDir.delete());
+    assertTrue(new File(baseDir, "com/example").mkdirs());
+    assertTrue(new File(baseDir, "com/example/messages.properties").createNewFile());
+    assertTrue(new File(baseDir, "com/example/messages_de.properties").createNewFile());
+    assertTrue(new File(baseDir, "com/example/readme.txt").createNewFile());
+    indexFile = new File(baseDir, "index");
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    delete(baseDir);
+  }
+
+  /**
+   * Tests include and exclude patterns.
+   * 
+   * @throws IOException
+   *           if the directory could not be scanned
+   */
+  @Test
+  public void testScan() throws IOException {
+    DirectoryIndex directoryIndex = new DirectoryIndex(null);
+
+    List<String> result = directoryIndex.scan(baseDir, Arrays.asList("**/*.properties"),
+        Arrays.asList("**/*_de.properties"));
+    assertEquals(Arrays.asList(path("com/example/messages.properties")), result);
+
+    result = directoryIndex.scan(baseDir, Arrays.asList("com/"), null);
+    assertEquals(Arrays.asList(path("com/example/messages.properties"), path("com/example/messages_de.properties"),
+        path("com/example/readme.txt")), result);
+  }
+
+  /**
+   * Tests that a saved index is used by the next build and still notices new files.
+   * 
+   * @throws IOException
+   *           if the index could not be saved or a file could not be created
+   */
+  @Test
+  public void testSavedIndex() throws IOException {
+    List<String> includes = Arrays.asList("**/messages*.properties");
+    DirectoryIndex directoryIndex = new DirectoryIndex(indexFile);
+    directoryIndex.scan(baseDir, includes, null);
+    directoryIndex.save();
+    assertTrue(indexFile.exists());
+
+    File newFile = new File(baseDir, "com/messages_fr.properties");
+    assertTrue(newFile.createNewFile());
+    // make sure the modification time differs even on file systems with a coarse resolution
+    assertTrue(newFile.getParentFile().setLastModified(newFile.getParentFile().lastModified() + 2000));
+
+    directoryIndex = new DirectoryIndex(indexFile);
+    assertEquals(Arrays.asList(path("com/example/messages.properties"), path("com/example/messages_de.properties"),
+        path("com/messages_fr.properties")), directoryIndex.scan(baseDir, includes, null));
+  }
+
+  /**
+   * Tests that a missing base directory results in no files.
+   * 
+   * @throws IOException
+   *           if the directory could not be scanned
+   */
+  @Test
+  public void testScanMissingDirectory() throws IOException {
+    DirectoryIndex directoryIndex = new DirectoryIndex(null);
+    assertEquals(Collections.emptyList(),
+        directoryIndex.scan(new File(baseDir, "missing"), Arrays.asList("**/*.properties"), null));
+  }
+
+  /**
+   * Tests that the entries of an archive are scanned like a directory.
+   * 
+   * @throws IOException
+   *           if the archive could not be created or scanned
+   */
+  @Test
+  public void testScanArchive() throws IOException {
+    File archive = new File(baseDir, "messages.jar");
+    ZipOutputStream out = new ZipOutputStream(new FileOutputStream(archive));
+    try {
+      for (String name : Arrays.asList("com/", "com/example/", "com/example/messages.properties",
+          "com/example/messages_de.properties", "com/example/Messages.class")) {
+        out.putNextEntry(new ZipEntry(name));
+        out.closeEntry();
+      }
+    } finally {
+      out.close();
+    }
+
+    DirectoryIndex directoryIndex = new DirectoryIndex(null);
+    assertEquals(Arrays.asList(path("com/example/messages.properties")), directoryIndex.scan(archive,
+        Arrays.asList("com/"), Arrays.asList("**/*_de.properties", "**/*.class")));
+  }
+
+  /**
+   * @param path
+   *          a path using slashes
+   * @return the path using the platform's file separator
+   */
+  private static String path(final String path) {
+    return path.replace('/', File.separatorChar);
+  }
+
+  /**
+   * Deletes a file or directory recursively.
+   * 
+   * @param file
+   *          the file to delete
+   */
+  private static void delete(final File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
@@ -14,6 +14,7 @@ package com.google.code.maven.propertiesenumplugin;
 
 import java.io.File;
 
+import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.codehaus.plexus.util.FileUtils;
 import org.junit.Test;
@@ -25,6 +26,34 @@ import org.junit.Test;
  */
 public class EnumGeneratorMojoTest extends AbstractMojoTestCase {
 
+  /**
+   * Tests whether the check goal accepts up to date enums and detects modified ones.
+   * 
+   * @throws Exception
+   *           if an exception occurred
+   */
+  @Test
+  public void testCheck() throws Exception {
+    File pluginXml = new File(getBasedir(), "src/test/resources/utf8-test-config.xml");
+    EnumGeneratorMojo mojo = (EnumGeneratorMojo) lookupMojo("generate", pluginXml);
+    assertNotNull(mojo);
+    mojo.execute();
+
+    CheckMojo checkMojo = (CheckMojo) lookupMojo("check", pluginXml);
+    assertNotNull(checkMojo);
+    checkMojo.execute();
+
+    File generatedFile = new File(
+            "target/generated-sources/com/google/code/maven/propertiesenumplugin/MyUtf8Properties.java");
+    FileUtils.fileAppend(generatedFile.getPath(), "// edited by hand\n");
+    try {
+      checkMojo.execute();
+      fail("Modified enum was not detected");
+    } catch (MojoFailureException e) {
+      // good!
+    }
+  }
+
   /**
    * Tests whether duplicated keys are detected.
    * 
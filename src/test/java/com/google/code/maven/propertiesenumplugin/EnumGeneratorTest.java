@@ -13,23 +13,38 @@
 package com.google.code.maven.propertiesenumplugin;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
 
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.code.maven.propertiesenumplugin.stub.EnumGeneratorProjectStub;
+
 /**
  * Test cases for {@link EnumGenerator}.
  * 
@@ -214,6 +229,511 @@ public class EnumGeneratorTest {
     assertTrue(dir.exists());
   }
 
+  /**
+   * Test method for {@link EnumGenerator#writeFlightRecorderSupport(java.io.Writer)}.
+   * 
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  @Test
+  public void testWriteFlightRecorderSupport() throws IOException {
+    enumGenerator.setFlightRecorderThreshold("500 us");
+    StringWriter writer = new StringWriter();
+    enumGenerator.writeFlightRecorderSupport(writer);
+    String code = writer.toString();
+    assertTrue(code.contains("public final String getString(final java.util.Locale locale)"));
+    assertTrue(code.contains("@jdk.jfr.Threshold(\"500 us\")"));
+    assertTrue(code.contains("static final class MissingKeyEvent extends jdk.jfr.Event"));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#writeUsageCounters(java.io.Writer, String)}.
+   * 
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  @Test
+  public void testWriteUsageCounters() throws IOException {
+    enumGenerator.setUsageCounters(true);
+    StringWriter writer = new StringWriter();
+    enumGenerator.writeUsageCounters(writer, ENUM_TYPE_NAME);
+    enumGenerator.writeFlightRecorderSupport(writer);
+    String code = writer.toString();
+    assertTrue(code.contains("public static java.util.Map<String, Long> getUsageCounts()"));
+    assertTrue(code.contains("for (" + ENUM_TYPE_NAME + " constant : values())"));
+    assertTrue(code.contains("  public final String getString(final java.util.Locale locale) {\n    countUsage();\n"));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#writeTypedAccessors(java.io.Writer, String, String, PropertiesBundle)}.
+   * 
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  @Test
+  public void testWriteTypedAccessors() throws IOException {
+    enumGenerator.setTypedAccessors(true);
+    StringWriter writer = new StringWriter();
+    enumGenerator.writeTypedAccessors(writer, ENUM_TYPE_NAME, "messages", new PropertiesBundle(Arrays.asList(
+        "greeting", "farewell"), Arrays.asList("Hello", "Bye"), Arrays.asList("GREETING", "FAREWELL"), "", 0));
+    enumGenerator.writeTypedAccessors(writer, ENUM_TYPE_NAME, "messages", new PropertiesBundle(
+        new ArrayList<String>(), new ArrayList<String>(), new ArrayList<String>(), "", 0));
+    assertEquals("", writer.toString());
+
+    enumGenerator.writeTypedAccessors(writer, ENUM_TYPE_NAME, "config", new PropertiesBundle(Arrays.asList(
+        "server.host", "server.port"), Arrays.asList("localhost", "80"), Arrays.asList("SERVER_HOST", "SERVER_PORT"),
+        "", 0));
+    String code = writer.toString();
+    assertTrue(code.contains("VALUE_TYPES = \"si\";"));
+    assertTrue(code.contains("      try {\n        if (type == 'i') {\n"
+        + "          INT_VALUES[ordinal] = Integer.parseInt(value);\n        }\n"
+        + "      } catch (RuntimeException e) {\n"));
+    assertTrue(code.contains("public final int getInt()"));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#writeEnumTypeSignature(java.io.Writer, String)},
+   * {@link EnumGenerator#writeEnumField(String, String, String, java.io.Writer, boolean, Map)} and
+   * {@link EnumGenerator#writeRuntimeMethods(java.io.Writer)} with the runtime option.
+   * 
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  @Test
+  public void testWriteRuntime() throws IOException {
+    enumGenerator = new EnumGenerator(null, ENUM_FIELD_PATTERN, "%1$s", null, null, null, 120, null, null, null, false,
+        null, null);
+    enumGenerator.setRuntime(true);
+    StringWriter writer = new StringWriter();
+    enumGenerator.writeEnumTypeSignature(writer, ENUM_TYPE_NAME);
+    enumGenerator.writeEnumField("my.key", "My value", "MY_KEY", writer, true, new HashMap<String, String>());
+    enumGenerator.writeRuntimeMethods(writer);
+    String code = writer.toString();
+    assertTrue(code.startsWith("public enum " + ENUM_TYPE_NAME
+        + " implements com.google.code.maven.propertiesenumplugin.runtime.PropertyKey {"));
+    assertTrue(code.contains("  MY_KEY"));
+    assertFalse(code.contains("MY_KEY(\"my.key\")"));
+    assertTrue(code.contains("    return key();"));
+    assertFalse(code.contains("originalKey"));
+  }
+
+  /**
+   * Tests that checking enums of the same name in different packages with several threads reports no duplicate enum
+   * fields, as each enum is rendered with its own field names.
+   * 
+   * @throws Exception
+   *           if the enums could not be generated or checked
+   */
+  @Test
+  public void testCheckSameEnumNamesInParallel() throws Exception {
+    File directory = File.createTempFile("check", "");
+    assertTrue(directory.delete());
+    try {
+      StringBuilder properties = new StringBuilder();
+      for (int i = 0; i < 200; i++) {
+        properties.append("key").append(i).append("=Value ").append(i).append('\n');
+      }
+      List<String> files = Arrays.asList("com/a/messages.properties", "com/b/messages.properties",
+          "com/c/messages.properties", "com/d/messages.properties");
+      for (String file : files) {
+        writeFile(new File(directory, "src/" + file), properties.toString());
+      }
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", files,
+          new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(), null, null, false,
+          new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.generate();
+      for (int i = 0; i < 20; i++) {
+        assertEquals(Arrays.asList(), enumGenerator.check(files.size()));
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that values which don't match their configured type and types of unknown keys fail the generation.
+   * 
+   * @throws Exception
+   *           if the properties file could not be written
+   */
+  @Test
+  public void testGenerateInvalidValueTypes() throws Exception {
+    File directory = File.createTempFile("types", "");
+    assertTrue(directory.delete());
+    try {
+      writeFile(new File(directory, "src/config.properties"), "server.port=80a\nserver.host=localhost\n");
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", Arrays
+          .asList("config.properties"), new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(),
+          null, null, false, new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.setTypedAccessors(true);
+      enumGenerator.setValueTypes(Collections.singletonMap("server.port", ValueType.INT));
+      try {
+        enumGenerator.generate();
+        fail("The invalid value has not been detected");
+      } catch (IOException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("\"server.port\"") && e.getMessage().contains("\"80a\""));
+      }
+
+      enumGenerator.setValueTypes(Collections.singletonMap("server.prot", ValueType.INT));
+      try {
+        enumGenerator.generate();
+        fail("The unknown key has not been detected");
+      } catch (IOException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("[server.prot]"));
+      }
+      assertTrue(enumGenerator.check(1).get(0).contains("[server.prot]"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that the IDs of the keys of a merged file are stored next to the merged files, not in the merge directory.
+   * 
+   * @throws Exception
+   *           if the properties files could not be written
+   */
+  @Test
+  public void testGenerateKeyIdsOfMergeGroup() throws Exception {
+    File directory = File.createTempFile("ids", "");
+    assertTrue(directory.delete());
+    try {
+      writeFile(new File(directory, "src/messages-core.properties"), "core.title=Title\n");
+      writeFile(new File(directory, "src/messages-billing.properties"), "billing.total=Total\n");
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", null,
+          new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(), null, null, false,
+          new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.setMergeGroups(Arrays.asList(new MergeGroup("messages.properties", Arrays.asList(
+          "messages-core.properties", "messages-billing.properties"))), new File(directory, "merged").getPath());
+      enumGenerator.setKeyIds(true);
+      enumGenerator.generate();
+      assertTrue(new File(directory, "src" + File.separator + "messages.ids").isFile());
+      assertFalse(new File(directory, "merged" + File.separator + "messages.ids").exists());
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that shrinking keeps the keys whose values are parsed by the typed accessors when the enum is loaded, even
+   * if no class references them.
+   * 
+   * @throws Exception
+   *           if the properties file could not be written
+   */
+  @Test
+  public void testShrinkTypedAccessors() throws Exception {
+    File directory = File.createTempFile("shrink", "");
+    assertTrue(directory.delete());
+    try {
+      writeFile(new File(directory, "src/config.properties"), "server.port=80\nserver.host=localhost\n");
+      File classesDirectory = new File(directory, "classes");
+      assertTrue(classesDirectory.mkdirs());
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", Arrays
+          .asList("config.properties"), new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(),
+          null, null, false, new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.setTypedAccessors(true);
+      Map<File, List<String>> unreferencedKeys = enumGenerator.shrink(classesDirectory, new File(directory,
+          "shrunk"), 1);
+      assertEquals(Collections.singletonMap(new File(directory, "src" + File.separator + "config.properties"), Arrays
+          .asList("server.host")), unreferencedKeys);
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that the registry class and its services entry are checked, and deleted once the option is removed.
+   * 
+   * @throws Exception
+   *           if the properties file could not be written
+   */
+  @Test
+  public void testRegistryOutputs() throws Exception {
+    File directory = File.createTempFile("registry", "");
+    assertTrue(directory.delete());
+    try {
+      writeFile(new File(directory, "src/messages.properties"), "key=Value\n");
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", Arrays
+          .asList("messages.properties"), new File(directory, "generated").getPath(), null, 120,
+          new SystemStreamLog(), null, null, false, new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.setBuildStateDirectory(new File(directory, "state").getPath());
+      enumGenerator.setRegistry("com.example.MessagesIndex", new File(directory, "classes").getPath());
+      enumGenerator.generate();
+      File registryFile = new File(directory, "generated/com/example/MessagesIndex.java".replace('/',
+          File.separatorChar));
+      File servicesFile = new File(directory, "classes/META-INF/services/".replace('/', File.separatorChar)
+          + "com.google.code.maven.propertiesenumplugin.runtime.EnumIndex");
+      assertTrue(registryFile.isFile());
+      assertTrue(servicesFile.isFile());
+      assertEquals(Arrays.asList(), enumGenerator.check(1));
+
+      writeFile(servicesFile, "com.example.OtherIndex\n");
+      assertEquals(Arrays.asList(servicesFile.getAbsolutePath() + " is not up to date"), enumGenerator.check(1));
+
+      enumGenerator.setRegistry(null, null);
+      assertEquals(2, enumGenerator.check(1).size());
+      enumGenerator.generate();
+      assertFalse(registryFile.exists());
+      assertFalse(servicesFile.exists());
+      assertEquals(Arrays.asList(), enumGenerator.check(1));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that the native image metadata is checked, and deleted once the option is removed.
+   * 
+   * @throws Exception
+   *           if the properties file could not be written
+   */
+  @Test
+  public void testNativeImageOutputs() throws Exception {
+    File directory = File.createTempFile("native", "");
+    assertTrue(directory.delete());
+    try {
+      writeFile(new File(directory, "src/messages.properties"), "key=Value\n");
+      EnumGeneratorProjectStub project = new EnumGeneratorProjectStub();
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", Arrays
+          .asList("messages.properties"), new File(directory, "generated").getPath(), null, 120,
+          new SystemStreamLog(), null, null, false, project, "ISO-8859-1");
+      enumGenerator.setBuildStateDirectory(new File(directory, "state").getPath());
+      enumGenerator.setNativeImageDirectory(new File(directory, "classes").getPath());
+      enumGenerator.generate();
+      File configDirectory = new File(directory, ("classes/META-INF/native-image/" + project.getGroupId() + "/"
+          + project.getArtifactId()).replace('/', File.separatorChar));
+      File resourceConfig = new File(configDirectory, NativeImageMetadata.RESOURCE_CONFIG);
+      File reflectConfig = new File(configDirectory, NativeImageMetadata.REFLECT_CONFIG);
+      assertTrue(resourceConfig.isFile());
+      assertTrue(reflectConfig.isFile());
+      assertEquals(Arrays.asList(), enumGenerator.check(1));
+
+      writeFile(reflectConfig, "modified\n");
+      assertEquals(Arrays.asList(reflectConfig.getAbsolutePath() + " is not up to date"), enumGenerator.check(1));
+
+      enumGenerator.setNativeImageDirectory(null);
+      assertEquals(2, enumGenerator.check(1).size());
+      enumGenerator.generate();
+      assertFalse(resourceConfig.exists());
+      assertFalse(reflectConfig.exists());
+      assertEquals(Arrays.asList(), enumGenerator.check(1));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that keys containing quotes and backslashes are escaped in the generated string literals.
+   * 
+   * @throws IOException
+   *           if an I/O error occurred
+   */
+  @Test
+  public void testWriteEscapedKeys() throws IOException {
+    enumGenerator = new EnumGenerator(null, ENUM_FIELD_PATTERN, "%1$s", null, null, null, 120, null, "com.example",
+        null, false, null, "ISO-8859-1");
+    String key = "say.\"hi\".back\\slash";
+    String literal = "\"say.\\\"hi\\\".back\\\\slash\"";
+    PropertiesBundle bundle = new PropertiesBundle(Arrays.asList(key), Arrays.asList("Value"), Arrays.asList(
+        "SAY_HI_BACKSLASH"), "", 0);
+    assertTrue(enumGenerator.renderKeyConstantsFile(propertiesFile, bundle, targetFile).contains(
+        "public static final String SAY_HI_BACKSLASH = " + literal + ";"));
+
+    StringWriter writer = new StringWriter();
+    enumGenerator.writeEnumField(key, "Value", "SAY_HI_BACKSLASH", writer, true, new HashMap<String, String>());
+    assertTrue(writer.toString().endsWith("  SAY_HI_BACKSLASH(" + literal + ")"));
+
+    writer = new StringWriter();
+    enumGenerator.writePrefixQueries(writer, ENUM_TYPE_NAME, bundle);
+    assertTrue(writer.toString().contains("\n      \"say.\\\"hi\\\"\","));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#buildKeyConstantsFile(File)}.
+   */
+  @Test
+  public void testBuildKeyConstantsFile() {
+    assertEquals(new File(TMP_DIR, ENUM_TYPE_NAME + "Keys.java"), enumGenerator.buildKeyConstantsFile(targetFile));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#renderJsonCatalogs(File, Map)}.
+   * 
+   * @throws IOException
+   *           if a catalog could not be rendered
+   */
+  @Test
+  public void testRenderJsonCatalogs() throws IOException {
+    enumGenerator = new EnumGenerator(null, ENUM_FIELD_PATTERN, null, null, null, null, null, null, null, "my", true,
+        null, "ISO-8859-1");
+    enumGenerator.setJsonCatalogs(TMP_DIR, true);
+    Map<String, byte[]> sources = new LinkedHashMap<String, byte[]>();
+    sources.put("com/example/messages.properties", "my.b=B\nmy.a=\"A\"\nother=O\n".getBytes("ISO-8859-1"));
+    sources.put("com/example/messages_de.properties", "my.b=B\u00e4\n".getBytes("ISO-8859-1"));
+    sources.put("com/example/messages_de_CH.properties", "my.a=A\\nCH\n".getBytes("ISO-8859-1"));
+    Map<File, byte[]> catalogs = enumGenerator.renderJsonCatalogs(new File("com/example/messages.properties"),
+        sources);
+
+    assertEquals(6, catalogs.size());
+    File catalogFile = new File(TMP_DIR, "com/example/messages_de_CH.json".replace('/', File.separatorChar));
+    assertEquals("{\"my.a\":\"A\\nCH\",\"my.b\":\"B\u00e4\"}", new String(catalogs.get(catalogFile), "UTF-8"));
+    assertEquals("{\"my.a\":\"\\\"A\\\"\",\"my.b\":\"B\"}", new String(catalogs.get(new File(TMP_DIR,
+        "com/example/messages.json".replace('/', File.separatorChar))), "UTF-8"));
+
+    InputStream in = new GZIPInputStream(new ByteArrayInputStream(catalogs.get(new File(catalogFile.getPath()
+        + ".gz"))));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int b = in.read(); b >= 0; b = in.read()) {
+      out.write(b);
+    }
+    assertTrue(Arrays.equals(catalogs.get(catalogFile), out.toByteArray()));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#renderCompiledBundles(File, PropertiesBundle, Map, File)}.
+   * 
+   * @throws IOException
+   *           if a bundle class could not be rendered
+   */
+  @Test
+  public void testRenderCompiledBundles() throws IOException {
+    enumGenerator = new EnumGenerator(null, ENUM_FIELD_PATTERN, null, null, TMP_DIR, null, 120, null, null, null,
+        false, null, "ISO-8859-1");
+    PropertiesBundle bundle = new PropertiesBundle(Arrays.asList("greeting", "farewell"), Arrays.asList("Hello",
+        "Bye"), Arrays.asList("GREETING", "FAREWELL"), "", 0);
+    Map<String, byte[]> sources = new LinkedHashMap<String, byte[]>();
+    sources.put("com/example/messages.properties", "greeting=Hello\nfarewell=Bye\n".getBytes("ISO-8859-1"));
+    sources.put("com/example/messages_de.properties", "greeting=Hallo\nonly.de=Nur\n".getBytes("ISO-8859-1"));
+    sources.put("com/example/messages_de_CH.properties", "farewell=Tschau\n".getBytes("ISO-8859-1"));
+    Map<File, String> bundleClasses = enumGenerator.renderCompiledBundles(new File(
+        "com/example/messages.properties"), bundle, sources, targetFile);
+
+    List<File> classFiles = new ArrayList<File>(bundleClasses.keySet());
+    assertEquals(Arrays.asList(new File(TMP_DIR, "com/example/messages.java".replace('/', File.separatorChar)),
+        new File(TMP_DIR, "com/example/messages_de.java".replace('/', File.separatorChar)), new File(TMP_DIR,
+            "com/example/messages_de_CH.java".replace('/', File.separatorChar))), classFiles);
+    String baseClass = bundleClasses.get(classFiles.get(0));
+    assertTrue(baseClass.contains("public class messages extends java.util.ResourceBundle {"));
+    assertTrue(baseClass.contains("static final String[] KEYS = {\n      \"greeting\",\n      \"farewell\",\n"
+        + "      \"only.de\"};"));
+    assertTrue(baseClass.contains("VALUES = {\n      \"Hello\",\n      \"Bye\",\n      null};"));
+    String germanClass = bundleClasses.get(classFiles.get(1));
+    assertTrue(germanClass.contains("public class messages_de extends messages {"));
+    assertTrue(germanClass.contains("VALUES = {\n      \"Hallo\",\n      null,\n      \"Nur\"};"));
+    String swissClass = bundleClasses.get(classFiles.get(2));
+    assertTrue(swissClass.contains("public class messages_de_CH extends messages {"));
+    assertTrue(swissClass.contains("VALUES = {\n      null,\n      \"Tschau\",\n      null};"));
+
+    try {
+      enumGenerator.renderCompiledBundles(new File("com/example/messages.properties"), bundle, sources, new File(
+          TMP_DIR, "com/example/Messages.java".replace('/', File.separatorChar)));
+      fail("The name clash with the enum has not been detected");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("clashes with the enum"));
+    }
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#getWatchedFiles()}.
+   * 
+   * @throws Exception
+   *           if the properties files could not be written
+   */
+  @Test
+  public void testGetWatchedFiles() throws Exception {
+    File directory = File.createTempFile("watch", "");
+    assertTrue(directory.delete());
+    try {
+      File propertiesFile = new File(directory, "messages.properties");
+      File germanFile = new File(directory, "messages_de.properties");
+      writeFile(propertiesFile, "key=Value\n");
+      writeFile(germanFile, "key=Wert\n");
+      enumGenerator = new EnumGenerator(directory.getPath(), ENUM_FIELD_PATTERN, "%1$s", Arrays.asList(
+          "messages.properties"), new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(), null,
+          null, false, new EnumGeneratorProjectStub(), "ISO-8859-1");
+      assertEquals(Collections.singletonMap(propertiesFile, propertiesFile), enumGenerator.getWatchedFiles());
+
+      enumGenerator.setCompiledBundles(true);
+      Map<File, File> watchedFiles = new HashMap<File, File>();
+      watchedFiles.put(propertiesFile, propertiesFile);
+      watchedFiles.put(germanFile, propertiesFile);
+      assertEquals(watchedFiles, enumGenerator.getWatchedFiles());
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that the files of a merge group are watched instead of the merged file, and merged again on regeneration.
+   * 
+   * @throws Exception
+   *           if the properties files could not be written
+   */
+  @Test
+  public void testWatchMergeGroup() throws Exception {
+    File directory = File.createTempFile("watch", "");
+    assertTrue(directory.delete());
+    try {
+      File coreFile = new File(directory, "src/messages-core.properties");
+      File germanFile = new File(directory, "src/messages-core_de.properties");
+      File billingFile = new File(directory, "src/messages-billing.properties");
+      writeFile(coreFile, "core.title=Title\n");
+      writeFile(germanFile, "core.title=Titel\n");
+      writeFile(billingFile, "billing.total=Total\n");
+      enumGenerator = new EnumGenerator(new File(directory, "src").getPath(), ENUM_FIELD_PATTERN, "%1$s", null,
+          new File(directory, "generated").getPath(), null, 120, new SystemStreamLog(), null, null, false,
+          new EnumGeneratorProjectStub(), "ISO-8859-1");
+      enumGenerator.setMergeGroups(Arrays.asList(new MergeGroup("messages.properties", Arrays.asList(
+          "messages-core.properties", "messages-billing.properties"))), new File(directory, "merged").getPath());
+      enumGenerator.generate();
+
+      File mergedFile = new File(directory, "merged" + File.separator + "messages.properties");
+      Map<File, File> watchedFiles = new HashMap<File, File>();
+      watchedFiles.put(coreFile, mergedFile);
+      watchedFiles.put(germanFile, mergedFile);
+      watchedFiles.put(billingFile, mergedFile);
+      assertEquals(watchedFiles, enumGenerator.getWatchedFiles());
+
+      writeFile(germanFile, "core.title=\u00dcberschrift\n");
+      enumGenerator.regenerate(Collections.singleton(mergedFile));
+      Properties mergedProperties = new Properties();
+      InputStream in = new FileInputStream(new File(directory, "merged" + File.separator + "messages_de.properties"));
+      try {
+        mergedProperties.load(in);
+      } finally {
+        in.close();
+      }
+      assertEquals("\u00dcberschrift", mergedProperties.getProperty("core.title"));
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#hashKey(String)}.
+   * 
+   * @throws IOException
+   *           if UTF-8 is not supported
+   */
+  @Test
+  public void testHashKey() throws IOException {
+    assertEquals(0x811c9dc5, EnumGenerator.hashKey(""));
+    assertEquals(0xe40c292c, EnumGenerator.hashKey("a"));
+    assertEquals(0xbf9cf968, EnumGenerator.hashKey("foobar"));
+  }
+
+  /**
+   * Test method for {@link EnumGenerator#buildStringLiteral(String)}.
+   */
+  @Test
+  public void testBuildStringLiteral() {
+    assertEquals("\"plain\"", EnumGenerator.buildStringLiteral("plain"));
+    assertEquals("\"\\\"a\\\" \\\\ b\"", EnumGenerator.buildStringLiteral("\"a\" \\ b"));
+    assertEquals("\"a\\nb\\tc\\000\"", EnumGenerator.buildStringLiteral("a\nb\tc\0"));
+    assertEquals("\"\\u00e9\\u20ac\"", EnumGenerator.buildStringLiteral("\u00e9\u20ac"));
+  }
+
   /**
    * Test method for {@link com.google.code.maven.propertiesenumplugin.EnumGenerator#wordWrap(java.lang.String, int)}.
    */
@@ -243,4 +763,40 @@ public class EnumGeneratorTest {
       assertEquals(expected, actual);
     }
   }
+
+  /**
+   * Writes a file, creating its parent directories.
+   * 
+   * @param file
+   *          the file to write
+   * @param content
+   *          the file's content
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private static void writeFile(final File file, final String content) throws IOException {
+    assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+    FileOutputStream out = new FileOutputStream(file);
+    try {
+      out.write(content.getBytes("ISO-8859-1"));
+    } finally {
+      out.close();
+    }
+  }
+
+  /**
+   * Deletes a file or directory recursively.
+   * 
+   * @param file
+   *          the file to delete
+   */
+  private static void delete(final File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
 }
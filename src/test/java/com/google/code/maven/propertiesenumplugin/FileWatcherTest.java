@@ -0,0 +1,99 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link FileWatcher}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class FileWatcherTest {
+
+  /**
+   * The watched file.
+   */
+  private File file;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if the temporary file could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    file = File.createTempFile("watched", ".properties");
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    file.delete();
+  }
+
+  /**
+   * Tests that an untouched file is not reported.
+   */
+  @Test
+  public void testPollWithoutChanges() {
+    FileWatcher fileWatcher = new FileWatcher(Arrays.asList(file));
+    assertTrue(fileWatcher.poll().isEmpty());
+  }
+
+  /**
+   * Tests that a modified file is reported exactly once.
+   * 
+   * @throws IOException
+   *           if the file could not be written
+   */
+  @Test
+  public void testPollModifiedFile() throws IOException {
+    FileWatcher fileWatcher = new FileWatcher(Arrays.asList(file));
+
+    Writer writer = new FileWriter(file);
+    try {
+      writer.write("key=value\n");
+    } finally {
+      writer.close();
+    }
+
+    assertEquals(Collections.singleton(file), fileWatcher.poll());
+    assertTrue(fileWatcher.poll().isEmpty());
+  }
+
+  /**
+   * Tests that a deleted file is reported.
+   */
+  @Test
+  public void testPollDeletedFile() {
+    FileWatcher fileWatcher = new FileWatcher(Arrays.asList(file));
+    assertTrue(file.delete());
+    assertEquals(Collections.singleton(file), fileWatcher.poll());
+  }
+}
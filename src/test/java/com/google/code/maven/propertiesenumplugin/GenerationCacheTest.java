@@ -0,0 +1,131 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link GenerationCache}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class GenerationCacheTest {
+
+  /**
+   * The cache directory.
+   */
+  private File directory;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if the temporary directory could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    directory = File.createTempFile("generation-cache", "");
+    assertTrue(directory.delete());
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    delete(directory);
+  }
+
+  /**
+   * Tests storing and retrieving an entry.
+   * 
+   * @throws IOException
+   *           if the entry could not be stored
+   */
+  @Test
+  public void testPutAndGet() throws IOException {
+    GenerationCache cache = new GenerationCache(directory, 1024);
+    String key = Digests.digest("source");
+    assertNull(cache.get(key));
+
+    byte[] content = "enum Foo {}".getBytes("UTF-8");
+    cache.put(key, content);
+    assertArrayEquals(content, cache.get(key));
+    assertArrayEquals(content, new GenerationCache(directory, 1024).get(key));
+  }
+
+  /**
+   * Tests that the least recently used entries are evicted first.
+   * 
+   * @throws IOException
+   *           if an entry could not be stored
+   */
+  @Test
+  public void testEvict() throws IOException {
+    GenerationCache cache = new GenerationCache(directory, 20);
+    String oldKey = Digests.digest("old");
+    String usedKey = Digests.digest("used");
+    String newKey = Digests.digest("new");
+    cache.put(oldKey, new byte[10]);
+    cache.put(usedKey, new byte[10]);
+    cache.put(newKey, new byte[10]);
+
+    long now = System.currentTimeMillis();
+    setLastUsed(oldKey, now - 30000);
+    setLastUsed(usedKey, now - 20000);
+    setLastUsed(newKey, now - 10000);
+    assertNotNull(cache.get(usedKey));
+
+    assertEquals(1, cache.evict());
+    assertNull(cache.get(oldKey));
+    assertNotNull(cache.get(usedKey));
+    assertNotNull(cache.get(newKey));
+  }
+
+  /**
+   * @param key
+   *          the cache key
+   * @param time
+   *          the time the entry has been used last
+   */
+  private void setLastUsed(final String key, final long time) {
+    assertTrue(new File(new File(directory, key.substring(0, 2)), key.substring(2)).setLastModified(time));
+  }
+
+  /**
+   * Deletes a file or directory recursively.
+   * 
+   * @param file
+   *          the file to delete
+   */
+  private static void delete(final File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        delete(child);
+      }
+    }
+    file.delete();
+  }
+}
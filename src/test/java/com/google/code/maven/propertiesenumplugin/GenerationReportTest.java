@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.code.maven.propertiesenumplugin.GenerationReport.FileReport;
+
+/**
+ * Test cases for {@link GenerationReport}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class GenerationReportTest {
+
+  /**
+   * Creates the statistics of a properties file.
+   * 
+   * @param name
+   *          the name of the properties file
+   * @param renderTime
+   *          the time spent rendering, in nanoseconds
+   * @return the statistics
+   */
+  private FileReport createFileReport(final String name, final long renderTime) {
+    FileReport fileReport = new FileReport(name + ".properties", name + ".java");
+    fileReport.setKeys(2);
+    fileReport.setInputBytes(10);
+    fileReport.setOutputBytes(100);
+    fileReport.setRenderTime(renderTime);
+    fileReport.setWritten(true);
+    return fileReport;
+  }
+
+  /**
+   * Tests that the table lists the most expensive properties files first, limited to the given number of rows.
+   */
+  @Test
+  public void testFormatTable() {
+    GenerationReport report = new GenerationReport();
+    report.add(createFileReport("cheap", 1000000));
+    report.add(createFileReport("expensive", 3000000));
+    report.add(createFileReport("medium", 2000000));
+
+    List<String> lines = report.formatTable(2);
+    assertEquals(5, lines.size());
+    assertTrue(lines.get(1).startsWith("expensive.properties"));
+    assertTrue(lines.get(2).startsWith("medium.properties"));
+    assertEquals("... 1 more properties file(s)", lines.get(3));
+    assertTrue(lines.get(4).startsWith("3 properties file(s), 3 written, 6 keys, 30 bytes read, 300 bytes generated"));
+  }
+
+  /**
+   * Tests the JSON representation.
+   */
+  @Test
+  public void testToJson() {
+    GenerationReport report = new GenerationReport();
+    FileReport fileReport = createFileReport("com/example/Quote\"", 1000);
+    fileReport.setBundleCacheHit(true);
+    report.add(fileReport);
+
+    String json = report.toJson();
+    assertTrue(json.contains("\"propertiesFile\": \"com/example/Quote\\\".properties\""));
+    assertTrue(json.contains("\"renderNanos\": 1000"));
+    assertTrue(json.contains("\"bundleCacheHit\": true, \"generationCacheHit\": false, \"status\": \"written\"}"));
+  }
+
+  /**
+   * Tests quoting of JSON strings.
+   */
+  @Test
+  public void testQuote() {
+    assertEquals("null", GenerationReport.quote(null));
+    assertEquals("\"a\\\\b\\n\\u0001\"", GenerationReport.quote("a\\b\n\u0001"));
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link KeyHierarchy}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class KeyHierarchyTest {
+
+  /**
+   * Tests that keys are sorted segment by segment.
+   */
+  @Test
+  public void testSort() {
+    List<String> keys = Arrays.asList("a.b-c", "b", "a.b.c", "a.b", "a");
+    List<String> sortedKeys = new ArrayList<String>();
+    for (int index : KeyHierarchy.sort(keys)) {
+      sortedKeys.add(keys.get(index));
+    }
+    assertEquals(Arrays.asList("a", "a.b", "a.b.c", "a.b-c", "b"), sortedKeys);
+  }
+
+  /**
+   * Tests the ranges of the prefixes.
+   */
+  @Test
+  public void testBuildRanges() {
+    Map<String, int[]> ranges = KeyHierarchy.buildRanges(Arrays.asList("a.b", "a.b.c", "a.b-c", "b"));
+    assertEquals(Arrays.asList("a", "a.b", "a.b.c", "a.b-c", "b"), new ArrayList<String>(ranges.keySet()));
+    assertArrayEquals(new int[] {0, 3}, ranges.get("a"));
+    assertArrayEquals(new int[] {0, 2}, ranges.get("a.b"));
+    assertArrayEquals(new int[] {2, 3}, ranges.get("a.b-c"));
+    assertArrayEquals(new int[] {3, 4}, ranges.get("b"));
+  }
+
+  /**
+   * Tests that unsorted keys are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testBuildRangesUnsorted() {
+    KeyHierarchy.buildRanges(Arrays.asList("a.b", "a.b-c", "a.b.c"));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test cases for {@link KeyIdRegistry}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class KeyIdRegistryTest {
+
+  /**
+   * The file to store the IDs in.
+   */
+  private File idFile;
+
+  /**
+   * Sets up the test case.
+   * 
+   * @throws IOException
+   *           if the file could not be created
+   */
+  @Before
+  public void setUp() throws IOException {
+    idFile = File.createTempFile("messages", KeyIdRegistry.EXTENSION);
+    assertTrue(idFile.delete());
+  }
+
+  /**
+   * Code to execute after each test.
+   */
+  @After
+  public void tearDown() {
+    idFile.delete();
+  }
+
+  /**
+   * Test method for {@link KeyIdRegistry#buildFile(File)}.
+   */
+  @Test
+  public void testBuildFile() {
+    assertEquals(new File("com/example", "messages.ids"), KeyIdRegistry.buildFile(new File("com/example",
+        "messages.properties")));
+  }
+
+  /**
+   * Tests that IDs survive saving and loading, and that the IDs of removed keys are not given to new keys.
+   * 
+   * @throws IOException
+   *           if the file could not be written or read
+   */
+  @Test
+  public void testAssign() throws IOException {
+    KeyIdRegistry registry = new KeyIdRegistry(idFile);
+    assertEquals(0, registry.getMaxId());
+    assertTrue(registry.assign(Arrays.asList("b", "a", "line\nbreak")));
+    assertFalse(registry.assign(Arrays.asList("a", "b")));
+    assertEquals(1, registry.getId("b"));
+    assertEquals(2, registry.getId("a"));
+    write(registry.render("messages.properties"));
+
+    registry = new KeyIdRegistry(idFile);
+    assertEquals(3, registry.getId("line\nbreak"));
+    assertTrue(registry.assign(Arrays.asList("c", "a")));
+    assertEquals(2, registry.getId("a"));
+    assertEquals(4, registry.getId("c"));
+    assertEquals(0, registry.getId("missing"));
+  }
+
+  /**
+   * Tests that a duplicate ID is reported with its line number.
+   * 
+   * @throws IOException
+   *           if the file could not be written
+   */
+  @Test
+  public void testDuplicateId() throws IOException {
+    write("# comment\n1=a\n2=b\n2=c\n");
+    try {
+      new KeyIdRegistry(idFile);
+      fail("duplicate ID not detected");
+    } catch (IOException e) {
+      assertTrue(e.getMessage(), e.getMessage().endsWith(":4: ID 2 is already assigned to \"b\""));
+    }
+  }
+
+  /**
+   * Tests that a malformed line is reported.
+   * 
+   * @throws IOException
+   *           if the file could not be written
+   */
+  @Test(expected = IOException.class)
+  public void testMalformedLine() throws IOException {
+    write("1=a\nb\n");
+    new KeyIdRegistry(idFile);
+  }
+
+  /**
+   * @param content
+   *          the content to write to {@link #idFile}
+   * @throws IOException
+   *           if the file could not be written
+   */
+  private void write(final String content) throws IOException {
+    FileOutputStream out = new FileOutputStream(idFile);
+    try {
+      out.write(content.getBytes("UTF-8"));
+    } finally {
+      out.close();
+    }
+  }
+}
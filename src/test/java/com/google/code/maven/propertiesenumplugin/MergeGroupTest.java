@@ -0,0 +1,111 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.code.maven.propertiesenumplugin.MergeGroup.KeyLocation;
+
+/**
+ * Test cases for {@link MergeGroup}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class MergeGroupTest {
+
+  /**
+   * Pattern for valid enum fields.
+   */
+  private static final String ENUM_FIELD_PATTERN = "^[A-Z][A-Z0-9]*[A-Z0-9_]*$";
+
+  /**
+   * The merge group under test.
+   */
+  private final MergeGroup mergeGroup = new MergeGroup("messages.properties", Arrays.asList(
+      "messages-core.properties", "messages-billing.properties"));
+
+  /**
+   * The generator to derive the enum field names with.
+   */
+  private final EnumGenerator enumGenerator = new EnumGenerator(null, ENUM_FIELD_PATTERN, null, null, null, null, null,
+      null, null, null, false, null, null);
+
+  /**
+   * Test method for {@link MergeGroup#findKeys(String, String)}.
+   * 
+   * @throws IOException
+   *           if a line could not be parsed
+   */
+  @Test
+  public void testFindKeys() throws IOException {
+    List<KeyLocation> locations = MergeGroup.findKeys("a.properties", "# comment \\\n  first = 1\r\nsecond:2,\\\n"
+        + "  3\n\n! other comment\nthird\\\\\nfourth=\\\\\\\n  4");
+    assertEquals(4, locations.size());
+    assertEquals("first", locations.get(0).getKey());
+    assertEquals("a.properties:2", locations.get(0).toString());
+    assertEquals("a.properties:3", locations.get(1).toString());
+    assertEquals("third\\", locations.get(2).getKey());
+    assertEquals("a.properties:7", locations.get(2).toString());
+    assertEquals("a.properties:8", locations.get(3).toString());
+  }
+
+  /**
+   * Test method for {@link MergeGroup#merge(Map, String, EnumGenerator)}.
+   * 
+   * @throws Exception
+   *           if the files could not be merged
+   */
+  @Test
+  public void testMerge() throws Exception {
+    Map<String, byte[]> sources = new LinkedHashMap<String, byte[]>();
+    sources.put("messages-core.properties", "a=1".getBytes("ISO-8859-1"));
+    sources.put("messages-billing.properties", "b=2\n".getBytes("ISO-8859-1"));
+    assertEquals("# messages-core.properties\na=1\n# messages-billing.properties\nb=2\n", new String(
+        mergeGroup.merge(sources, "ISO-8859-1", enumGenerator), "ISO-8859-1"));
+  }
+
+  /**
+   * Tests that all duplicate keys and field names are reported with their files and lines.
+   * 
+   * @throws Exception
+   *           if the files could not be parsed
+   */
+  @Test
+  public void testMergeConflicts() throws Exception {
+    Map<String, byte[]> sources = new LinkedHashMap<String, byte[]>();
+    sources.put("messages-core.properties", "a=1\nmy.key=2\n".getBytes("ISO-8859-1"));
+    sources.put("messages-billing.properties", "\nmyKey=3\na=4\n".getBytes("ISO-8859-1"));
+    try {
+      mergeGroup.merge(sources, "ISO-8859-1", enumGenerator);
+      fail("conflicts not detected");
+    } catch (DuplicateEnumFieldException e) {
+      assertEquals("Could not merge [messages-core.properties, messages-billing.properties] into messages.properties:"
+          + "\n  keys \"my.key\" in messages-core.properties:2 and \"myKey\" in messages-billing.properties:2 both"
+          + " result in MY_KEY"
+          + "\n  key \"a\" is defined in messages-core.properties:1 and messages-billing.properties:3", e.getMessage());
+    }
+
+    // field names don't matter for localized variants
+    sources.put("messages-billing.properties", "myKey=3\n".getBytes("ISO-8859-1"));
+    mergeGroup.merge(sources, "ISO-8859-1", null);
+  }
+}
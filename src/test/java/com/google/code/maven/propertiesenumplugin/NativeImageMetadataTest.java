@@ -0,0 +1,63 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link NativeImageMetadata}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class NativeImageMetadataTest {
+
+  /**
+   * Tests the configuration of an enum with compiled bundle classes.
+   */
+  @Test
+  public void testRender() {
+    NativeImageMetadata metadata = new NativeImageMetadata();
+    metadata.addEnum("com.example.enums.Messages", "com.example.messages");
+    metadata.addBundleClass("com.example.messages");
+    metadata.addBundleClass("com.example.messages_de");
+
+    Map<String, String> files = metadata.render(true);
+    assertEquals("{\n  \"resources\": {\n    \"includes\": [\n"
+        + "      {\"pattern\": \"\\\\Qcom/example/messages\\\\E(_[^/]*)?\\\\.properties\"}\n    ]\n  },\n"
+        + "  \"bundles\": [\n    {\"name\": \"com.example.messages\"}\n  ]\n}\n",
+        files.get(NativeImageMetadata.RESOURCE_CONFIG));
+    String constructor = ", \"methods\": [{\"name\": \"<init>\", \"parameterTypes\": []}]}";
+    assertEquals("[\n  {\"name\": \"com.example.messages\"" + constructor + ",\n"
+        + "  {\"name\": \"com.example.messages_de\"" + constructor + "\n]\n",
+        files.get(NativeImageMetadata.REFLECT_CONFIG));
+    assertEquals("Args = --initialize-at-build-time=com.example.enums.Messages,\\\n  com.example.messages,\\\n"
+        + "  com.example.messages_de\n", files.get(NativeImageMetadata.NATIVE_IMAGE_PROPERTIES));
+
+    assertFalse(metadata.render(false).containsKey(NativeImageMetadata.NATIVE_IMAGE_PROPERTIES));
+  }
+
+  /**
+   * Tests that nothing is initialized at build time without any classes, as an empty list would mean all classes.
+   */
+  @Test
+  public void testRenderEmpty() {
+    Map<String, String> files = new NativeImageMetadata().render(true);
+    assertEquals("[]\n", files.get(NativeImageMetadata.REFLECT_CONFIG));
+    assertFalse(files.containsKey(NativeImageMetadata.NATIVE_IMAGE_PROPERTIES));
+  }
+}
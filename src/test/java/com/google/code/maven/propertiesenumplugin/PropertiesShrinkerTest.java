@@ -0,0 +1,44 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link PropertiesShrinker}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class PropertiesShrinkerTest {
+
+  /**
+   * Tests that only the given properties, comments and blank lines are removed.
+   * 
+   * @throws IOException
+   *           if a property could not be parsed
+   */
+  @Test
+  public void testRemoveProperties() throws IOException {
+    String content = "# comment\r\nkept = a\\\r\n    b\r\n\r\nremoved: c\\\\\r\nkept.too=g\r\n  ! comment\r\n"
+        + "removed.too=d\\\n  e\\\n  f\nlast\\u0020key=\\u00e4";
+    String expected = "kept = a\\\r\n    b\r\nkept.too=g\r\nlast\\u0020key=\\u00e4";
+    assertEquals(expected,
+        PropertiesShrinker.removeProperties(content, new HashSet<String>(Arrays.asList("removed", "removed.too"))));
+  }
+}
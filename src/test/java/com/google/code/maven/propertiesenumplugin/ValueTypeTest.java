@@ -0,0 +1,73 @@
+/*
+ * Copyright 2010 Michel Jung
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, softwaredistributed under the License is distributed on an
+ * "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions andlimitations under the License.
+ */
+package com.google.code.maven.propertiesenumplugin;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test cases for {@link ValueType}.
+ * 
+ * @author Michel Jung &lt;michel_jung@hotmail.com&gt;
+ */
+public class ValueTypeTest {
+
+  /**
+   * Test method for {@link ValueType#infer(String)}.
+   */
+  @Test
+  public void testInfer() {
+    assertEquals(ValueType.INT, ValueType.infer(" 42 "));
+    assertEquals(ValueType.INT, ValueType.infer("-1"));
+    assertEquals(ValueType.LONG, ValueType.infer("4294967296"));
+    assertEquals(ValueType.STRING, ValueType.infer("99999999999999999999"));
+    assertEquals(ValueType.BOOLEAN, ValueType.infer("TRUE"));
+    assertEquals(ValueType.DURATION, ValueType.infer("30 s"));
+    assertEquals(ValueType.DURATION, ValueType.infer("250ms"));
+    assertEquals(ValueType.STRING, ValueType.infer("a, b"));
+    assertEquals(ValueType.STRING, ValueType.infer("3 apples"));
+  }
+
+  /**
+   * Test method for {@link ValueType#isValid(String)}.
+   */
+  @Test
+  public void testIsValid() {
+    assertTrue(ValueType.INT.isValid(" 80 "));
+    assertFalse(ValueType.INT.isValid("80a"));
+    assertFalse(ValueType.INT.isValid("4294967296"));
+    assertTrue(ValueType.LONG.isValid("4294967296"));
+    assertTrue(ValueType.BOOLEAN.isValid("False"));
+    assertFalse(ValueType.BOOLEAN.isValid("yes"));
+    assertTrue(ValueType.DURATION.isValid("30 s"));
+    assertTrue(ValueType.DURATION.isValid("250"));
+    assertFalse(ValueType.DURATION.isValid("30 w"));
+    assertFalse(ValueType.DURATION.isValid("s"));
+    assertTrue(ValueType.LIST.isValid("a, b"));
+    assertTrue(ValueType.STRING.isValid("3 apples"));
+  }
+
+  /**
+   * Test method for {@link ValueType#forName(String)}.
+   */
+  @Test
+  public void testForName() {
+    assertEquals(ValueType.LIST, ValueType.forName("list"));
+    assertEquals(ValueType.DURATION, ValueType.forName(" Duration "));
+    assertNull(ValueType.forName("date"));
+  }
+}